@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.kie.api.KieBase;
+import org.kie.api.conf.EventProcessingOption;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.utils.KieHelper;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Base class of all the benchmarks.
+ *
+ * Each benchmark method is a single shot that runs on a session freshly created
+ * by an iteration level setup, so that the facts left by a previous iteration
+ * do not influence the next one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 20)
+@Fork(2)
+public abstract class AbstractBenchmark {
+
+    protected KieBase    kieBase;
+    protected KieSession kieSession;
+
+    @TearDown(Level.Iteration)
+    public void disposeSession() {
+        if ( kieSession != null ) {
+            kieSession.dispose();
+            kieSession = null;
+        }
+    }
+
+    protected static KieBase buildKieBase(String drl) {
+        return new KieHelper().addContent( drl, ResourceType.DRL ).build();
+    }
+
+    protected static KieBase buildStreamKieBase(String drl) {
+        return new KieHelper().addContent( drl, ResourceType.DRL ).build( EventProcessingOption.STREAM );
+    }
+
+    protected static KieSession newPseudoClockSession(KieBase kieBase) {
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setOption( ClockTypeOption.get( "pseudo" ) );
+        return kieBase.newKieSession( conf, null );
+    }
+
+    protected static String imports(Class<?>... classes) {
+        StringBuilder sb = new StringBuilder();
+        for ( Class<?> clazz : classes ) {
+            sb.append( "import " ).append( clazz.getCanonicalName() ).append( ";\n" );
+        }
+        return sb.toString();
+    }
+}
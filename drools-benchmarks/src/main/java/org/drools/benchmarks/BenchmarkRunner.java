@@ -0,0 +1,66 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.benchmarks;
+
+import java.io.File;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar.
+ *
+ * It accepts the same arguments as the JMH launcher, but unless a result format
+ * is explicitly given it also writes the results as JSON, in a file named after
+ * the version of Drools being measured, e.g. target/jmh-result-6.3.0-SNAPSHOT.json,
+ * so that the results of two versions can be compared with any JSON diff tool
+ * or JMH visualizer.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmdOptions = new CommandLineOptions( args );
+        if ( cmdOptions.shouldHelp() || cmdOptions.shouldList() || cmdOptions.shouldListProfilers() ) {
+            org.openjdk.jmh.Main.main( args );
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent( cmdOptions );
+        if ( !cmdOptions.getResultFormat().hasValue() ) {
+            options.resultFormat( ResultFormatType.JSON );
+        }
+        if ( !cmdOptions.getResult().hasValue() ) {
+            options.result( getDefaultResultFile() );
+        }
+        new Runner( options.build() ).run();
+    }
+
+    private static String getDefaultResultFile() {
+        String version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+        if ( version == null ) {
+            version = System.getProperty( "drools.version", "dev" );
+        }
+        new File( "target" ).mkdirs();
+        return "target" + File.separator + "jmh-result-" + version + ".json";
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.benchmarks.cep;
+
+import java.util.concurrent.TimeUnit;
+
+import org.drools.benchmarks.AbstractBenchmark;
+import org.drools.benchmarks.model.Tick;
+import org.drools.core.time.SessionPseudoClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures a stream of events flowing through sliding windows, including the
+ * expiration of the events leaving them, driven by a pseudo clock.
+ */
+public class WindowBenchmark extends AbstractBenchmark {
+
+    @Param({"time( 1s )", "time( 1s, 100ms )", "length( 1000 )"})
+    private String window;
+
+    @Param({"1", "8"})
+    private int rulesNr;
+
+    @Param({"10000", "100000"})
+    private int eventsNr;
+
+    private SessionPseudoClock clock;
+
+    @Setup
+    public void setupKieBase() {
+        StringBuilder sb = new StringBuilder( imports( Tick.class ) );
+        sb.append( "declare Tick @role( event ) end\n" );
+        for ( int i = 0; i < rulesNr; i++ ) {
+            sb.append( "rule R" ).append( i ).append( " when\n" )
+              .append( "    $n : Number() from accumulate( Tick( symbol == \"S" ).append( i ).append( "\", $p : price ) over window:" )
+              .append( window ).append( ", average( $p ) )\n" )
+              .append( "then end\n" );
+        }
+        kieBase = buildStreamKieBase( sb.toString() );
+    }
+
+    @Setup(Level.Iteration)
+    public void setupKieSession() {
+        kieSession = newPseudoClockSession( kieBase );
+        clock = kieSession.getSessionClock();
+    }
+
+    @Benchmark
+    public int stream() {
+        int fired = 0;
+        for ( int i = 0; i < eventsNr; i++ ) {
+            kieSession.insert( new Tick( "S" + ( i % rulesNr ), i % 100 ) );
+            clock.advanceTime( 1, TimeUnit.MILLISECONDS );
+            if ( i % 10 == 9 ) {
+                fired += kieSession.fireAllRules();
+            }
+        }
+        return fired + kieSession.fireAllRules();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.benchmarks.marshalling;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.drools.benchmarks.AbstractBenchmark;
+import org.drools.benchmarks.model.A;
+import org.drools.benchmarks.model.B;
+import org.kie.api.marshalling.Marshaller;
+import org.kie.api.runtime.KieSession;
+import org.kie.internal.marshalling.MarshallerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures the protobuf based marshalling of a session holding facts, partial
+ * matches and pending activations, and its unmarshalling.
+ */
+public class MarshallingBenchmark extends AbstractBenchmark {
+
+    @Param({"8", "32"})
+    private int rulesNr;
+
+    @Param({"1000", "10000"})
+    private int factsNr;
+
+    private Marshaller marshaller;
+    private byte[]     serialized;
+
+    @Setup
+    public void setupKieBase() throws IOException {
+        StringBuilder sb = new StringBuilder( imports( A.class, B.class ) );
+        for ( int i = 0; i < rulesNr; i++ ) {
+            sb.append( "rule R" ).append( i ).append( " when\n" )
+              .append( "    $a : A( value > " ).append( i ).append( " )\n" )
+              .append( "    B( value == $a.value )\n" )
+              .append( "then end\n" );
+        }
+        kieBase = buildKieBase( sb.toString() );
+        marshaller = MarshallerFactory.newMarshaller( kieBase );
+
+        KieSession session = createPopulatedSession();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        marshaller.marshall( baos, session );
+        session.dispose();
+        serialized = baos.toByteArray();
+    }
+
+    @Setup(Level.Iteration)
+    public void setupKieSession() {
+        kieSession = createPopulatedSession();
+    }
+
+    @Benchmark
+    public byte[] marshall() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream( serialized.length );
+        marshaller.marshall( baos, kieSession );
+        return baos.toByteArray();
+    }
+
+    @Benchmark
+    public KieSession unmarshall() throws IOException, ClassNotFoundException {
+        KieSession session = marshaller.unmarshall( new ByteArrayInputStream( serialized ) );
+        session.dispose();
+        return session;
+    }
+
+    private KieSession createPopulatedSession() {
+        // the rules are not fired, so that the activations are marshalled too
+        KieSession session = kieBase.newKieSession();
+        for ( int i = 0; i < factsNr; i++ ) {
+            session.insert( new A( i % 100 ) );
+            session.insert( new B( i % 100 ) );
+        }
+        return session;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.benchmarks.phreak;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.benchmarks.AbstractBenchmark;
+import org.drools.benchmarks.model.A;
+import org.drools.benchmarks.model.B;
+import org.kie.api.runtime.rule.FactHandle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures the accumulate node, both when accumulating the inserted facts and
+ * when reversing the deleted ones.
+ */
+public class AccumulateBenchmark extends AbstractBenchmark {
+
+    @Param({"sum", "average", "count", "max"})
+    private String function;
+
+    @Param({"8", "32"})
+    private int rulesNr;
+
+    @Param({"1000", "10000"})
+    private int factsNr;
+
+    private List<FactHandle> bHandles;
+
+    @Setup
+    public void setupKieBase() {
+        StringBuilder sb = new StringBuilder( imports( A.class, B.class ) );
+        for ( int i = 0; i < rulesNr; i++ ) {
+            sb.append( "rule R" ).append( i ).append( " when\n" )
+              .append( "    $a : A( value == " ).append( i ).append( " )\n" )
+              .append( "    accumulate( B( value >= $a.value, $v : value ); $r : " ).append( function ).append( "( $v ) )\n" )
+              .append( "then end\n" );
+        }
+        kieBase = buildKieBase( sb.toString() );
+    }
+
+    @Setup(Level.Iteration)
+    public void setupKieSession() {
+        kieSession = kieBase.newKieSession();
+        bHandles = new ArrayList<FactHandle>( factsNr );
+        for ( int i = 0; i < rulesNr; i++ ) {
+            kieSession.insert( new A( i ) );
+        }
+        kieSession.fireAllRules();
+    }
+
+    @Benchmark
+    public int accumulateAndReverse() {
+        for ( int i = 0; i < factsNr; i++ ) {
+            bHandles.add( kieSession.insert( new B( i % rulesNr ) ) );
+        }
+        int fired = kieSession.fireAllRules();
+
+        // max does not support reverse, so deleting half of the facts also measures the recalculation
+        for ( int i = 0; i < factsNr; i += 2 ) {
+            kieSession.delete( bHandles.get( i ) );
+        }
+        return fired + kieSession.fireAllRules();
+    }
+}
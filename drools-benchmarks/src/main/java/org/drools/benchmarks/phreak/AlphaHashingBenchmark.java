@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.benchmarks.phreak;
+
+import org.drools.benchmarks.AbstractBenchmark;
+import org.drools.benchmarks.model.A;
+import org.kie.api.io.ResourceType;
+import org.kie.internal.conf.AlphaThresholdOption;
+import org.kie.internal.utils.KieHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures the propagation of facts through the alpha nodes sharing the same
+ * object type node, with literal constraints that the CompositeObjectSinkAdapter
+ * can hash (==) or range index (&gt;). Setting the alpha threshold to 0 disables
+ * both, so that the nodes are evaluated one by one.
+ */
+public class AlphaHashingBenchmark extends AbstractBenchmark {
+
+    @Param({"4", "16", "64", "256"})
+    private int rulesNr;
+
+    @Param({"10000"})
+    private int factsNr;
+
+    @Param({"==", ">"})
+    private String operator;
+
+    @Param({"0", "3"})
+    private int alphaThreshold;
+
+    @Setup
+    public void setupKieBase() {
+        StringBuilder sb = new StringBuilder( imports( A.class ) );
+        for ( int i = 0; i < rulesNr; i++ ) {
+            sb.append( "rule R" ).append( i ).append( " when\n" )
+              .append( "    A( value " ).append( operator ).append( " " ).append( i ).append( " )\n" )
+              .append( "then end\n" );
+        }
+        kieBase = new KieHelper().addContent( sb.toString(), ResourceType.DRL )
+                                 .build( AlphaThresholdOption.get( alphaThreshold ) );
+    }
+
+    @Setup(Level.Iteration)
+    public void setupKieSession() {
+        kieSession = kieBase.newKieSession();
+    }
+
+    @Benchmark
+    public int insert() {
+        for ( int i = 0; i < factsNr; i++ ) {
+            kieSession.insert( new A( i % rulesNr ) );
+        }
+        return kieSession.fireAllRules();
+    }
+}
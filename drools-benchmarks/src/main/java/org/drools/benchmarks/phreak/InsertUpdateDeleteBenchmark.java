@@ -0,0 +1,102 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.benchmarks.phreak;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.benchmarks.AbstractBenchmark;
+import org.drools.benchmarks.model.A;
+import org.drools.benchmarks.model.B;
+import org.kie.api.runtime.rule.FactHandle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * Measures the insertion, update and deletion of facts through the default
+ * entry point, followed by the evaluation of the network, with rules made of
+ * a single pattern and a join.
+ */
+public class InsertUpdateDeleteBenchmark extends AbstractBenchmark {
+
+    @Param({"16", "64"})
+    private int rulesNr;
+
+    @Param({"1000", "10000"})
+    private int factsNr;
+
+    private List<FactHandle> aHandles;
+    private List<FactHandle> bHandles;
+
+    @Setup
+    public void setupKieBase() {
+        StringBuilder sb = new StringBuilder( imports( A.class, B.class ) );
+        for ( int i = 0; i < rulesNr; i++ ) {
+            sb.append( "rule R" ).append( i ).append( " when\n" )
+              .append( "    $a : A( value > " ).append( i ).append( " )\n" )
+              .append( "    B( value == $a.value )\n" )
+              .append( "then end\n" );
+        }
+        kieBase = buildKieBase( sb.toString() );
+    }
+
+    @Setup(Level.Iteration)
+    public void setupKieSession(BenchmarkParams params) {
+        kieSession = kieBase.newKieSession();
+        aHandles = new ArrayList<FactHandle>( factsNr );
+        bHandles = new ArrayList<FactHandle>( factsNr );
+        if ( !params.getBenchmark().endsWith( ".insert" ) ) {
+            // updates and deletes are measured against an already populated session
+            insertFacts();
+            kieSession.fireAllRules();
+        }
+    }
+
+    @Benchmark
+    public int insert() {
+        insertFacts();
+        return kieSession.fireAllRules();
+    }
+
+    @Benchmark
+    public int update() {
+        for ( int i = 0; i < factsNr; i++ ) {
+            kieSession.update( aHandles.get( i ), new A( ( i + 1 ) % rulesNr + 1 ) );
+        }
+        return kieSession.fireAllRules();
+    }
+
+    @Benchmark
+    public int delete() {
+        for ( int i = 0; i < factsNr; i++ ) {
+            kieSession.delete( aHandles.get( i ) );
+            kieSession.delete( bHandles.get( i ) );
+        }
+        return kieSession.fireAllRules();
+    }
+
+    private void insertFacts() {
+        for ( int i = 0; i < factsNr; i++ ) {
+            aHandles.add( kieSession.insert( new A( i % rulesNr + 1 ) ) );
+            bHandles.add( kieSession.insert( new B( i % rulesNr + 1 ) ) );
+        }
+    }
+}
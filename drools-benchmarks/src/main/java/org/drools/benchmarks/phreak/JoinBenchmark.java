@@ -0,0 +1,72 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.benchmarks.phreak;
+
+import org.drools.benchmarks.AbstractBenchmark;
+import org.drools.benchmarks.model.A;
+import org.drools.benchmarks.model.B;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures the left and right propagations of join nodes, either indexed on an
+ * equality constraint or evaluated by a full scan of the opposite memory.
+ */
+public class JoinBenchmark extends AbstractBenchmark {
+
+    @Param({"8", "32"})
+    private int rulesNr;
+
+    @Param({"1000", "10000"})
+    private int factsNr;
+
+    @Param({"==", ">"})
+    private String operator;
+
+    @Setup
+    public void setupKieBase() {
+        StringBuilder sb = new StringBuilder( imports( A.class, B.class ) );
+        for ( int i = 0; i < rulesNr; i++ ) {
+            sb.append( "rule R" ).append( i ).append( " when\n" )
+              .append( "    $a : A( value > " ).append( i ).append( " )\n" )
+              .append( "    B( value " ).append( operator ).append( " $a.value )\n" )
+              .append( "then end\n" );
+        }
+        kieBase = buildKieBase( sb.toString() );
+    }
+
+    @Setup(Level.Iteration)
+    public void setupKieSession() {
+        kieSession = kieBase.newKieSession();
+    }
+
+    @Benchmark
+    public int join() {
+        // interleaving the inserts exercises both the left and the right inputs
+        for ( int i = 0; i < factsNr; i++ ) {
+            kieSession.insert( new A( i % 100 ) );
+            kieSession.insert( new B( i % 100 ) );
+            if ( i % 100 == 99 ) {
+                kieSession.fireAllRules();
+            }
+        }
+        return kieSession.fireAllRules();
+    }
+}
@@ -9,12 +9,14 @@ import org.drools.compiler.lang.descr.ImportDescr;
 import org.drools.compiler.lang.descr.PackageDescr;
 import org.drools.compiler.lang.descr.TypeDeclarationDescr;
 import org.drools.core.builder.conf.impl.JaxbConfigurationImpl;
+import org.drools.core.concurrent.ParallelTasks;
 import org.drools.core.util.StringUtils;
 import org.kie.api.io.Resource;
 import org.kie.api.io.ResourceConfiguration;
 import org.kie.api.io.ResourceType;
 import org.kie.internal.builder.ChangeType;
 import org.kie.internal.builder.CompositeKnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderResult;
 import org.kie.internal.builder.ResourceChange;
 import org.kie.internal.builder.ResourceChangeSet;
 
@@ -23,6 +25,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 public class CompositeKnowledgeBuilderImpl implements CompositeKnowledgeBuilder {
 
@@ -354,6 +357,10 @@ public class CompositeKnowledgeBuilderImpl implements CompositeKnowledgeBuilder
     private void buildResource(Map<String, CompositePackageDescr> packages, ResourceType resourceType, ResourceToPkgDescrMapper mapper) {
         List<ResourceDescr> resourcesByType = this.resourcesByType.remove(resourceType);
         if (resourcesByType != null) {
+            if (mapper == DRL_TO_PKG_DESCR && resourcesByType.size() > 1) {
+                buildDrlResources(packages, resourcesByType);
+                return;
+            }
             for (ResourceDescr resourceDescr : resourcesByType) {
                 try {
                     registerPackageDescr(resourceDescr, packages, resourceDescr.resource, mapper.map(kBuilder, resourceDescr));
@@ -370,6 +377,56 @@ public class CompositeKnowledgeBuilderImpl implements CompositeKnowledgeBuilder
         }
     }
 
+    /**
+     * Parses the DRL resources in parallel, then registers their descrs and parser errors
+     * in the same order of the resources, so that the outcome doesn't depend on which
+     * resource has been parsed first
+     */
+    private void buildDrlResources(Map<String, CompositePackageDescr> packages, List<ResourceDescr> resources) {
+        List<DrlParsingTask> tasks = new ArrayList<DrlParsingTask>(resources.size());
+        for (ResourceDescr resourceDescr : resources) {
+            tasks.add(new DrlParsingTask(kBuilder, resourceDescr));
+        }
+        ParallelTasks.invokeAll(tasks);
+
+        for (DrlParsingTask task : tasks) {
+            for (KnowledgeBuilderResult error : task.errors) {
+                kBuilder.addBuilderResult(error);
+            }
+            if (task.exception != null) {
+                if (buildException == null) {
+                    buildException = task.exception instanceof RuntimeException ?
+                                     (RuntimeException) task.exception :
+                                     new RuntimeException( task.exception );
+                }
+            } else {
+                registerPackageDescr(task.resourceDescr, packages, task.resourceDescr.resource, task.packageDescr);
+            }
+        }
+    }
+
+    private static class DrlParsingTask implements Callable<PackageDescr> {
+        private final KnowledgeBuilderImpl kBuilder;
+        private final ResourceDescr resourceDescr;
+        private final List<KnowledgeBuilderResult> errors = new ArrayList<KnowledgeBuilderResult>();
+        private PackageDescr packageDescr;
+        private Exception exception;
+
+        private DrlParsingTask(KnowledgeBuilderImpl kBuilder, ResourceDescr resourceDescr) {
+            this.kBuilder = kBuilder;
+            this.resourceDescr = resourceDescr;
+        }
+
+        public PackageDescr call() {
+            try {
+                packageDescr = kBuilder.parseDrl(resourceDescr.resource, errors);
+            } catch (Exception e) {
+                exception = e;
+            }
+            return packageDescr;
+        }
+    }
+
     private void registerPackageDescr(ResourceDescr resourceDescr, Map<String, CompositePackageDescr> packages, Resource resource, PackageDescr packageDescr) {
         if (packageDescr != null) {
             CompositePackageDescr compositePackageDescr = packages.get(packageDescr.getNamespace());
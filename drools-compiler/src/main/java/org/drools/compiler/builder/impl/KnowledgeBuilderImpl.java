@@ -371,14 +371,17 @@ public class KnowledgeBuilderImpl implements KnowledgeBuilder {
         DecisionTableConfiguration dtableConfiguration = configuration instanceof DecisionTableConfiguration ?
                                                          (DecisionTableConfiguration) configuration :
                                                          null;
-        String generatedDrl = DecisionTableFactory.loadFromInputStream(resource.getInputStream(), dtableConfiguration);
-        // dump the generated DRL if the dump dir was configured
-        if (this.configuration.getDumpDir() != null) {
+        DrlParser parser = new DrlParser(this.configuration.getLanguageLevel());
+        PackageDescr pkg;
+        if (this.configuration.getDumpDir() == null) {
+            // build the descrs straight from the decision table, without generating its DRL
+            pkg = DecisionTableFactory.loadPackageDescr(resource, dtableConfiguration, parser);
+        } else {
+            String generatedDrl = DecisionTableFactory.loadFromInputStream(resource.getInputStream(), dtableConfiguration);
+            // dump the generated DRL since the dump dir was configured
             dumpDrlGeneratedFromDTable(this.configuration.getDumpDir(), generatedDrl, resource.getSourcePath());
+            pkg = parser.parse(resource, new StringReader(generatedDrl));
         }
-
-        DrlParser parser = new DrlParser(this.configuration.getLanguageLevel());
-        PackageDescr pkg = parser.parse(resource, new StringReader(generatedDrl));
         this.results.addAll(parser.getErrors());
         if (pkg == null) {
             addBuilderResult(new ParserError(resource, "Parser returned a null Package", 0, 0));
@@ -436,6 +439,19 @@ public class KnowledgeBuilderImpl implements KnowledgeBuilder {
 
     PackageDescr drlToPackageDescr(Resource resource) throws DroolsParserException,
                                                              IOException {
+        List<KnowledgeBuilderResult> errors = new ArrayList<KnowledgeBuilderResult>();
+        PackageDescr pkg = parseDrl(resource, errors);
+        this.results.addAll(errors);
+        return pkg;
+    }
+
+    /**
+     * Parses a DRL resource without changing the state of this builder, so that many
+     * resources can be parsed at the same time. The parser errors are added to the given
+     * list instead of the results of this builder.
+     */
+    PackageDescr parseDrl(Resource resource, List<KnowledgeBuilderResult> errors) throws DroolsParserException,
+                                                                                         IOException {
         PackageDescr pkg;
         boolean hasErrors = false;
         if (resource instanceof DescrResource) {
@@ -443,9 +459,9 @@ public class KnowledgeBuilderImpl implements KnowledgeBuilder {
         } else {
             final DrlParser parser = new DrlParser(configuration.getLanguageLevel());
             pkg = parser.parse(resource);
-            this.results.addAll(parser.getErrors());
+            errors.addAll(parser.getErrors());
             if (pkg == null) {
-                addBuilderResult(new ParserError(resource, "Parser returned a null Package", 0, 0));
+                errors.add(new ParserError(resource, "Parser returned a null Package", 0, 0));
             }
             hasErrors = parser.hasErrors();
         }
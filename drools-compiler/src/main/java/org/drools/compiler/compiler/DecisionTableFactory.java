@@ -1,7 +1,10 @@
 package org.drools.compiler.compiler;
 
+import java.io.IOException;
 import java.io.InputStream;
 
+import org.drools.compiler.lang.descr.PackageDescr;
+import org.kie.api.io.Resource;
 import org.kie.internal.builder.DecisionTableConfiguration;
 import org.kie.internal.utils.ServiceRegistryImpl;
 
@@ -14,6 +17,10 @@ public class DecisionTableFactory {
     public static String loadFromInputStream(InputStream is, DecisionTableConfiguration configuration) {
         return getDecisionTableProvider().loadFromInputStream( is, configuration );
     }
+
+    public static PackageDescr loadPackageDescr(Resource resource, DecisionTableConfiguration configuration, DrlParser parser) throws DroolsParserException, IOException {
+        return getDecisionTableProvider().loadPackageDescr( resource, configuration, parser );
+    }
     
     public static synchronized void setDecisionTableProvider(DecisionTableProvider provider) {
         DecisionTableFactory.provider = provider;
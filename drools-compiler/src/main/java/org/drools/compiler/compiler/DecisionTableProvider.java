@@ -1,8 +1,11 @@
 package org.drools.compiler.compiler;
 
+import java.io.IOException;
 import java.io.InputStream;
 
+import org.drools.compiler.lang.descr.PackageDescr;
 import org.kie.api.Service;
+import org.kie.api.io.Resource;
 import org.kie.internal.builder.DecisionTableConfiguration;
 
 public interface DecisionTableProvider extends Service {
@@ -10,5 +13,14 @@ public interface DecisionTableProvider extends Service {
     String loadFromInputStream(InputStream is,
                                DecisionTableConfiguration configuration);
 
+    /**
+     * Compiles the decision table directly into a PackageDescr, without generating and
+     * parsing the DRL of the whole table. The given parser is used only for the parts of
+     * the table that cannot be converted directly, and it collects their parsing errors.
+     */
+    PackageDescr loadPackageDescr(Resource resource,
+                                  DecisionTableConfiguration configuration,
+                                  DrlParser parser) throws DroolsParserException,
+                                                           IOException;
 
 }
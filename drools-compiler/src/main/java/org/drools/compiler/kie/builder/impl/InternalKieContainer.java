@@ -29,7 +29,14 @@ public interface InternalKieContainer extends KieContainer {
     StatelessKieSession getStatelessKieSession(String kSessionName);
 
     /**
-     * Disposes all the KieSessions created in this KieContainer
+     * Creates a pool of KieSessions, initially holding the given number of sessions for the
+     * default KieSession of this KieContainer
+     * @see KieSessionsPool
+     */
+    KieSessionsPool newKieSessionsPool(int initialSize);
+
+    /**
+     * Disposes all the KieSessions created in this KieContainer, and shuts down its KieSessionsPools
      */
     void dispose();
 
@@ -8,6 +8,8 @@ import org.drools.compiler.kproject.models.KieBaseModelImpl;
 import org.drools.compiler.kproject.models.KieSessionModelImpl;
 import org.drools.core.RuleBaseConfiguration;
 import org.drools.core.common.ProjectClassLoader;
+import org.drools.core.concurrent.ParallelTasks;
+import org.drools.core.conf.ConstraintJittingThresholdOption;
 import org.drools.core.definitions.impl.KnowledgePackageImpl;
 import org.drools.core.definitions.rule.impl.RuleImpl;
 import org.drools.core.impl.InternalKnowledgeBase;
@@ -54,7 +56,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.drools.compiler.kie.builder.impl.AbstractKieModule.buildKnowledgePackages;
 import static org.drools.compiler.kie.builder.impl.KieBuilderImpl.filterFileInKBase;
@@ -74,6 +78,8 @@ public class KieContainerImpl
     private final Map<String, KieSession> kSessions = new ConcurrentHashMap<String, KieSession>();
     private final Map<String, StatelessKieSession> statelessKSessions = new ConcurrentHashMap<String, StatelessKieSession>();
 
+    private final List<KieSessionsPool> kSessionsPools = new CopyOnWriteArrayList<KieSessionsPool>();
+
     private final KieRepository        kr;
 
     private ReleaseId containerReleaseId;
@@ -133,9 +139,8 @@ public class KieContainerImpl
 
         ((KieModuleKieProject) kProject).updateToModule( newKM );
 
-        ResultsImpl results = new ResultsImpl();
-
         List<String> kbasesToRemove = new ArrayList<String>();
+        List<KieBaseUpdater> updaters = new ArrayList<KieBaseUpdater>();
         for ( Entry<String, KieBase> kBaseEntry : kBases.entrySet() ) {
             String kbaseName = kBaseEntry.getKey();
             KieBaseModel kieBaseModel = kProject.getKieBaseModel( kbaseName );
@@ -144,37 +149,27 @@ public class KieContainerImpl
                 // have to save for later removal to avoid iteration errors
                 kbasesToRemove.add( kbaseName );
             } else {
-                // attaching the builder to the kbase
-                KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder((KnowledgeBase) kBaseEntry.getValue());
-                KnowledgeBuilderImpl pkgbuilder = (KnowledgeBuilderImpl)kbuilder;
-                CompositeKnowledgeBuilder ckbuilder = kbuilder.batch();
-
-                boolean shouldRebuild = applyResourceChanges(currentKM, newKM, cs, modifiedClasses,
-                                                             kBaseEntry, kieBaseModel, pkgbuilder, ckbuilder);
-                pkgbuilder.startPackageUpdate();
-                try {
-                    // remove resources first
-                    for ( ResourceChangeSet rcs : cs.getChanges().values() ) {
-                        if ( rcs.getChangeType() == ChangeType.REMOVED ) {
-                            String resourceName = rcs.getResourceName();
-                            if ( !resourceName.endsWith( ".properties" ) && isFileInKBase(newKM, kieBaseModel, resourceName) ) {
-                                pkgbuilder.removeObjectsGeneratedFromResource( currentKM.getResource( resourceName ) );
-                            }
-                        }
-                    }
+                updaters.add( new KieBaseUpdater( currentKM, newKM, newReleaseId, cs, modifiedClasses, dslFiles,
+                                                  kBaseEntry, kieBaseModel ) );
+            }
+        }
 
-                    if ( shouldRebuild ) {
-                        // readd unchanged dsl files to the kbuilder
-                        for (String dslFile : dslFiles) {
-                            if (isFileInKBase(newKM, kieBaseModel, dslFile)) {
-                                newKM.addResourceToCompiler(ckbuilder, dslFile);
-                            }
-                        }
-                        rebuildAll(newReleaseId, results, newKM, modifiedClasses, kieBaseModel, pkgbuilder, ckbuilder);
-                    }
-                } finally {
-                    pkgbuilder.completePackageUpdate();
-                }
+        if ( !updaters.isEmpty() ) {
+            // the classes are shared by all the kbases, so they are redefined only once before updating them
+            Set<String> modifiedPackages = redefineModifiedClasses( newKM, modifiedClasses );
+            for ( KieBaseUpdater updater : updaters ) {
+                updater.modifiedPackages = modifiedPackages;
+            }
+            // each kbase has its own builder and is locked only while it is being updated,
+            // so they can be updated in parallel and their sessions aren't paused while
+            // the other kbases are compiled
+            ParallelTasks.invokeAll( updaters );
+        }
+
+        ResultsImpl results = new ResultsImpl();
+        for ( KieBaseUpdater updater : updaters ) {
+            for ( KnowledgeBuilderError error : updater.errors ) {
+                results.addMessage( error );
             }
         }
 
@@ -305,16 +300,10 @@ public class KieContainerImpl
         return fileCount;
     }
 
-    private void rebuildAll(ReleaseId newReleaseId,
-                            ResultsImpl results,
-                            InternalKieModule newKM,
-                            List<String> modifiedClasses,
-                            KieBaseModel kieBaseModel,
-                            KnowledgeBuilderImpl kbuilder,
-                            CompositeKnowledgeBuilder ckbuilder) {
+    private Set<String> redefineModifiedClasses(InternalKieModule newKM, List<String> modifiedClasses) {
         Set<String> modifiedPackages = new HashSet<String>();
         if (!modifiedClasses.isEmpty()) {
-            ClassLoader rootClassLoader = kbuilder.getRootClassLoader();
+            ClassLoader rootClassLoader = kProject.getClassLoader();
             if ( rootClassLoader instanceof ProjectClassLoader) {
                 ProjectClassLoader projectClassLoader = (ProjectClassLoader) rootClassLoader;
                 projectClassLoader.reinitTypes();
@@ -324,25 +313,100 @@ public class KieContainerImpl
                     Class<?> clazz = projectClassLoader.defineClass(className, resourceName, bytes);
                     modifiedPackages.add(clazz.getPackage().getName());
                 }
-                kbuilder.setAllRuntimesDirty(modifiedPackages);
             }
         }
+        return modifiedPackages;
+    }
+
+    private void rebuildAll(ReleaseId newReleaseId,
+                            List<KnowledgeBuilderError> errors,
+                            Set<String> modifiedPackages,
+                            KieBaseModel kieBaseModel,
+                            KnowledgeBuilderImpl kbuilder,
+                            CompositeKnowledgeBuilder ckbuilder) {
+        if (!modifiedPackages.isEmpty()) {
+            kbuilder.setAllRuntimesDirty(modifiedPackages);
+        }
 
         ckbuilder.build();
 
-        PackageBuilderErrors errors = kbuilder.getErrors();
-        if ( !errors.isEmpty() ) {
-            for ( KnowledgeBuilderError error : errors.getErrors() ) {
-                results.addMessage(error);
+        PackageBuilderErrors builderErrors = kbuilder.getErrors();
+        if ( !builderErrors.isEmpty() ) {
+            for ( KnowledgeBuilderError error : builderErrors.getErrors() ) {
+                errors.add(error);
             }
-            log.error("Unable to update KieBase: " + kieBaseModel.getName() + " to release " + newReleaseId + "\n" + errors.toString());
+            log.error("Unable to update KieBase: " + kieBaseModel.getName() + " to release " + newReleaseId + "\n" + builderErrors.toString());
         }
 
-        if (!modifiedClasses.isEmpty()) {
+        if (!modifiedPackages.isEmpty()) {
             kbuilder.rewireClassObjectTypes(modifiedPackages);
         }
     }
 
+    /**
+     * Computes and applies the changes of a single kbase, collecting the compilation errors
+     */
+    private class KieBaseUpdater implements Callable<Boolean> {
+        private final InternalKieModule currentKM;
+        private final InternalKieModule newKM;
+        private final ReleaseId newReleaseId;
+        private final KieJarChangeSet cs;
+        private final List<String> modifiedClasses;
+        private final List<String> dslFiles;
+        private final Entry<String, KieBase> kBaseEntry;
+        private final KieBaseModel kieBaseModel;
+
+        private Set<String> modifiedPackages = Collections.emptySet();
+        private final List<KnowledgeBuilderError> errors = new ArrayList<KnowledgeBuilderError>();
+
+        private KieBaseUpdater(InternalKieModule currentKM, InternalKieModule newKM, ReleaseId newReleaseId, KieJarChangeSet cs,
+                               List<String> modifiedClasses, List<String> dslFiles, Entry<String, KieBase> kBaseEntry, KieBaseModel kieBaseModel) {
+            this.currentKM = currentKM;
+            this.newKM = newKM;
+            this.newReleaseId = newReleaseId;
+            this.cs = cs;
+            this.modifiedClasses = modifiedClasses;
+            this.dslFiles = dslFiles;
+            this.kBaseEntry = kBaseEntry;
+            this.kieBaseModel = kieBaseModel;
+        }
+
+        public Boolean call() {
+            // attaching the builder to the kbase
+            KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder((KnowledgeBase) kBaseEntry.getValue());
+            KnowledgeBuilderImpl pkgbuilder = (KnowledgeBuilderImpl)kbuilder;
+            CompositeKnowledgeBuilder ckbuilder = kbuilder.batch();
+
+            boolean shouldRebuild = applyResourceChanges(currentKM, newKM, cs, modifiedClasses,
+                                                         kBaseEntry, kieBaseModel, pkgbuilder, ckbuilder);
+            pkgbuilder.startPackageUpdate();
+            try {
+                // remove resources first
+                for ( ResourceChangeSet rcs : cs.getChanges().values() ) {
+                    if ( rcs.getChangeType() == ChangeType.REMOVED ) {
+                        String resourceName = rcs.getResourceName();
+                        if ( !resourceName.endsWith( ".properties" ) && isFileInKBase(newKM, kieBaseModel, resourceName) ) {
+                            pkgbuilder.removeObjectsGeneratedFromResource( currentKM.getResource( resourceName ) );
+                        }
+                    }
+                }
+
+                if ( shouldRebuild ) {
+                    // readd unchanged dsl files to the kbuilder
+                    for (String dslFile : dslFiles) {
+                        if (isFileInKBase(newKM, kieBaseModel, dslFile)) {
+                            newKM.addResourceToCompiler(ckbuilder, dslFile);
+                        }
+                    }
+                    rebuildAll(newReleaseId, errors, modifiedPackages, kieBaseModel, pkgbuilder, ckbuilder);
+                }
+            } finally {
+                pkgbuilder.completePackageUpdate();
+            }
+            return shouldRebuild;
+        }
+    }
+
     private List<String> getModifiedClasses(KieJarChangeSet cs) {
         List<String> modifiedClasses = new ArrayList<String>();
         for ( ResourceChangeSet rcs : cs.getChanges().values() ) {
@@ -469,6 +533,11 @@ public class KieContainerImpl
         kbConf.setOption(kBaseModel.getEqualsBehavior());
         kbConf.setOption(kBaseModel.getEventProcessingMode());
         kbConf.setOption(kBaseModel.getDeclarativeAgenda());
+        // only the kmodule properties meant for the kbase are copied, the other ones configure the builder
+        String jittingThreshold = kBaseModel.getKModule().getConfigurationProperty(ConstraintJittingThresholdOption.PROPERTY_NAME);
+        if (jittingThreshold != null) {
+            kbConf.setProperty(ConstraintJittingThresholdOption.PROPERTY_NAME, jittingThreshold);
+        }
         return kbConf;
     }
 
@@ -494,7 +563,7 @@ public class KieContainerImpl
         return newKieSession(defaultKieSessionModel.getName(), environment, conf);
     }
 
-    private KieSessionModel findKieSessionModel(boolean stateless) {
+    KieSessionModel findKieSessionModel(boolean stateless) {
         KieSessionModel defaultKieSessionModel = stateless ? kProject.getDefaultStatelessKieSession() : kProject.getDefaultKieSession();
         if (defaultKieSessionModel == null) {
             throw new RuntimeException(stateless ? "Cannot find a default StatelessKieSession" : "Cannot find a default KieSession");
@@ -538,6 +607,20 @@ public class KieContainerImpl
     }
 
     public KieSession newKieSession(String kSessionName, Environment environment, KieSessionConfiguration conf) {
+        KieSession kSession = createKieSession(kSessionName, environment, conf);
+        if ( kSession != null ) {
+            kSessions.put(kSessionName, kSession);
+        }
+        return kSession;
+    }
+
+    public KieSessionsPool newKieSessionsPool(int initialSize) {
+        KieSessionsPoolImpl pool = new KieSessionsPoolImpl(this, initialSize);
+        kSessionsPools.add(pool);
+        return pool;
+    }
+
+    KieSession createKieSession(String kSessionName, Environment environment, KieSessionConfiguration conf) {
         KieSessionModelImpl kSessionModel = (KieSessionModelImpl) getKieSessionModel(kSessionName);
         if ( kSessionModel == null ) {
             log.error("Unknown KieSession name: " + kSessionName);
@@ -556,7 +639,6 @@ public class KieContainerImpl
 
         registerLoggers(kSessionModel, kSession);
 
-        kSessions.put(kSessionName, kSession);
         return kSession;
     }
 
@@ -618,6 +700,10 @@ public class KieContainerImpl
         }
         kSessions.clear();
         statelessKSessions.clear();
+        for (KieSessionsPool pool : kSessionsPools) {
+            pool.shutdown();
+        }
+        kSessionsPools.clear();
     }
 
     public KieProject getKieProject() {
@@ -0,0 +1,34 @@
+package org.drools.compiler.kie.builder.impl;
+
+import org.kie.api.runtime.KieSession;
+
+/**
+ * A pool of KieSessions created by a KieContainer.
+ *
+ * Disposing a KieSession taken from this pool doesn't actually dispose it, but resets it
+ * and returns it to the pool, so that it can be handed out again without creating its
+ * node memories, agenda and entry points from scratch. A session returned to the pool
+ * loses its facts, globals and activations, as well as the event listeners, channels and
+ * work item handlers added after it was taken, but keeps the listeners configured in the
+ * kmodule and the work item handlers of its configuration. Once disposed, a session
+ * rejects any operation until it is handed out again by the pool.
+ */
+public interface KieSessionsPool {
+
+    /**
+     * Returns a session from the pool for the default KieSession of the KieContainer
+     * @throws a RuntimeException if the KieContainer doesn't have any default KieSession
+     */
+    KieSession newKieSession();
+
+    /**
+     * Returns a session from the pool for the KieSession with the given name
+     */
+    KieSession newKieSession(String kSessionName);
+
+    /**
+     * Disposes the sessions held by this pool. The sessions still in use are disposed
+     * as soon as they are released.
+     */
+    void shutdown();
+}
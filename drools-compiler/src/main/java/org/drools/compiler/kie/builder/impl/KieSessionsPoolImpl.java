@@ -0,0 +1,70 @@
+package org.drools.compiler.kie.builder.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.drools.core.impl.StatefulSessionPool;
+import org.kie.api.builder.model.KieSessionModel;
+import org.kie.api.runtime.KieSession;
+
+public class KieSessionsPoolImpl implements KieSessionsPool {
+
+    private final KieContainerImpl kContainer;
+
+    private final int initialSize;
+
+    private final Map<String, StatefulSessionPool> pools = new ConcurrentHashMap<String, StatefulSessionPool>();
+
+    private volatile boolean alive = true;
+
+    KieSessionsPoolImpl(KieContainerImpl kContainer, int initialSize) {
+        this.kContainer = kContainer;
+        this.initialSize = initialSize;
+        KieSessionModel defaultKieSessionModel = kContainer.getKieProject().getDefaultKieSession();
+        if (defaultKieSessionModel != null) {
+            // pre-warm the sessions for the default KieSession, the other ones are created on their first request
+            getPool(defaultKieSessionModel.getName());
+        }
+    }
+
+    public KieSession newKieSession() {
+        return newKieSession(kContainer.findKieSessionModel(false).getName());
+    }
+
+    public KieSession newKieSession(String kSessionName) {
+        return getPool(kSessionName).get();
+    }
+
+    public synchronized void shutdown() {
+        alive = false;
+        for (StatefulSessionPool pool : pools.values()) {
+            pool.shutdown();
+        }
+        pools.clear();
+    }
+
+    private StatefulSessionPool getPool(final String kSessionName) {
+        StatefulSessionPool pool = pools.get(kSessionName);
+        if (pool == null) {
+            synchronized (this) {
+                if (!alive) {
+                    throw new IllegalStateException("Cannot create a KieSession from a pool that has been shut down");
+                }
+                pool = pools.get(kSessionName);
+                if (pool == null) {
+                    if (kContainer.getKieSessionModel(kSessionName) == null) {
+                        throw new RuntimeException("Unknown KieSession name: " + kSessionName);
+                    }
+                    pool = new StatefulSessionPool(new StatefulSessionPool.SessionFactory() {
+                        public StatefulKnowledgeSessionImpl newSession() {
+                            return (StatefulKnowledgeSessionImpl) kContainer.createKieSession(kSessionName, null, null);
+                        }
+                    }, initialSize);
+                    pools.put(kSessionName, pool);
+                }
+            }
+        }
+        return pool;
+    }
+}
@@ -68,6 +68,7 @@ import org.drools.core.facttemplates.FactTemplateObjectType;
 import org.drools.core.reteoo.RuleTerminalNode.SortDeclarations;
 import org.drools.core.reteoo.RuleTerminalNodeLeftTuple;
 import org.drools.core.rule.Behavior;
+import org.drools.core.rule.BucketedTimeWindow;
 import org.drools.core.rule.Declaration;
 import org.drools.core.rule.From;
 import org.drools.core.rule.MVELDialectRuntimeData;
@@ -327,8 +328,22 @@ public class PatternBuilder
         for ( BehaviorDescr behaviorDescr : patternDescr.getBehaviors() ) {
             if ( pattern.getObjectType().isEvent() ) {
                 if ( Behavior.BehaviorType.TIME_WINDOW.matches( behaviorDescr.getSubType() ) ) {
-                    SlidingTimeWindow window = new SlidingTimeWindow( TimeUtils.parseTimeString( behaviorDescr.getParameters().get( 0 ) ) );
-                    pattern.addBehavior( window );
+                    long size = TimeUtils.parseTimeString( behaviorDescr.getParameters().get( 0 ) );
+                    if ( behaviorDescr.getParameters().size() > 1 ) {
+                        // the second parameter is the time span of the buckets the events are grouped into
+                        long bucketSize = TimeUtils.parseTimeString( behaviorDescr.getParameters().get( 1 ) );
+                        if ( bucketSize <= 0 || bucketSize > size ) {
+                            context.addError( new DescrBuildError( context.getParentDescr(),
+                                                                   patternDescr,
+                                                                   null,
+                                                                   "The bucket size of a time window must be greater than 0 and not greater than the size of the window in rule '" +
+                                                                   context.getRule().getName() + "'" ) );
+                        } else {
+                            pattern.addBehavior( new BucketedTimeWindow( size, bucketSize ) );
+                        }
+                    } else {
+                        pattern.addBehavior( new SlidingTimeWindow( size ) );
+                    }
                 } else if ( Behavior.BehaviorType.LENGTH_WINDOW.matches( behaviorDescr.getSubType() ) ) {
                     SlidingLengthWindow window = new SlidingLengthWindow( Integer.valueOf( behaviorDescr.getParameters().get( 0 ) ) );
                     pattern.addBehavior( window );
@@ -16,9 +16,9 @@
 package org.drools.compiler.conf;
 
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.fail;
 
 import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.conf.ConstraintJittingThresholdOption;
 import org.drools.core.runtime.rule.impl.DefaultConsequenceExceptionHandler;
 import org.junit.Before;
 import org.junit.Test;
@@ -321,6 +321,34 @@ public class KnowledgeBaseConfigurationTest {
                 config.getProperty( PermGenThresholdOption.PROPERTY_NAME ) );
     }
 
+    @Test
+    public void testConstraintJittingThresholdConfiguration() {
+        // checking the default value
+        assertEquals( ConstraintJittingThresholdOption.get(ConstraintJittingThresholdOption.DEFAULT_VALUE),
+                config.getOption( ConstraintJittingThresholdOption.class ) );
+
+        // setting the option using the type safe method
+        config.setOption( ConstraintJittingThresholdOption.NEVER );
+
+        // checking the type safe getOption() method
+        assertEquals( ConstraintJittingThresholdOption.NEVER,
+                config.getOption( ConstraintJittingThresholdOption.class ) );
+        // checking the string based getProperty() method
+        assertEquals( "-1",
+                config.getProperty( ConstraintJittingThresholdOption.PROPERTY_NAME ) );
+
+        // setting the options using the string based setProperty() method
+        config.setProperty( ConstraintJittingThresholdOption.PROPERTY_NAME,
+                "0" );
+
+        // checking the type safe getOption() method
+        assertEquals( ConstraintJittingThresholdOption.EAGER,
+                config.getOption( ConstraintJittingThresholdOption.class ) );
+        // checking the string based getProperty() method
+        assertEquals( "0",
+                config.getProperty( ConstraintJittingThresholdOption.PROPERTY_NAME ) );
+    }
+
     @Test
     public void testCompositeKeyDepthConfiguration() {
         // setting the option using the type safe method
@@ -420,32 +448,26 @@ public class KnowledgeBaseConfigurationTest {
     
     @Test
     public void testMultithreadEvaluationConfiguration() {
-        try {
-            // setting the option using the type safe method
-            config.setOption( MultithreadEvaluationOption.YES );
-            
-            fail( "An exception should have been raised as this configuration option is no longer supported. ");
-
-            // checking the type safe getOption() method
-            assertEquals( MultithreadEvaluationOption.YES,
-                          config.getOption( MultithreadEvaluationOption.class ) );
-            // checking the string based getProperty() method
-            assertEquals( "true",
-                          config.getProperty( MultithreadEvaluationOption.PROPERTY_NAME ) );
-
-            // setting the options using the string based setProperty() method
-            config.setProperty( MultithreadEvaluationOption.PROPERTY_NAME,
-                                "false" );
-            
-            // checking the type safe getOption() method
-            assertEquals( MultithreadEvaluationOption.NO,
-                          config.getOption( MultithreadEvaluationOption.class ) );
-            // checking the string based getProperty() method
-            assertEquals( "false",
-                          config.getProperty( MultithreadEvaluationOption.PROPERTY_NAME ) );
-        } catch( Exception ex ) {
-            // succeed, as this configuration option is not currently supported
-        }
+        // setting the option using the type safe method
+        config.setOption( MultithreadEvaluationOption.YES );
+
+        // checking the type safe getOption() method
+        assertEquals( MultithreadEvaluationOption.YES,
+                      config.getOption( MultithreadEvaluationOption.class ) );
+        // checking the string based getProperty() method
+        assertEquals( "true",
+                      config.getProperty( MultithreadEvaluationOption.PROPERTY_NAME ) );
+
+        // setting the options using the string based setProperty() method
+        config.setProperty( MultithreadEvaluationOption.PROPERTY_NAME,
+                            "false" );
+
+        // checking the type safe getOption() method
+        assertEquals( MultithreadEvaluationOption.NO,
+                      config.getOption( MultithreadEvaluationOption.class ) );
+        // checking the string based getProperty() method
+        assertEquals( "false",
+                      config.getProperty( MultithreadEvaluationOption.PROPERTY_NAME ) );
     }
     
     @Test
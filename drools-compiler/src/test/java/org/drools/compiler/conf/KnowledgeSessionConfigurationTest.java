@@ -16,13 +16,21 @@
 package org.drools.compiler.conf;
 
 import org.drools.core.BeliefSystemType;
+import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.common.ClassAwareObjectStore;
+import org.drools.core.conf.ObjectStoreOption;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
 import org.junit.Before;
 import org.junit.Test;
 import org.kie.api.KieServices;
 import org.kie.api.runtime.conf.BeliefSystemTypeOption;
 import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.api.runtime.KieSession;
 import org.kie.api.runtime.KieSessionConfiguration;
 import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.internal.utils.KieHelper;
+
+import java.util.concurrent.locks.Lock;
 
 import static org.junit.Assert.*;
 
@@ -87,5 +95,35 @@ public class KnowledgeSessionConfigurationTest {
                       config.getProperty( BeliefSystemTypeOption.PROPERTY_NAME ) );
     }
 
+    @Test
+    public void testObjectStoreConfiguration() {
+        assertEquals( ClassAwareObjectStore.class.getName(),
+                      config.getProperty( ObjectStoreOption.PROPERTY_NAME ) );
+
+        config.setOption( ObjectStoreOption.get( CustomObjectStore.class.getName() ) );
+        // checking the string based getProperty() method
+        assertEquals( CustomObjectStore.class.getName(),
+                      config.getProperty( ObjectStoreOption.PROPERTY_NAME ) );
+
+        config.setProperty( ObjectStoreOption.PROPERTY_NAME,
+                            CustomObjectStore.class.getName() );
+        // checking the type safe getOption() method
+        assertEquals( ObjectStoreOption.get( CustomObjectStore.class.getName() ),
+                      config.getOption( ObjectStoreOption.class ) );
+
+        KieSession ksession = new KieHelper().build().newKieSession( config, null );
+        try {
+            assertTrue( ((StatefulKnowledgeSessionImpl) ksession).getObjectStore() instanceof CustomObjectStore );
+            ksession.insert( "test" );
+            assertEquals( 1, ksession.getObjects().size() );
+        } finally {
+            ksession.dispose();
+        }
+    }
 
+    public static class CustomObjectStore extends ClassAwareObjectStore {
+        public CustomObjectStore(RuleBaseConfiguration conf, Lock lock) {
+            super( conf, lock );
+        }
+    }
 }
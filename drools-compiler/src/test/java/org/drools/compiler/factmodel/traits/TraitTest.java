@@ -5257,4 +5257,44 @@ public class TraitTest extends CommonTestMethodBase {
         assertEquals( Arrays.asList( 42, 43 ), list );
     }
 
+    @Test
+    public void testSameTraitOnTwoCores() throws Exception {
+        String drl = "package org.drools.test; " +
+                     "declare trait Student " +
+                     "  name : String " +
+                     "end " +
+                     "declare Person " +
+                     "  @Traitable " +
+                     "  name : String " +
+                     "end " +
+                     "rule Don " +
+                     "when " +
+                     "  $p : Person() " +
+                     "then " +
+                     "  don( $p, Student.class ); " +
+                     "end ";
+
+        KnowledgeBase kbase = getKieBaseFromString( drl );
+        TraitFactory.setMode( mode, kbase );
+        StatefulKnowledgeSession ks = kbase.newStatefulKnowledgeSession();
+
+        FactType personType = kbase.getFactType( "org.drools.test", "Person" );
+        TraitableBean john = (TraitableBean) personType.newInstance();
+        personType.set( john, "name", "john" );
+        TraitableBean mary = (TraitableBean) personType.newInstance();
+        personType.set( mary, "name", "mary" );
+        ks.insert( john );
+        ks.insert( mary );
+        ks.fireAllRules();
+
+        // each core must find its own proxy, even if the other core got the same trait later
+        for ( TraitableBean core : new TraitableBean[] { john, mary } ) {
+            assertTrue( core.hasTrait( "org.drools.test.Student" ) );
+            Thing proxy = core.getTrait( "org.drools.test.Student" );
+            assertNotNull( proxy );
+            assertSame( core, proxy.getCore() );
+        }
+        ks.dispose();
+    }
+
 }
@@ -2942,4 +2942,55 @@ public class AccumulateTest extends CommonTestMethodBase {
 
         assertEquals(2, counter.get());
     }
+
+    @Test
+    public void testReversibleStatisticalFunctions() {
+        String drl =
+                "global java.util.Map results;\n" +
+                "rule R when\n" +
+                "    accumulate( $i : Integer() ;\n" +
+                "                $median : median( $i ),\n" +
+                "                $p90 : percentile90( $i ),\n" +
+                "                $variance : variance( $i ),\n" +
+                "                $stdDev : standardDeviation( $i ),\n" +
+                "                $distinct : countDistinct( $i % 3 ) )\n" +
+                "then\n" +
+                "    results.put( \"median\", $median );\n" +
+                "    results.put( \"p90\", $p90 );\n" +
+                "    results.put( \"variance\", $variance );\n" +
+                "    results.put( \"stdDev\", $stdDev );\n" +
+                "    results.put( \"distinct\", $distinct );\n" +
+                "end";
+
+        KieSession ksession = new KieHelper().addContent(drl, ResourceType.DRL)
+                                             .build()
+                                             .newKieSession();
+
+        Map<String, Number> results = new HashMap<String, Number>();
+        ksession.setGlobal("results", results);
+
+        FactHandle[] fhs = new FactHandle[10];
+        for (int i = 0; i < 10; i++) {
+            fhs[i] = ksession.insert(i + 1);
+        }
+        ksession.fireAllRules();
+
+        assertEquals(5.5, results.get("median").doubleValue(), 0.0001);
+        assertEquals(9.1, results.get("p90").doubleValue(), 0.0001);
+        assertEquals(55.0 / 6, results.get("variance").doubleValue(), 0.0001);
+        assertEquals(Math.sqrt(55.0 / 6), results.get("stdDev").doubleValue(), 0.0001);
+        assertEquals(3L, results.get("distinct").longValue());
+
+        // remove 1, 3, 4, 6, 7, 9 and 10: the functions are reversed, leaving 2, 5 and 8
+        for (int i : new int[] { 0, 2, 3, 5, 6, 8, 9 }) {
+            ksession.delete(fhs[i]);
+        }
+        ksession.fireAllRules();
+
+        assertEquals(5.0, results.get("median").doubleValue(), 0.0001);
+        assertEquals(7.4, results.get("p90").doubleValue(), 0.0001);
+        assertEquals(9.0, results.get("variance").doubleValue(), 0.0001);
+        assertEquals(3.0, results.get("stdDev").doubleValue(), 0.0001);
+        assertEquals(1L, results.get("distinct").longValue());
+    }
 }
@@ -5717,4 +5717,69 @@ public class CepEspTest extends CommonTestMethodBase {
         assertEquals( 0, ( (NamedEntryPoint) ksession.getEntryPoint( EntryPointId.DEFAULT.getEntryPointId() ) ).getTruthMaintenanceSystem().getEqualityKeyMap().size() );
     }
 
+    @Test
+    public void testBucketedTimeWindow() {
+        String drl = "import " + StockTick.class.getCanonicalName() + ";\n" +
+                     "global java.util.List list;\n" +
+                     "declare StockTick @role(event) end\n" +
+                     "rule R when\n" +
+                     "    $c : Number() from accumulate( $s : StockTick() over window:time( 10s, 1s ), count( $s ) )\n" +
+                     "then\n" +
+                     "    list.add( $c.intValue() );\n" +
+                     "end\n";
+
+        KieSessionConfiguration sessionConfig = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        sessionConfig.setOption( ClockTypeOption.get( "pseudo" ) );
+        KieSession ksession = new KieHelper().addContent( drl, ResourceType.DRL )
+                                             .build( EventProcessingOption.STREAM )
+                                             .newKieSession( sessionConfig, null );
+        SessionPseudoClock clock = ksession.getSessionClock();
+
+        List<Integer> list = new ArrayList<Integer>();
+        ksession.setGlobal( "list", list );
+
+        ksession.insert( new StockTick( 1, "RHT", 10 ) );
+        clock.advanceTime( 500, TimeUnit.MILLISECONDS );
+        ksession.insert( new StockTick( 2, "RHT", 11 ) );
+        clock.advanceTime( 1000, TimeUnit.MILLISECONDS );
+        ksession.insert( new StockTick( 3, "RHT", 12 ) );
+        ksession.fireAllRules();
+        assertEquals( Arrays.asList( 3 ), list );
+
+        // the first 2 ticks are out of the window, but their bucket only expires at 10999
+        clock.advanceTime( 8900, TimeUnit.MILLISECONDS );
+        ksession.fireAllRules();
+        assertEquals( Arrays.asList( 3 ), list );
+
+        clock.advanceTime( 600, TimeUnit.MILLISECONDS );
+        ksession.fireAllRules();
+        assertEquals( Arrays.asList( 3, 1 ), list );
+
+        clock.advanceTime( 1000, TimeUnit.MILLISECONDS );
+        ksession.fireAllRules();
+        assertEquals( Arrays.asList( 3, 1, 0 ), list );
+
+        ksession.dispose();
+    }
+
+    @Test
+    public void testBucketedTimeWindowWithInvalidBucketSize() {
+        assertTrue( hasBucketedTimeWindowErrors( "10s, 0s" ) );
+        assertTrue( hasBucketedTimeWindowErrors( "10s, 11s" ) );
+        assertFalse( hasBucketedTimeWindowErrors( "10s, 10s" ) );
+    }
+
+    private boolean hasBucketedTimeWindowErrors( String windowParameters ) {
+        String drl = "import " + StockTick.class.getCanonicalName() + ";\n" +
+                     "declare StockTick @role(event) end\n" +
+                     "rule R when\n" +
+                     "    $c : Number() from accumulate( $s : StockTick() over window:time( " + windowParameters + " ), count( $s ) )\n" +
+                     "then\n" +
+                     "end\n";
+
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        kbuilder.add( ResourceFactory.newByteArrayResource( drl.getBytes() ),
+                      ResourceType.DRL );
+        return kbuilder.hasErrors();
+    }
 }
\ No newline at end of file
@@ -1359,6 +1359,146 @@ public class IncrementalCompilationTest extends CommonTestMethodBase {
         ksession.delete(fh);
     }
 
+    @Test
+    public void testUpdateMultipleKieBases() throws Exception {
+        int kbasesNr = 4;
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId1 = ks.newReleaseId( "org.kie", "test-update-multiple-kbases", "1.0.0" );
+        ReleaseId releaseId2 = ks.newReleaseId( "org.kie", "test-update-multiple-kbases", "1.1.0" );
+
+        createAndDeployJarWithKieBases( ks, releaseId1, kbasesNr, "v1" );
+        KieContainer kc = ks.newKieContainer( releaseId1 );
+
+        KieSession[] ksessions = new KieSession[kbasesNr];
+        List<String> list = new ArrayList<String>();
+        for ( int i = 0; i < kbasesNr; i++ ) {
+            ksessions[i] = kc.newKieSession( "KSession" + i );
+            ksessions[i].setGlobal( "list", list );
+            ksessions[i].insert( "" + i );
+            ksessions[i].fireAllRules();
+        }
+        assertEquals( asList( "v1-0", "v1-1", "v1-2", "v1-3" ), list );
+        list.clear();
+
+        createAndDeployJarWithKieBases( ks, releaseId2, kbasesNr, "v2" );
+        Results results = kc.updateToVersion( releaseId2 );
+        assertEquals( 0, results.getMessages().size() );
+
+        // each kbase is updated independently from the others
+        for ( int i = 0; i < kbasesNr; i++ ) {
+            ksessions[i].insert( "new" + i );
+            ksessions[i].fireAllRules();
+        }
+        assertEquals( 8, list.size() );
+        for ( int i = 0; i < kbasesNr; i++ ) {
+            assertTrue( list.containsAll( asList( "v2-" + i, "v2-new" + i ) ) );
+        }
+    }
+
+    @Test
+    public void testUpdateMultipleKieBasesSharingDeclaredTypes() throws Exception {
+        int kbasesNr = 4;
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId1 = ks.newReleaseId( "org.kie", "test-update-multiple-kbases-types", "1.0.0" );
+        ReleaseId releaseId2 = ks.newReleaseId( "org.kie", "test-update-multiple-kbases-types", "1.1.0" );
+
+        String type1 = "package org.shared\n" +
+                       "declare Message\n" +
+                       "  text : String\n" +
+                       "end\n";
+        String type2 = "package org.shared\n" +
+                       "declare Message\n" +
+                       "  text : String\n" +
+                       "  size : int\n" +
+                       "end\n";
+
+        createAndDeployJarWithKieBasesSharingType( ks, releaseId1, kbasesNr, type1 );
+        KieContainer kc = ks.newKieContainer( releaseId1 );
+
+        KieSession[] ksessions = new KieSession[kbasesNr];
+        List<String> list = new ArrayList<String>();
+        for ( int i = 0; i < kbasesNr; i++ ) {
+            ksessions[i] = kc.newKieSession( "KSession" + i );
+            ksessions[i].setGlobal( "list", list );
+            ksessions[i].insert( "" + i );
+            ksessions[i].fireAllRules();
+        }
+        assertEquals( asList( "0", "1", "2", "3" ), list );
+        list.clear();
+
+        // the declared type changes in all the kbases at the same time
+        createAndDeployJarWithKieBasesSharingType( ks, releaseId2, kbasesNr, type2 );
+        Results results = kc.updateToVersion( releaseId2 );
+        assertEquals( 0, results.getMessages().size() );
+
+        Class<?> messageClass = kc.getClassLoader().loadClass( "org.shared.Message" );
+        assertNotNull( messageClass.getDeclaredField( "size" ) );
+        for ( int i = 0; i < kbasesNr; i++ ) {
+            assertSame( messageClass, kc.getKieBase( "KBase" + i ).getFactType( "org.shared", "Message" ).getFactClass() );
+            ksessions[i].insert( "new" + i );
+            ksessions[i].fireAllRules();
+        }
+        for ( int i = 0; i < kbasesNr; i++ ) {
+            assertTrue( list.contains( "new" + i ) );
+        }
+    }
+
+    private static void createAndDeployJarWithKieBasesSharingType(KieServices ks,
+                                                                  ReleaseId releaseId,
+                                                                  int kbasesNr,
+                                                                  String type) {
+        KieModuleModel kproj = ks.newKieModuleModel();
+        KieFileSystem kfs = ks.newKieFileSystem().generateAndWritePomXML( releaseId );
+        kfs.write( "src/main/resources/org/shared/types.drl", type );
+        for ( int i = 0; i < kbasesNr; i++ ) {
+            kproj.newKieBaseModel( "KBase" + i )
+                 .addPackage( "org.shared" )
+                 .addPackage( "org.pkg" + i )
+                 .newKieSessionModel( "KSession" + i );
+            String drl = "package org.pkg" + i + "\n" +
+                         "import org.shared.Message\n" +
+                         "global java.util.List list\n" +
+                         "rule R" + i + " when\n" +
+                         "  $s : String() \n" +
+                         "then\n" +
+                         "  Message m = new Message();\n" +
+                         "  m.setText( $s );\n" +
+                         "  insert( m );\n" +
+                         "end\n" +
+                         "rule M" + i + " when\n" +
+                         "  Message( $t : text ) \n" +
+                         "then\n" +
+                         "  list.add( $t );\n" +
+                         "end\n";
+            kfs.write( "src/main/resources/org/pkg" + i + "/r.drl", drl );
+        }
+        kfs.writeKModuleXML( kproj.toXML() );
+        ks.newKieBuilder( kfs ).buildAll();
+    }
+
+    private static void createAndDeployJarWithKieBases(KieServices ks,
+                                                       ReleaseId releaseId,
+                                                       int kbasesNr,
+                                                       String version) {
+        KieModuleModel kproj = ks.newKieModuleModel();
+        KieFileSystem kfs = ks.newKieFileSystem().generateAndWritePomXML( releaseId );
+        for ( int i = 0; i < kbasesNr; i++ ) {
+            kproj.newKieBaseModel( "KBase" + i )
+                 .addPackage( "org.pkg" + i )
+                 .newKieSessionModel( "KSession" + i );
+            String drl = "package org.pkg" + i + "\n" +
+                         "global java.util.List list\n" +
+                         "rule R" + i + " when\n" +
+                         "  $s : String() \n" +
+                         "then\n" +
+                         "  list.add( \"" + version + "-\" + $s );\n" +
+                         "end\n";
+            kfs.write( "src/main/resources/KBase" + i + "/org/pkg" + i + "/r.drl", drl );
+        }
+        kfs.writeKModuleXML( kproj.toXML() );
+        ks.newKieBuilder( kfs ).buildAll();
+    }
+
     public static KieModule createAndDeployJarInStreamMode(KieServices ks,
                                                            ReleaseId releaseId,
                                                            String... drls) {
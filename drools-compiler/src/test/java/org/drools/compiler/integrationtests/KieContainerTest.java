@@ -1,6 +1,9 @@
 package org.drools.compiler.integrationtests;
 
+import org.drools.compiler.kie.builder.impl.InternalKieContainer;
 import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.drools.compiler.kie.builder.impl.KieSessionsPool;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
 import org.drools.core.util.FileManager;
 import org.junit.Assert;
 import org.junit.Test;
@@ -8,16 +11,24 @@ import org.kie.api.KieServices;
 import org.kie.api.builder.KieModule;
 import org.kie.api.builder.ReleaseId;
 import org.kie.api.definition.type.FactType;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.runtime.Channel;
 import org.kie.api.runtime.KieContainer;
 import org.kie.api.runtime.KieSession;
 
 import java.io.File;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.drools.compiler.integrationtests.IncrementalCompilationTest.createAndDeployJar;
 
 public class KieContainerTest {
@@ -185,6 +196,70 @@ public class KieContainerTest {
         }
     }
 
+    @Test
+    public void testKieSessionsPool() throws Exception {
+        String drl = "package org.drools.test\n" +
+                     "global java.util.List list\n" +
+                     "rule R1 when\n" +
+                     "   $s : String()\n" +
+                     "then\n" +
+                     "   list.add( $s );\n" +
+                     "end\n";
+
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId = ks.newReleaseId("org.kie", "test-pool", "1.0.0");
+        createAndDeployJar( ks, releaseId, drl );
+
+        InternalKieContainer kieContainer = (InternalKieContainer) ks.newKieContainer(releaseId);
+        KieSessionsPool pool = kieContainer.newKieSessionsPool(1);
+
+        KieSession ksession = pool.newKieSession();
+        int listenersNr = ksession.getAgendaEventListeners().size();
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal("list", list);
+        ksession.addEventListener( new DefaultAgendaEventListener() );
+        ksession.registerChannel( "test", new Channel() {
+            public void send(Object object) { }
+        } );
+        ksession.insert("test1");
+        assertEquals( 1, ksession.fireAllRules() );
+        ksession.dispose();
+
+        // a session returned to the pool can't be used anymore, and disposing it again has no effect
+        try {
+            ksession.insert("test3");
+            fail( "A session returned to the pool should reject any operation" );
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        ksession.dispose();
+
+        // the disposed session is reset and handed out again
+        KieSession ksession2 = pool.newKieSession();
+        assertSame( ksession, ksession2 );
+        assertEquals( 0, ksession2.getFactCount() );
+        assertNull( ksession2.getGlobal("list") );
+        assertEquals( listenersNr, ksession2.getAgendaEventListeners().size() );
+        assertTrue( ksession2.getChannels().isEmpty() );
+
+        list = new ArrayList<String>();
+        ksession2.setGlobal("list", list);
+        ksession2.insert("test2");
+        assertEquals( 1, ksession2.fireAllRules() );
+        assertEquals( Arrays.asList("test2"), list );
+
+        // all the sessions of the pool are in use, so a new one is created, even if the first one was disposed twice
+        KieSession ksession3 = pool.newKieSession();
+        assertNotSame( ksession2, ksession3 );
+        ksession3.dispose();
+
+        // once the pool is shut down the released sessions are really disposed
+        pool.shutdown();
+        ksession2.dispose();
+        assertFalse( ((StatefulKnowledgeSessionImpl) ksession2).isAlive() );
+        assertFalse( ((StatefulKnowledgeSessionImpl) ksession3).isAlive() );
+    }
+
     private String createDRL(String ruleName) {
         return "package org.kie.test\n" +
                "global java.util.List list\n" +
@@ -25,7 +25,9 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.kie.internal.KnowledgeBase;
 import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.CompositeKnowledgeBuilder;
 import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderError;
 import org.kie.internal.builder.KnowledgeBuilderFactory;
 import org.kie.internal.builder.KnowledgeBuilderResult;
 import org.kie.internal.definition.KnowledgePackage;
@@ -523,4 +525,34 @@ public class KnowledgeBuilderTest {
 
         }
     }
+
+    @Test
+    public void testBatchParsingKeepsResourceOrder() {
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        CompositeKnowledgeBuilder batch = kbuilder.batch().type( ResourceType.DRL );
+        List<Resource> brokenResources = new ArrayList<Resource>();
+        for ( int i = 0; i < 20; i++ ) {
+            String drl = "package org.drools.compiler.test" + i + "\n" +
+                         "rule R" + i + " when\n" +
+                         ( i % 5 == 0 ? "   String( \n" : "   String()\n" ) +
+                         "then\n" +
+                         "end\n";
+            Resource resource = ResourceFactory.newByteArrayResource( drl.getBytes() );
+            resource.setSourcePath( "r" + i + ".drl" );
+            if ( i % 5 == 0 ) {
+                brokenResources.add( resource );
+            }
+            batch.add( resource );
+        }
+        batch.build();
+
+        // the resources are parsed in parallel, but their errors are reported in the order they were added
+        List<Resource> errorResources = new ArrayList<Resource>();
+        for ( KnowledgeBuilderError error : kbuilder.getErrors() ) {
+            if ( !errorResources.contains( error.getResource() ) ) {
+                errorResources.add( error.getResource() );
+            }
+        }
+        assertEquals( brokenResources, errorResources );
+    }
 }
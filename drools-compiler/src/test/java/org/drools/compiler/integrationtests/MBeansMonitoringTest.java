@@ -2,6 +2,7 @@ package org.drools.compiler.integrationtests;
 
 import java.io.StringReader;
 import java.lang.management.ManagementFactory;
+import java.util.Arrays;
 
 import javax.management.AttributeNotFoundException;
 import javax.management.InstanceNotFoundException;
@@ -11,6 +12,12 @@ import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
 import javax.management.ReflectionException;
 
+import org.drools.compiler.Cheese;
+import org.drools.compiler.Person;
+import org.drools.core.conf.NetworkProfilingOption;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.drools.core.phreak.NetworkProfiler;
+import org.drools.core.phreak.NetworkProfiler.NodeStats;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -24,6 +31,8 @@ import org.kie.api.conf.EventProcessingOption;
 import org.kie.api.conf.MBeansOption;
 import org.kie.internal.io.ResourceFactory;
 import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
 
 public class MBeansMonitoringTest {
 
@@ -70,6 +79,109 @@ public class MBeansMonitoringTest {
         Assert.assertEquals( 10001, ((Number)expOffset).longValue() );
     }
 
+    @Test
+    public void testNetworkProfiler() throws Exception {
+        String drl = "package org.drools.compiler.test\n" +
+                     "import org.drools.compiler.Person\n" +
+                     "import org.drools.compiler.Cheese\n" +
+                     "rule R1\n" +
+                     "when\n" +
+                     "    $p : Person()\n" +
+                     "    Cheese( type == $p.likes )\n" +
+                     "then\n" +
+                     "end\n" +
+                     "rule R2\n" +
+                     "when\n" +
+                     "    $p : Person()\n" +
+                     "    Cheese( type == $p.likes )\n" +
+                     "    not Person( name == \"bob\" )\n" +
+                     "then\n" +
+                     "end";
+        KieBaseConfiguration conf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        conf.setOption( MBeansOption.ENABLED );
+
+        KnowledgeBase kbase = loadKnowledgeBase( "profiledKbase",
+                                                 drl,
+                                                 conf );
+
+        KieSessionConfiguration sessionConf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        sessionConf.setOption( NetworkProfilingOption.YES );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession( sessionConf, null );
+
+        try {
+            ksession.insert( new Person( "mark", "stilton" ) );
+            ksession.insert( new Person( "mario", "cheddar" ) );
+            ksession.insert( new Cheese( "stilton" ) );
+            ksession.insert( new Cheese( "cheddar" ) );
+            ksession.insert( new Cheese( "brie" ) );
+            Assert.assertEquals( 4, ksession.fireAllRules() );
+
+            NetworkProfiler profiler = ((StatefulKnowledgeSessionImpl) ksession).getNetworkProfiler();
+            NodeStats joinStats = null;
+            NodeStats notStats = null;
+            NodeStats alphaStats = null;
+            for ( NodeStats nodeStats : profiler.getNodeStats() ) {
+                if ( nodeStats.getNodeType().equals( "JoinNode" ) ) {
+                    joinStats = nodeStats;
+                } else if ( nodeStats.getNodeType().equals( "NotNode" ) ) {
+                    notStats = nodeStats;
+                } else if ( nodeStats.getNodeType().equals( "AlphaNode" ) ) {
+                    alphaStats = nodeStats;
+                }
+            }
+
+            // the join is shared by both rules
+            Assert.assertNotNull( joinStats );
+            Assert.assertEquals( Arrays.asList( "R1", "R2" ), joinStats.getRules() );
+            Assert.assertTrue( joinStats.getInvocations() > 0 );
+            Assert.assertEquals( 5, joinStats.getTuplesIn() );
+            Assert.assertEquals( 2, joinStats.getTuplesOut() );
+            Assert.assertEquals( 5, joinStats.getMemorySize() );
+
+            Assert.assertNotNull( notStats );
+            Assert.assertEquals( Arrays.asList( "R2" ), notStats.getRules() );
+            Assert.assertEquals( 2, notStats.getTuplesOut() );
+
+            // the name == "bob" constraint is checked against both the persons and matches none
+            Assert.assertNotNull( alphaStats );
+            Assert.assertEquals( 2, alphaStats.getInvocations() );
+            Assert.assertEquals( 2, alphaStats.getTuplesIn() );
+            Assert.assertEquals( 0, alphaStats.getTuplesOut() );
+            Assert.assertEquals( -1, alphaStats.getMemorySize() );
+
+            MBeanServer mbserver = ManagementFactory.getPlatformMBeanServer();
+            ObjectName profilerOn = new ObjectName( "org.drools.kbases:type=profiledKbase,group=Sessions,sessionId=Session-" +
+                                                    ((StatefulKnowledgeSessionImpl) ksession).getId() + ",component=NetworkProfiler" );
+            Assert.assertTrue( ((Number) mbserver.getAttribute( profilerOn, "TotalInvocations" )).longValue() > 0 );
+            Assert.assertTrue( ((String) mbserver.getAttribute( profilerOn, "Report" )).contains( "JoinNode" ) );
+
+            mbserver.invoke( profilerOn, "reset", new Object[0], new String[0] );
+            Assert.assertEquals( 0, ((Number) mbserver.getAttribute( profilerOn, "NodeCount" )).intValue() );
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testNetworkProfilingIsDisabledByDefault() {
+        String drl = "package org.drools.compiler.test\n" +
+                     "import org.drools.compiler.Person\n" +
+                     "rule R1\n" +
+                     "when\n" +
+                     "    Person()\n" +
+                     "then\n" +
+                     "end";
+        KnowledgeBase kbase = loadKnowledgeBase( "unprofiledKbase",
+                                                 drl,
+                                                 KnowledgeBaseFactory.newKnowledgeBaseConfiguration() );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        try {
+            Assert.assertNull( ((StatefulKnowledgeSessionImpl) ksession).getNetworkProfiler() );
+        } finally {
+            ksession.dispose();
+        }
+    }
+
     private KnowledgeBase loadKnowledgeBase( String id,
                                              String drl,
                                              KieBaseConfiguration conf ) {
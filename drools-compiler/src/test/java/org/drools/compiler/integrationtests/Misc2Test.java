@@ -38,6 +38,8 @@ import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.LeftTupleSets;
 import org.drools.core.common.RightTupleSets;
+import org.drools.core.conf.ConstraintJittingThresholdOption;
+import org.drools.core.conf.FromResultCacheOption;
 import org.drools.core.conflict.SalienceConflictResolver;
 import org.drools.core.definitions.impl.KnowledgePackageImpl;
 import org.drools.core.definitions.rule.impl.RuleImpl;
@@ -45,15 +47,22 @@ import org.drools.core.facttemplates.FactTemplate;
 import org.drools.core.facttemplates.FactTemplateImpl;
 import org.drools.core.facttemplates.FieldTemplate;
 import org.drools.core.facttemplates.FieldTemplateImpl;
+import org.drools.core.impl.InternalKnowledgeBase;
 import org.drools.core.impl.KnowledgeBaseImpl;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
 import org.drools.core.io.impl.ByteArrayResource;
 import org.drools.core.reteoo.AlphaNode;
 import org.drools.core.reteoo.BetaMemory;
+import org.drools.core.reteoo.BetaNode;
 import org.drools.core.reteoo.JoinNode;
 import org.drools.core.reteoo.LeftInputAdapterNode;
 import org.drools.core.reteoo.LeftTuple;
+import org.drools.core.reteoo.ObjectSink;
+import org.drools.core.reteoo.ObjectSource;
 import org.drools.core.reteoo.ObjectTypeNode;
 import org.drools.core.reteoo.Rete;
+import org.drools.core.rule.constraint.MvelConstraint;
+import org.drools.core.spi.BetaNodeFieldConstraint;
 import org.drools.core.spi.KnowledgeHelper;
 import org.drools.core.spi.Salience;
 import org.drools.core.util.FileManager;
@@ -122,6 +131,7 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.EnumMap;
 import java.util.HashMap;
@@ -7221,4 +7231,304 @@ public class Misc2Test extends CommonTestMethodBase {
 
         assertDrlHasCompilationError(drl1, 1);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testConstraintJittingThreshold() {
+        String drl =
+                "import " + Person.class.getCanonicalName() + ";\n" +
+                "global java.util.List list;\n" +
+                "rule R when\n" +
+                "    $s : String( length > 2 )\n" +
+                "    $p : Person( name == $s, age > 18 )\n" +
+                "then\n" +
+                "    list.add( $p.getName() );\n" +
+                "end\n";
+
+        assertEquals( 10, fireWithJittingThreshold( drl, ConstraintJittingThresholdOption.EAGER ) );
+        assertEquals( 10, fireWithJittingThreshold( drl, ConstraintJittingThresholdOption.NEVER ) );
+        assertEquals( 10, fireWithJittingThreshold( drl, ConstraintJittingThresholdOption.get( 5 ) ) );
+    }
+
+    @Test
+    public void testEagerJittingFromKModule() throws Exception {
+        String drl =
+                "import " + Person.class.getCanonicalName() + ";\n" +
+                "global java.util.List list;\n" +
+                "rule R when\n" +
+                "    $s : String( length > 2 )\n" +
+                "    $p : Person( name == $s, age > 18 )\n" +
+                "then\n" +
+                "    list.add( $p.getName() );\n" +
+                "end\n";
+
+        KieServices ks = KieServices.Factory.get();
+        KieFileSystem kfs = ks.newKieFileSystem()
+                              .write( "src/main/resources/r1.drl", drl )
+                              .writeKModuleXML( ks.newKieModuleModel()
+                                                  .setConfigurationProperty( ConstraintJittingThresholdOption.PROPERTY_NAME, "0" )
+                                                  .toXML() );
+        assertEquals( 0, ks.newKieBuilder( kfs ).buildAll().getResults().getMessages().size() );
+        KieBase kbase = ks.newKieContainer( ks.getRepository().getDefaultReleaseId() ).getKieBase();
+
+        // the kmodule property reaches the kbase configuration
+        assertEquals( 0, ( (InternalKnowledgeBase) kbase ).getConfiguration().getJittingThreshold() );
+
+        // the constraints are compiled while the kbase is built, before any evaluation
+        List<MvelConstraint> constraints = new ArrayList<MvelConstraint>();
+        for ( ObjectTypeNode otn : ( (InternalKnowledgeBase) kbase ).getRete().getObjectTypeNodes() ) {
+            collectMvelConstraints( otn, constraints );
+        }
+        assertEquals( 3, constraints.size() );
+        for ( MvelConstraint constraint : constraints ) {
+            assertTrue( constraint.toString(), constraint.isEvaluatorCompiled() );
+            assertFalse( constraint.toString(), constraint.isJitted() );
+        }
+
+        KieSession ksession = kbase.newKieSession();
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+        ksession.insert( "Mario" );
+        ksession.insert( new Person( "Mario", 40 ) );
+        assertEquals( 1, ksession.fireAllRules() );
+        ksession.dispose();
+
+        // and jitted in background after their first evaluation, the beta one is resolved through the index
+        for ( MvelConstraint constraint : constraints ) {
+            if ( constraint.getRequiredDeclarations().length == 0 ) {
+                assertTrue( constraint.toString(), waitForJitting( constraint ) );
+            }
+        }
+    }
+
+    private boolean waitForJitting(MvelConstraint constraint) throws InterruptedException {
+        for ( int i = 0; i < 100 && !constraint.isJitted(); i++ ) {
+            Thread.sleep( 100 );
+        }
+        return constraint.isJitted();
+    }
+
+    private void collectMvelConstraints(ObjectSource source, List<MvelConstraint> constraints) {
+        for ( ObjectSink sink : source.getSinkPropagator().getSinks() ) {
+            if ( sink instanceof AlphaNode ) {
+                AlphaNode alphaNode = (AlphaNode) sink;
+                if ( alphaNode.getConstraint() instanceof MvelConstraint ) {
+                    constraints.add( (MvelConstraint) alphaNode.getConstraint() );
+                }
+                collectMvelConstraints( alphaNode, constraints );
+            } else if ( sink instanceof BetaNode ) {
+                for ( BetaNodeFieldConstraint constraint : ( (BetaNode) sink ).getRawConstraints().getConstraints() ) {
+                    if ( constraint instanceof MvelConstraint ) {
+                        constraints.add( (MvelConstraint) constraint );
+                    }
+                }
+            }
+        }
+    }
+
+    private int fireWithJittingThreshold(String drl, ConstraintJittingThresholdOption jittingThreshold) {
+        KieSession ksession = new KieHelper().addContent( drl, ResourceType.DRL )
+                                             .build( jittingThreshold )
+                                             .newKieSession();
+
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+
+        for ( int i = 0; i < 20; i++ ) {
+            String name = "name" + i;
+            ksession.insert( name );
+            ksession.insert( new Person( name, i % 2 == 0 ? 30 : 10 ) );
+            ksession.fireAllRules();
+        }
+        ksession.dispose();
+        return list.size();
+    }
+
+    @Test
+    public void testInsertAll() {
+        String drl =
+                "import " + Person.class.getCanonicalName() + ";\n" +
+                "global java.util.List list;\n" +
+                "rule R when\n" +
+                "    $s : String()\n" +
+                "    $p : Person( name == $s )\n" +
+                "then\n" +
+                "    list.add( $p.getName() );\n" +
+                "end\n";
+
+        KieSession ksession = new KieHelper().addContent( drl, ResourceType.DRL )
+                                             .build()
+                                             .newKieSession();
+
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+
+        Person mario = new Person( "Mario", 40 );
+        List<Object> facts = new ArrayList<Object>();
+        facts.add( "Mario" );
+        facts.add( mario );
+        facts.add( new Person( "Mark", 37 ) );
+        facts.add( "Edson" );
+        facts.add( mario );
+
+        List<FactHandle> handles = ( (StatefulKnowledgeSessionImpl) ksession ).insertAll( facts );
+        assertEquals( 5, handles.size() );
+        assertSame( handles.get( 1 ), handles.get( 4 ) );
+        assertSame( mario, ksession.getObject( handles.get( 1 ) ) );
+        assertEquals( 4, ksession.getFactCount() );
+
+        assertEquals( 1, ksession.fireAllRules() );
+        assertEquals( asList( "Mario" ), list );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testInsertAllFromConsequence() {
+        String drl =
+                "import " + Person.class.getCanonicalName() + ";\n" +
+                "import " + StatefulKnowledgeSessionImpl.class.getCanonicalName() + ";\n" +
+                "global java.util.List list;\n" +
+                "rule Init when\n" +
+                "    $i : Integer()\n" +
+                "then\n" +
+                "    ((StatefulKnowledgeSessionImpl) drools.getKieRuntime()).insertAll(\n" +
+                "            java.util.Arrays.asList( \"Mario\", new Person( \"Mario\", 40 ), \"Mark\" ),\n" +
+                "            drools.getRule(), drools.getMatch() );\n" +
+                "end\n" +
+                "rule R when\n" +
+                "    $s : String()\n" +
+                "    $p : Person( name == $s )\n" +
+                "then\n" +
+                "    list.add( $p.getName() );\n" +
+                "end\n";
+
+        KieSession ksession = new KieHelper().addContent( drl, ResourceType.DRL )
+                                             .build()
+                                             .newKieSession();
+
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+
+        ksession.insert( 1 );
+        assertEquals( 2, ksession.fireAllRules() );
+        assertEquals( asList( "Mario" ), list );
+        assertEquals( 4, ksession.getFactCount() );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testQueriesAndSubnetworksOnReusedEvaluationBuffers() {
+        // the evaluation stacks and the tuple buffers are reused across evaluations of the same rule,
+        // so evaluate rules with query elements and subnetworks many times on the same sessions
+        String drl =
+                "import " + Person.class.getCanonicalName() + ";\n" +
+                "global java.util.List list;\n" +
+                "query isOlder( String $name, int $age )\n" +
+                "    Person( name == $name, age > $age )\n" +
+                "end\n" +
+                "rule Query when\n" +
+                "    $s : String()\n" +
+                "    isOlder( $s, 30; )\n" +
+                "then\n" +
+                "    list.add( \"q:\" + $s );\n" +
+                "end\n" +
+                "rule NotSub when\n" +
+                "    $s : String()\n" +
+                "    not( Person( name == $s ) and Integer() )\n" +
+                "then\n" +
+                "    list.add( \"n:\" + $s );\n" +
+                "end\n" +
+                "rule AccSub when\n" +
+                "    $s : String()\n" +
+                "    $n : Number() from accumulate( Person( name == $s ) and Integer(), count( 1 ) )\n" +
+                "then\n" +
+                "    list.add( \"a:\" + $s + $n );\n" +
+                "end\n";
+
+        KieBase kbase = new KieHelper().addContent( drl, ResourceType.DRL ).build();
+        for ( int i = 0; i < 3; i++ ) {
+            KieSession ksession = kbase.newKieSession();
+            List<String> list = new ArrayList<String>();
+            ksession.setGlobal( "list", list );
+
+            ksession.insert( "Mario" );
+            ksession.insert( "Mark" );
+            Person mario = new Person( "Mario", 40 );
+            FactHandle marioFH = ksession.insert( mario );
+            assertFired( ksession, list, "a:Mario0", "a:Mark0", "n:Mario", "n:Mark", "q:Mario" );
+
+            FactHandle intFH = ksession.insert( 1 );
+            ksession.insert( new Person( "Mark", 20 ) );
+            assertFired( ksession, list, "a:Mario1", "a:Mark1" );
+
+            mario.setAge( 25 );
+            ksession.update( marioFH, mario );
+            ksession.delete( intFH );
+            assertFired( ksession, list, "a:Mario0", "a:Mark0", "n:Mario", "n:Mark" );
+
+            ksession.insert( new Person( "Mark", 60 ) );
+            assertFired( ksession, list, "q:Mark" );
+
+            ksession.dispose();
+        }
+    }
+
+    private void assertFired( KieSession ksession, List<String> list, String... expected ) {
+        ksession.fireAllRules();
+        List<String> fired = new ArrayList<String>( list );
+        Collections.sort( fired );
+        assertEquals( asList( expected ), fired );
+        list.clear();
+    }
+
+    public static class ValuesProvider {
+        private int calls = 0;
+
+        public List<Integer> getValues() {
+            calls++;
+            return Arrays.asList( 1, 2, 3 );
+        }
+
+        public int getCalls() {
+            return calls;
+        }
+    }
+
+    @Test
+    public void testFromResultCache() {
+        String drl =
+                "import " + ValuesProvider.class.getCanonicalName() + ";\n" +
+                "global ValuesProvider provider;\n" +
+                "global java.util.List list;\n" +
+                "rule R when\n" +
+                "    $s : String()\n" +
+                "    $i : Integer() from provider.getValues()\n" +
+                "then\n" +
+                "    list.add( $s + $i );\n" +
+                "end\n";
+
+        ValuesProvider cached = new ValuesProvider();
+        assertEquals( 30, fireFromRules( drl, FromResultCacheOption.YES, cached ) );
+        assertEquals( 1, cached.getCalls() );
+
+        ValuesProvider notCached = new ValuesProvider();
+        assertEquals( 30, fireFromRules( drl, FromResultCacheOption.NO, notCached ) );
+        assertEquals( 10, notCached.getCalls() );
+    }
+
+    private int fireFromRules(String drl, FromResultCacheOption fromResultCache, ValuesProvider provider) {
+        KieSession ksession = new KieHelper().addContent( drl, ResourceType.DRL )
+                                             .build( fromResultCache )
+                                             .newKieSession();
+
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+        ksession.setGlobal( "provider", provider );
+
+        for ( int i = 0; i < 10; i++ ) {
+            ksession.insert( "s" + i );
+        }
+        ksession.fireAllRules();
+        ksession.dispose();
+        return list.size();
+    }
+}
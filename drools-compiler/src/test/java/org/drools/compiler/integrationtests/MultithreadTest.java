@@ -20,6 +20,7 @@ package org.drools.compiler.integrationtests;
 
 import org.drools.compiler.CommonTestMethodBase;
 import org.drools.compiler.StockTick;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.kie.api.KieBaseConfiguration;
@@ -113,6 +114,91 @@ public class MultithreadTest extends CommonTestMethodBase {
         ksession.dispose();
     }
 
+    @Test(timeout = 10000)
+    public void testConcurrentStagedInsertions() {
+        String str = "import org.drools.compiler.integrationtests.MultithreadTest.Bean\n" +
+                     "global java.util.List list\n" +
+                     "\n" +
+                     "rule \"R\"\n" +
+                     "when\n" +
+                     "    $a : Bean( seed != 1 )\n" +
+                     "then\n" +
+                     "    list.add( $a );\n" +
+                     "end";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString(str);
+        final StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        List<Bean> list = new ArrayList<Bean>();
+        ksession.setGlobal("list", list);
+
+        Executor executor = Executors.newCachedThreadPool(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r);
+                t.setDaemon(true);
+                return t;
+            }
+        });
+
+        final int OBJECT_NR = 1000;
+        final int THREAD_NR = 4;
+
+        CompletionService<Boolean> ecs = new ExecutorCompletionService<Boolean>(executor);
+        for (int i = 0; i < THREAD_NR; i++) {
+            final int offset = i * OBJECT_NR;
+            ecs.submit(new Callable<Boolean>() {
+                public Boolean call() throws Exception {
+                    for (int i = 0; i < OBJECT_NR; i++) {
+                        ((StatefulKnowledgeSessionImpl) ksession).stageInsert(new Bean(offset + i + 2));
+                    }
+                    return true;
+                }
+            });
+        }
+
+        for (int i = 0; i < THREAD_NR; i++) {
+            try {
+                assertTrue(ecs.take().get());
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        assertEquals(THREAD_NR * OBJECT_NR, ksession.fireAllRules());
+        assertEquals(THREAD_NR * OBJECT_NR, list.size());
+        assertEquals(THREAD_NR * OBJECT_NR, ksession.getFactCount());
+        ksession.dispose();
+    }
+
+    @Test
+    public void testStagedInsertionsFlushedOnlyByFiring() {
+        String str = "import org.drools.compiler.integrationtests.MultithreadTest.Bean\n" +
+                     "global java.util.List list\n" +
+                     "\n" +
+                     "rule \"R\"\n" +
+                     "when\n" +
+                     "    $a : Bean( seed != 1 )\n" +
+                     "then\n" +
+                     "    list.add( $a );\n" +
+                     "end";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString(str);
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        List<Bean> list = new ArrayList<Bean>();
+        ksession.setGlobal("list", list);
+
+        ((StatefulKnowledgeSessionImpl) ksession).stageInsert(new Bean(2));
+        ksession.insert(new Bean(3));
+        ksession.delete(ksession.insert(new Bean(4)));
+
+        // insert and delete must not drain the staged objects
+        assertEquals(1, ksession.getFactCount());
+
+        assertEquals(2, ksession.fireAllRules());
+        assertEquals(2, ksession.getFactCount());
+        assertTrue(list.contains(new Bean(2)));
+        ksession.dispose();
+    }
+
     public static class Bean {
 
         private int seed;
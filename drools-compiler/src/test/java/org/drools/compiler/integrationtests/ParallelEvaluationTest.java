@@ -0,0 +1,190 @@
+package org.drools.compiler.integrationtests;
+
+import org.junit.Test;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.KieSession;
+import org.kie.internal.conf.MultithreadEvaluationOption;
+import org.kie.internal.utils.KieHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelEvaluationTest {
+
+    private static String getRules(int ruleNr) {
+        StringBuilder sb = new StringBuilder( "global java.util.List list;\n" );
+        for (int i = 0; i < ruleNr; i++) {
+            sb.append( "rule R" + i + " when\n" +
+                       "    $i : Integer( intValue == " + i + " )\n" +
+                       "    String( length == $i )\n" +
+                       "then\n" +
+                       "    list.add( $i );\n" +
+                       "end\n" );
+        }
+        return sb.toString();
+    }
+
+    private static String getString(int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append( 'x' );
+        }
+        return sb.toString();
+    }
+
+    @Test(timeout = 10000L)
+    public void testParallelEvaluation() {
+        int ruleNr = 10;
+        KieSession ksession = new KieHelper().addContent( getRules( ruleNr ), ResourceType.DRL )
+                                             .build( MultithreadEvaluationOption.YES )
+                                             .newKieSession();
+
+        List<Integer> list = new ArrayList<Integer>();
+        ksession.setGlobal( "list", list );
+
+        for (int i = 0; i < ruleNr; i++) {
+            ksession.insert( i );
+            ksession.insert( getString( i ) );
+        }
+
+        assertEquals( ruleNr, ksession.fireAllRules() );
+        assertEquals( ruleNr, list.size() );
+    }
+
+    @Test(timeout = 10000L)
+    public void testParallelEvaluationFiresInSameOrderAsSequential() {
+        int ruleNr = 10;
+        List<Integer> sequential = fireRules( new KieHelper().addContent( getRules( ruleNr ), ResourceType.DRL )
+                                                             .build()
+                                                             .newKieSession(), ruleNr );
+        List<Integer> parallel = fireRules( new KieHelper().addContent( getRules( ruleNr ), ResourceType.DRL )
+                                                           .build( MultithreadEvaluationOption.YES )
+                                                           .newKieSession(), ruleNr );
+        assertEquals( sequential, parallel );
+    }
+
+    private static final Set<Thread> evaluatingThreads = Collections.synchronizedSet( new HashSet<Thread>() );
+
+    private static volatile int failingValue = -1;
+
+    public static boolean recordThread(Object o) {
+        evaluatingThreads.add( Thread.currentThread() );
+        if ( o.equals( failingValue ) ) {
+            throw new IllegalStateException( "Failing on " + o );
+        }
+        return true;
+    }
+
+    private static String getRecordingRules(int ruleNr) {
+        StringBuilder sb = new StringBuilder( "import " + ParallelEvaluationTest.class.getCanonicalName() + ";\n" +
+                                              "global java.util.List list;\n" );
+        for (int i = 0; i < ruleNr; i++) {
+            // the constraint uses $i, so it is evaluated by the join node and not when the String is inserted
+            sb.append( "rule R" + i + " when\n" +
+                       "    $i : Integer( intValue == " + i + " )\n" +
+                       "    String( length == $i, ParallelEvaluationTest.recordThread( $i ) )\n" +
+                       "then\n" +
+                       "    list.add( $i );\n" +
+                       "end\n" );
+        }
+        return sb.toString();
+    }
+
+    @Test(timeout = 10000L)
+    public void testRulesAreEvaluatedOutsideTheFiringThread() {
+        int ruleNr = 10;
+        String drl = getRecordingRules( ruleNr );
+
+        evaluatingThreads.clear();
+        List<Integer> sequential = fireRules( new KieHelper().addContent( drl, ResourceType.DRL )
+                                                             .build()
+                                                             .newKieSession(), ruleNr );
+        assertEquals( Collections.singleton( Thread.currentThread() ), evaluatingThreads );
+
+        for (int i = 0; i < 5; i++) {
+            evaluatingThreads.clear();
+            List<Integer> parallel = fireRules( new KieHelper().addContent( drl, ResourceType.DRL )
+                                                               .build( MultithreadEvaluationOption.YES )
+                                                               .newKieSession(), ruleNr );
+            // the joins have been evaluated by the worker threads only
+            assertFalse( evaluatingThreads.isEmpty() );
+            assertFalse( evaluatingThreads.contains( Thread.currentThread() ) );
+            // while the activations they produced have been merged in the same order on every run
+            assertEquals( sequential, parallel );
+        }
+    }
+
+    @Test(timeout = 10000L)
+    public void testFailingPartitionDoesNotLoseOtherActivations() {
+        int ruleNr = 10;
+        KieSession ksession = new KieHelper().addContent( getRecordingRules( ruleNr ), ResourceType.DRL )
+                                             .build( MultithreadEvaluationOption.YES )
+                                             .newKieSession();
+
+        List<Integer> list = new ArrayList<Integer>();
+        ksession.setGlobal( "list", list );
+
+        for (int i = 0; i < ruleNr; i++) {
+            ksession.insert( i );
+            ksession.insert( getString( i ) );
+        }
+
+        failingValue = 5;
+        try {
+            ksession.fireAllRules();
+            fail( "The evaluation of R5 should have failed" );
+        } catch (RuntimeException e) {
+            // expected
+        } finally {
+            failingValue = -1;
+        }
+
+        // the activations of the partitions evaluated successfully have been merged anyway
+        ksession.fireAllRules();
+        for (int i = 0; i < ruleNr; i++) {
+            if (i != 5) {
+                assertTrue( list.contains( i ) );
+            }
+        }
+
+        // and the following evaluations still reach the agenda
+        for (int i = 0; i < ruleNr; i++) {
+            ksession.insert( getString( i ) );
+        }
+        list.clear();
+        ksession.fireAllRules();
+        for (int i = 0; i < ruleNr; i++) {
+            if (i != 5) {
+                assertTrue( list.contains( i ) );
+            }
+        }
+        ksession.dispose();
+    }
+
+    private List<Integer> fireRules(KieSession ksession, int ruleNr) {
+        List<Integer> list = new ArrayList<Integer>();
+        ksession.setGlobal( "list", list );
+
+        for (int i = 0; i < ruleNr; i++) {
+            ksession.insert( i );
+            ksession.insert( getString( i ) );
+        }
+        ksession.fireAllRules();
+
+        // a second round creates new matches for the Integers already in the session
+        for (int i = 0; i < ruleNr; i++) {
+            ksession.insert( getString( i ) );
+        }
+        ksession.fireAllRules();
+        ksession.dispose();
+        return list;
+    }
+}
@@ -11,6 +11,7 @@ import org.drools.compiler.Worker;
 import org.drools.core.base.ClassObjectType;
 import org.drools.core.base.DroolsQuery;
 import org.drools.core.common.InternalFactHandle;
+import org.drools.core.impl.SessionSnapshot;
 import org.drools.core.impl.StatefulKnowledgeSessionImpl;
 import org.drools.core.reteoo.EntryPointNode;
 import org.drools.core.reteoo.ObjectTypeNode;
@@ -45,6 +46,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class QueryTest extends CommonTestMethodBase {
 
@@ -1014,4 +1016,62 @@ public class QueryTest extends CommonTestMethodBase {
 
         assertEquals( Arrays.asList( "aa", "bb" ), list );
     }
+
+    @Test(timeout = 10000)
+    public void testQueryOnSessionSnapshot() throws Exception {
+        String drl = "import " + Person.class.getCanonicalName() + "\n" +
+                     "query adults( int $age ) " +
+                     "  $p : Person( age >= $age ) " +
+                     "end ";
+
+        KieHelper helper = new KieHelper();
+        helper.addContent( drl, ResourceType.DRL );
+        final KieSession ks = helper.build().newKieSession();
+
+        final Person mark = new Person( "Mark", 37 );
+        ks.insert( mark );
+        ks.insert( new Person( "Edson", 35 ) );
+        ks.insert( new Person( "Mario", 10 ) );
+
+        final SessionSnapshot snapshot = ( (StatefulKnowledgeSessionImpl) ks ).newSessionSnapshot();
+
+        // changes to the session after the snapshot is taken are not visible through it
+        ks.insert( new Person( "Bob", 40 ) );
+        assertEquals( 3, ks.getQueryResults( "adults", 18 ).size() );
+        // not even the ones to the facts themselves
+        mark.setAge( 17 );
+        ks.update( ks.getFactHandle( mark ), mark );
+        assertEquals( 2, ks.getQueryResults( "adults", 18 ).size() );
+
+        final List<Throwable> errors = new CopyOnWriteArrayList<Throwable>();
+        Thread[] readers = new Thread[4];
+        for ( int i = 0; i < readers.length; i++ ) {
+            readers[i] = new Thread() {
+                public void run() {
+                    try {
+                        for ( int j = 0; j < 10; j++ ) {
+                            QueryResults results = snapshot.getQueryResults( "adults", 36 );
+                            assertEquals( 1, results.size() );
+                            // facts are copied from the session the snapshot was taken from
+                            Person p = (Person) results.iterator().next().get( "$p" );
+                            assertNotSame( mark, p );
+                            assertEquals( "Mark", p.getName() );
+                            assertEquals( 37, p.getAge() );
+                            assertEquals( 2, snapshot.getQueryResults( "adults", 18 ).size() );
+                        }
+                    } catch ( Throwable t ) {
+                        errors.add( t );
+                    }
+                }
+            };
+            readers[i].start();
+        }
+        for ( Thread reader : readers ) {
+            reader.join();
+        }
+        assertTrue( errors.toString(), errors.isEmpty() );
+
+        snapshot.dispose();
+        ks.dispose();
+    }
 }
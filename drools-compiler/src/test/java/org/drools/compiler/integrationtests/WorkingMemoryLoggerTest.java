@@ -1,11 +1,21 @@
 package org.drools.compiler.integrationtests;
 
 import org.drools.compiler.CommonTestMethodBase;
+import org.drools.core.audit.BinaryAuditLogReader;
+import org.drools.core.audit.WorkingMemoryBinaryLogger;
 import org.drools.core.audit.WorkingMemoryFileLogger;
+import org.drools.core.audit.event.ActivationLogEvent;
+import org.drools.core.audit.event.LogEvent;
+import org.drools.core.audit.event.ObjectLogEvent;
 import org.junit.Test;
 import org.kie.internal.KnowledgeBase;
 import org.kie.internal.runtime.StatefulKnowledgeSession;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutput;
+import java.util.List;
+
 public class WorkingMemoryLoggerTest extends CommonTestMethodBase {
     private static final String LOG = "session";
 
@@ -21,4 +31,88 @@ public class WorkingMemoryLoggerTest extends CommonTestMethodBase {
         }
     }
 
+    @Test
+    public void testBinaryLogger() throws Exception {
+        String drl = "rule R when\n" +
+                     "  String()\n" +
+                     "then\n" +
+                     "end\n";
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( drl );
+        StatefulKnowledgeSession session = createKnowledgeSession( kbase );
+
+        File log = File.createTempFile( "audit", ".bin" );
+        File xml = File.createTempFile( "audit", ".log" );
+        try {
+            // a small buffer, so that the session has to wait for the writer
+            WorkingMemoryBinaryLogger logger = new WorkingMemoryBinaryLogger( session, log.getPath(), 4 );
+            for ( int i = 0; i < 100; i++ ) {
+                session.insert( "" + i );
+            }
+            session.fireAllRules();
+            logger.stop();
+            session.dispose();
+
+            BinaryAuditLogReader reader = new BinaryAuditLogReader( log );
+            List<LogEvent> events = reader.read().getEvents();
+            int inserted = 0;
+            int fired = 0;
+            for ( LogEvent event : events ) {
+                if ( event.getType() == LogEvent.INSERTED ) {
+                    assertEquals( "" + inserted, ( (ObjectLogEvent) event ).getObjectToString() );
+                    inserted++;
+                } else if ( event.getType() == LogEvent.AFTER_ACTIVATION_FIRE ) {
+                    assertEquals( "R", ( (ActivationLogEvent) event ).getRule() );
+                    fired++;
+                }
+            }
+            assertEquals( 100, inserted );
+            assertEquals( 100, fired );
+
+            reader.convertToXml( xml );
+            assertTrue( xml.length() > 0 );
+        } finally {
+            log.delete();
+            xml.delete();
+        }
+    }
+
+    @Test
+    public void testBinaryLoggerWithEventSubclass() throws Exception {
+        KnowledgeBase kbase = loadKnowledgeBase( "empty.drl" );
+        StatefulKnowledgeSession session = createKnowledgeSession( kbase );
+
+        File log = File.createTempFile( "audit", ".bin" );
+        try {
+            WorkingMemoryBinaryLogger logger = new WorkingMemoryBinaryLogger( session, log.getPath() );
+            logger.logEventCreated( new TracedObjectLogEvent( LogEvent.INSERTED, 1, "first", "trace" ) );
+            logger.logEventCreated( new ObjectLogEvent( LogEvent.INSERTED, 2, "second" ) );
+            logger.stop();
+            session.dispose();
+
+            // the subclass is logged as its superclass, without stopping the writer
+            List<LogEvent> events = new BinaryAuditLogReader( log ).read().getEvents();
+            assertEquals( 2, events.size() );
+            assertEquals( ObjectLogEvent.class, events.get( 0 ).getClass() );
+            assertEquals( "first", ( (ObjectLogEvent) events.get( 0 ) ).getObjectToString() );
+            assertEquals( "second", ( (ObjectLogEvent) events.get( 1 ) ).getObjectToString() );
+        } finally {
+            log.delete();
+        }
+    }
+
+    public static class TracedObjectLogEvent extends ObjectLogEvent {
+
+        private String trace;
+
+        public TracedObjectLogEvent(int type, long factId, String objectToString, String trace) {
+            super( type, factId, objectToString );
+            this.trace = trace;
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+            super.writeExternal( out );
+            out.writeObject( trace );
+        }
+    }
+
 }
@@ -1,11 +1,14 @@
 package org.drools.compiler.integrationtests.marshalling;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.OptionalDataException;
@@ -21,7 +24,9 @@ import org.kie.internal.KnowledgeBaseFactory;
 import org.kie.internal.builder.KnowledgeBuilder;
 import org.kie.internal.builder.KnowledgeBuilderFactory;
 import org.kie.internal.io.ResourceFactory;
+import org.kie.internal.marshalling.MarshallerFactory;
 import org.kie.api.io.ResourceType;
+import org.kie.api.marshalling.Marshaller;
 import org.kie.internal.runtime.StatefulKnowledgeSession;
 
 public class MarshallingIssuesTest extends CommonTestMethodBase  {
@@ -131,6 +136,35 @@ public class MarshallingIssuesTest extends CommonTestMethodBase  {
         assertNotNull( ksession );
         ksession.dispose();
     }
-    
 
+    @Test
+    public void testMarshallLargeSessionThroughStreams() throws Exception {
+        String source = "package test.drl\n";
+        source += "rule counter\n";
+        source += "when\n";
+        source += "    String( length > 0 )\n";
+        source += "then\n";
+        source += "end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( source );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        int factNr = 10000;
+        for ( int i = 0; i < factNr; i++ ) {
+            ksession.insert( "fact" + i );
+        }
+
+        Marshaller marshaller = MarshallerFactory.newMarshaller( kbase );
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        marshaller.marshall( baos, ksession );
+        ksession.dispose();
+
+        // the session is read in small blocks, as it would be from a file or a socket
+        InputStream stream = new BufferedInputStream( new ByteArrayInputStream( baos.toByteArray() ), 512 );
+        StatefulKnowledgeSession ksession2 = (StatefulKnowledgeSession) marshaller.unmarshall( stream );
+        stream.close();
+
+        assertEquals( factNr, ksession2.getFactCount() );
+        assertEquals( factNr, ksession2.fireAllRules() );
+        ksession2.dispose();
+    }
 }
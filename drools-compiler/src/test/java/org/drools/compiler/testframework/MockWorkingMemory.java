@@ -17,6 +17,7 @@ import org.drools.core.definitions.rule.impl.RuleImpl;
 import org.drools.core.event.AgendaEventSupport;
 import org.drools.core.event.RuleRuntimeEventSupport;
 import org.drools.core.impl.InternalKnowledgeBase;
+import org.drools.core.phreak.NetworkProfiler;
 import org.drools.core.process.instance.WorkItemManager;
 import org.drools.core.reteoo.EntryPointNode;
 import org.drools.core.reteoo.LIANodePropagation;
@@ -373,6 +374,10 @@ public class MockWorkingMemory implements InternalWorkingMemory {
         //To change body of implemented methods use File | Settings | File Templates.
     }
 
+    public NetworkProfiler getNetworkProfiler() {
+        return null;
+    }
+
     public void addEventListener(RuleRuntimeEventListener listener) {
         // TODO Auto-generated method stub
         
@@ -22,6 +22,8 @@ import org.drools.core.common.PriorityQueueAgendaGroupFactory;
 import org.drools.core.common.ProjectClassLoader;
 import org.drools.core.common.PropagationContextFactory;
 import org.drools.core.common.WorkingMemoryFactory;
+import org.drools.core.conf.ConstraintJittingThresholdOption;
+import org.drools.core.conf.FromResultCacheOption;
 import org.drools.core.conflict.DepthConflictResolver;
 import org.drools.core.reteoo.KieComponentFactory;
 import org.drools.core.reteoo.builder.NodeFactory;
@@ -135,6 +137,7 @@ public class RuleBaseConfiguration
     private boolean         shareAlphaNodes;
     private boolean         shareBetaNodes;
     private int             permGenThreshold;
+    private int             jittingThreshold;
     private int             alphaNodeHashingThreshold;
     private int             compositeKeyDepth;
     private boolean         indexLeftBetaMemory;
@@ -145,6 +148,7 @@ public class RuleBaseConfiguration
     private String          ruleBaseUpdateHandler;
     private boolean         classLoaderCacheEnabled;
     private boolean         phreakEnabled;
+    private boolean         fromResultCache;
 
     private boolean declarativeAgenda;
 
@@ -192,6 +196,7 @@ public class RuleBaseConfiguration
         out.writeBoolean(shareAlphaNodes);
         out.writeBoolean(shareBetaNodes);
         out.writeInt(permGenThreshold);
+        out.writeInt(jittingThreshold);
         out.writeInt(alphaNodeHashingThreshold);
         out.writeInt(compositeKeyDepth);
         out.writeBoolean(indexLeftBetaMemory);
@@ -211,6 +216,7 @@ public class RuleBaseConfiguration
         out.writeBoolean(declarativeAgenda);
         out.writeObject(componentFactory);
         out.writeObject(sessionCacheOption);
+        out.writeBoolean(fromResultCache);
     }
 
     public void readExternal(ObjectInput in) throws IOException,
@@ -224,6 +230,7 @@ public class RuleBaseConfiguration
         shareAlphaNodes = in.readBoolean();
         shareBetaNodes = in.readBoolean();
         permGenThreshold = in.readInt();
+        jittingThreshold = in.readInt();
         alphaNodeHashingThreshold = in.readInt();
         compositeKeyDepth = in.readInt();
         indexLeftBetaMemory = in.readBoolean();
@@ -243,6 +250,7 @@ public class RuleBaseConfiguration
         declarativeAgenda = in.readBoolean();
         componentFactory = (KieComponentFactory) in.readObject();
         sessionCacheOption = (SessionCacheOption) in.readObject();
+        fromResultCache = in.readBoolean();
     }
 
     /**
@@ -302,6 +310,8 @@ public class RuleBaseConfiguration
             setShareBetaNodes(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
         } else if ( name.equals( PermGenThresholdOption.PROPERTY_NAME ) ) {
             setPermGenThreshold(StringUtils.isEmpty(value) ? PermGenThresholdOption.DEFAULT_VALUE : Integer.parseInt(value));
+        } else if ( name.equals( ConstraintJittingThresholdOption.PROPERTY_NAME ) ) {
+            setJittingThreshold(StringUtils.isEmpty(value) ? ConstraintJittingThresholdOption.DEFAULT_VALUE : Integer.parseInt(value));
         } else if ( name.equals( AlphaThresholdOption.PROPERTY_NAME ) ) {
             setAlphaNodeHashingThreshold(StringUtils.isEmpty(value) ? 3 : Integer.parseInt(value));
         } else if ( name.equals( CompositeKeyDepthOption.PROPERTY_NAME ) ) {
@@ -336,6 +346,8 @@ public class RuleBaseConfiguration
             setPhreakEnabled(StringUtils.isEmpty(value) ? DEFAULT_PHREAK : value.equalsIgnoreCase(RuleEngineOption.PHREAK.toString()));
         } else if ( name.equals( SessionCacheOption.PROPERTY_NAME ) ) {
             setSessionCacheOption(SessionCacheOption.determineOption(StringUtils.isEmpty(value) ? "none" : value));
+        } else if ( name.equals( FromResultCacheOption.PROPERTY_NAME ) ) {
+            setFromResultCache(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
         }
     }
 
@@ -357,6 +369,8 @@ public class RuleBaseConfiguration
             return Boolean.toString( isShareBetaNodes() );
         } else if ( name.equals( PermGenThresholdOption.PROPERTY_NAME ) ) {
             return Integer.toString( getPermGenThreshold() );
+        } else if ( name.equals( ConstraintJittingThresholdOption.PROPERTY_NAME ) ) {
+            return Integer.toString( getJittingThreshold() );
         } else if ( name.equals( AlphaThresholdOption.PROPERTY_NAME ) ) {
             return Integer.toString( getAlphaNodeHashingThreshold() );
         } else if ( name.equals( CompositeKeyDepthOption.PROPERTY_NAME ) ) {
@@ -391,6 +405,8 @@ public class RuleBaseConfiguration
             return Boolean.toString( isClassLoaderCacheEnabled() );
         } else if ( name.equals( RuleEngineOption.PROPERTY_NAME ) ) {
             return Boolean.toString( isPhreakEnabled() );
+        } else if ( name.equals( FromResultCacheOption.PROPERTY_NAME ) ) {
+            return Boolean.toString( isFromResultCache() );
         }
 
         return null;
@@ -437,6 +453,8 @@ public class RuleBaseConfiguration
 
         setPermGenThreshold(Integer.parseInt(this.chainedProperties.getProperty(PermGenThresholdOption.PROPERTY_NAME, "" + PermGenThresholdOption.DEFAULT_VALUE)));
 
+        setJittingThreshold(Integer.parseInt(this.chainedProperties.getProperty(ConstraintJittingThresholdOption.PROPERTY_NAME, "" + ConstraintJittingThresholdOption.DEFAULT_VALUE)));
+
         setAlphaNodeHashingThreshold(Integer.parseInt(this.chainedProperties.getProperty(AlphaThresholdOption.PROPERTY_NAME, "3")));
 
         setCompositeKeyDepth(Integer.parseInt(this.chainedProperties.getProperty(CompositeKeyDepthOption.PROPERTY_NAME, "3")));
@@ -470,6 +488,9 @@ public class RuleBaseConfiguration
         setMaxThreads( Integer.parseInt( this.chainedProperties.getProperty( MaxThreadsOption.PROPERTY_NAME,
                                                                              "3" ) ) );
 
+        setFromResultCache( Boolean.valueOf( this.chainedProperties.getProperty( FromResultCacheOption.PROPERTY_NAME,
+                                                                                 "false" ) ).booleanValue() );
+
         setEventProcessingMode( EventProcessingOption.determineEventProcessingMode( this.chainedProperties.getProperty( EventProcessingOption.PROPERTY_NAME,
                                                                                                                         "cloud" ) ) );
 
@@ -571,6 +592,21 @@ public class RuleBaseConfiguration
         this.permGenThreshold = permGenThreshold;
     }
 
+    public int getJittingThreshold() {
+        return this.jittingThreshold;
+    }
+
+    /**
+     * Sets how many times a constraint is evaluated in interpreted mode before being
+     * compiled to bytecode in background. With 0 the constraints are compiled while the kbase
+     * is built and their jitting is submitted in background at their first evaluation, so
+     * the bytecode generation never blocks an evaluation. A negative value disables jitting.
+     */
+    public void setJittingThreshold(final int jittingThreshold) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.jittingThreshold = jittingThreshold;
+    }
+
     public int getAlphaNodeHashingThreshold() {
         return this.alphaNodeHashingThreshold;
     }
@@ -684,19 +720,17 @@ public class RuleBaseConfiguration
      * Defines if the RuleBase should be executed using a pool of
      * threads for evaluating the rules ("true"), or if the rulebase 
      * should work in classic single thread mode ("false").
+     * When enabled, the phreak agenda evaluates the dirty rules of the
+     * focused agenda group that do not share any segment concurrently,
+     * using at most {@link #getMaxThreads()} threads, before firing them.
+     * It is ignored by the ReteOO engine and in sequential mode.
      * 
      * @param enableMultithread true for multi-thread or 
      *                     false for single-thread. Default is false.
      */
     public void setMultithreadEvaluation(boolean enableMultithread) {
         checkCanChange();
-        if( enableMultithread ) {
-            throw new IllegalArgumentException( "Multithread mode is currently not supported. Please disable it." );
-        }
         this.multithread = enableMultithread;
-        if (multithread && isPhreakEnabled()) {
-            throw new IllegalArgumentException( "Multithread evaluation cannot be used when Left & Right Unlinking is enabled." );
-        }
     }
 
     /**
@@ -709,6 +743,19 @@ public class RuleBaseConfiguration
         return this.multithread;
     }
 
+    /**
+     * Enables or disables the caching of the results of the from expressions
+     * among the tuples propagated together. Default is false.
+     */
+    public void setFromResultCache(boolean fromResultCache) {
+        checkCanChange();
+        this.fromResultCache = fromResultCache;
+    }
+
+    public boolean isFromResultCache() {
+        return this.fromResultCache;
+    }
+
     /**
      * If multi-thread evaluation is enabled, this parameter configures the 
      * maximum number of threads each session can use for concurrent Rete
@@ -716,8 +763,8 @@ public class RuleBaseConfiguration
      * 
      * @param maxThreads the maximum number of threads to use. If 0 or a 
      *                   negative number is set, the engine will use number
-     *                   of threads equal to the number of partitions in the
-     *                   rule base. Default number of threads is 0. 
+     *                   of threads equal to the number of available processors.
+     *                   Default number of threads is 3.
      */
     public void setMaxThreads(final int maxThreads) {
         this.maxThreads = maxThreads;
@@ -725,7 +772,7 @@ public class RuleBaseConfiguration
 
     /**
      * Returns the configured number of maximum threads to use for concurrent
-     * propagation when multi-thread evaluation is enabled. Default is zero.
+     * propagation when multi-thread evaluation is enabled. Default is 3.
      * 
      * @return
      */
@@ -1203,6 +1250,8 @@ public class RuleBaseConfiguration
             return (T) ((this.sequentialAgenda == SequentialAgenda.SEQUENTIAL) ? SequentialAgendaOption.SEQUENTIAL : SequentialAgendaOption.DYNAMIC);
         } else if (PermGenThresholdOption.class.equals(option)) {
             return (T) PermGenThresholdOption.get(permGenThreshold);
+        } else if (ConstraintJittingThresholdOption.class.equals(option)) {
+            return (T) ConstraintJittingThresholdOption.get(jittingThreshold);
         } else if (AlphaThresholdOption.class.equals(option)) {
             return (T) AlphaThresholdOption.get(alphaNodeHashingThreshold);
         } else if (CompositeKeyDepthOption.class.equals(option)) {
@@ -1222,6 +1271,8 @@ public class RuleBaseConfiguration
             return (T) MaxThreadsOption.get(getMaxThreads());
         } else if (MultithreadEvaluationOption.class.equals(option)) {
             return (T) (this.multithread ? MultithreadEvaluationOption.YES : MultithreadEvaluationOption.NO);
+        } else if (FromResultCacheOption.class.equals(option)) {
+            return (T) (this.fromResultCache ? FromResultCacheOption.YES : FromResultCacheOption.NO);
         } else if (MBeansOption.class.equals(option)) {
             return (T) (this.isMBeansEnabled() ? MBeansOption.ENABLED : MBeansOption.DISABLED);
         } else if (ClassLoaderCacheOption.class.equals(option)) {
@@ -1256,6 +1307,8 @@ public class RuleBaseConfiguration
             setSequentialAgenda((option == SequentialAgendaOption.SEQUENTIAL) ? SequentialAgenda.SEQUENTIAL : SequentialAgenda.DYNAMIC);
         } else if (option instanceof PermGenThresholdOption) {
             setPermGenThreshold(((PermGenThresholdOption) option).getThreshold());
+        } else if (option instanceof ConstraintJittingThresholdOption) {
+            setJittingThreshold(((ConstraintJittingThresholdOption) option).getThreshold());
         } else if (option instanceof AlphaThresholdOption) {
             setAlphaNodeHashingThreshold(((AlphaThresholdOption) option).getThreshold());
         } else if (option instanceof CompositeKeyDepthOption) {
@@ -1268,6 +1321,8 @@ public class RuleBaseConfiguration
             setMaxThreads(((MaxThreadsOption) option).getMaxThreads());
         } else if (option instanceof MultithreadEvaluationOption) {
             setMultithreadEvaluation(((MultithreadEvaluationOption) option).isMultithreadEvaluation());
+        } else if (option instanceof FromResultCacheOption) {
+            setFromResultCache(((FromResultCacheOption) option).isFromResultCache());
         } else if (option instanceof MBeansOption) {
             setMBeansEnabled(((MBeansOption) option).isEnabled());
         } else if (option instanceof ClassLoaderCacheOption) {
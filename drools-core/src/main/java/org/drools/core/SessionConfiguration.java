@@ -17,7 +17,11 @@
 package org.drools.core;
 
 import org.drools.core.command.CommandService;
+import org.drools.core.common.ClassAwareObjectStore;
+import org.drools.core.common.ObjectStore;
 import org.drools.core.common.ProjectClassLoader;
+import org.drools.core.conf.NetworkProfilingOption;
+import org.drools.core.conf.ObjectStoreOption;
 import org.drools.core.process.instance.WorkItemManagerFactory;
 import org.drools.core.time.TimerService;
 import org.drools.core.time.impl.TimerJobFactoryManager;
@@ -50,6 +54,7 @@ import java.io.ObjectOutput;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.locks.Lock;
 
 /**
  * SessionConfiguration
@@ -68,6 +73,7 @@ import java.util.Properties;
  * 
  * drools.keepReference = <true|false>
  * drools.clockType = <pseudo|realtime|heartbeat|implicit>
+ * drools.networkProfiling = <true|false>
  */
 public class SessionConfiguration
     implements
@@ -99,6 +105,10 @@ public class SessionConfiguration
     private transient TimerJobFactoryManager timerJobFactoryManager;
     private TimerJobFactoryType              timerJobFactoryType;
 
+    private String                         objectStoreClassName;
+
+    private boolean                        networkProfiling;
+
     public void writeExternal(ObjectOutput out) throws IOException {
         out.writeObject( chainedProperties );
         out.writeBoolean(immutable);
@@ -106,6 +116,8 @@ public class SessionConfiguration
         out.writeObject(clockType);
         out.writeObject( queryListener );
         out.writeObject( timerJobFactoryType );
+        out.writeBoolean( networkProfiling );
+        out.writeObject( objectStoreClassName );
     }
 
     private static class DefaultSessionConfiguration {
@@ -125,6 +137,8 @@ public class SessionConfiguration
         clockType = (ClockType) in.readObject();
         queryListener = (QueryListenerOption) in.readObject();
         timerJobFactoryType = (TimerJobFactoryType) in.readObject();
+        networkProfiling = in.readBoolean();
+        objectStoreClassName = (String) in.readObject();
     }
 
     /**
@@ -186,6 +200,12 @@ public class SessionConfiguration
 
         setTimerJobFactoryType(TimerJobFactoryType.resolveTimerJobFactoryType(this.chainedProperties.getProperty(TimerJobFactoryOption.PROPERTY_NAME,
                                                                                                                  TimerJobFactoryType.DEFUALT.getId())));
+
+        setObjectStoreClassName( this.chainedProperties.getProperty( ObjectStoreOption.PROPERTY_NAME,
+                                                                     ClassAwareObjectStore.class.getName() ) );
+
+        setNetworkProfiling( Boolean.valueOf( this.chainedProperties.getProperty( NetworkProfilingOption.PROPERTY_NAME,
+                                                                                  "false" ) ).booleanValue() );
     }
 
     public void addDefaultProperties(Properties properties) {
@@ -220,6 +240,10 @@ public class SessionConfiguration
             setQueryListenerClass( StringUtils.isEmpty( value ) ? QueryListenerOption.STANDARD.getAsString() : value );
         } else if ( name.equals( BeliefSystemTypeOption.PROPERTY_NAME ) ) {
             setBeliefSystemType( StringUtils.isEmpty( value ) ? BeliefSystemType.SIMPLE : BeliefSystemType.resolveBeliefSystemType( value ) );
+        } else if ( name.equals( ObjectStoreOption.PROPERTY_NAME ) ) {
+            setObjectStoreClassName( StringUtils.isEmpty( value ) ? ClassAwareObjectStore.class.getName() : value );
+        } else if ( name.equals( NetworkProfilingOption.PROPERTY_NAME ) ) {
+            setNetworkProfiling( !StringUtils.isEmpty( value ) && Boolean.parseBoolean( value ) );
         }
     }
 
@@ -239,6 +263,10 @@ public class SessionConfiguration
             return this.queryListener.getAsString();
         } else if ( name.equals( BeliefSystemTypeOption.PROPERTY_NAME ) ) {
             return this.getBeliefSystemType().getId();
+        } else if ( name.equals( ObjectStoreOption.PROPERTY_NAME ) ) {
+            return this.objectStoreClassName;
+        } else if ( name.equals( NetworkProfilingOption.PROPERTY_NAME ) ) {
+            return Boolean.toString( this.networkProfiling );
         }
         return null;
     }
@@ -275,6 +303,19 @@ public class SessionConfiguration
         return this.keepReference;
     }
 
+    /**
+     * Enables or disables the collection of the statistics of the evaluation of
+     * each node of the phreak network. Default is false.
+     */
+    public void setNetworkProfiling(boolean networkProfiling) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.networkProfiling = networkProfiling;
+    }
+
+    public boolean isNetworkProfiling() {
+        return this.networkProfiling;
+    }
+
     public void setForceEagerActivationFilter(ForceEagerActivationFilter forceEagerActivationFilter) {
         checkCanChange(); // throws an exception if a change isn't possible;
         this.forceEagerActivationFilter = forceEagerActivationFilter;
@@ -470,6 +511,46 @@ public class SessionConfiguration
         }
     }
 
+    public String getObjectStoreClassName() {
+        return this.objectStoreClassName;
+    }
+
+    public void setObjectStoreClassName(String objectStoreClassName) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.objectStoreClassName = objectStoreClassName;
+    }
+
+    /**
+     * Creates the store keeping the facts of an entry point. The store class, configured with
+     * the {@link ObjectStoreOption}, must have a constructor accepting the RuleBaseConfiguration of the
+     * kbase and the Lock of the entry point.
+     */
+    @SuppressWarnings("unchecked")
+    public ObjectStore newObjectStore(RuleBaseConfiguration conf,
+                                      Lock lock) {
+        if ( ClassAwareObjectStore.class.getName().equals( this.objectStoreClassName ) ) {
+            return new ClassAwareObjectStore( conf,
+                                              lock );
+        }
+
+        Class<ObjectStore> clazz;
+        try {
+            clazz = (Class<ObjectStore>) this.classLoader.loadClass( this.objectStoreClassName );
+        } catch ( ClassNotFoundException e ) {
+            throw new IllegalArgumentException( "Object store '" + this.objectStoreClassName + "' not found",
+                                                e );
+        }
+
+        try {
+            return clazz.getConstructor( RuleBaseConfiguration.class,
+                                         Lock.class ).newInstance( conf,
+                                                                   lock );
+        } catch ( Exception e ) {
+            throw new IllegalArgumentException( "Unable to instantiate object store '" + this.objectStoreClassName + "'",
+                                                e );
+        }
+    }
+
     public TimerService newTimerService() {
         String className = this.chainedProperties.getProperty(
                                                                "drools.timerService",
@@ -516,6 +597,10 @@ public class SessionConfiguration
             return (T) this.queryListener;
         } else if ( BeliefSystemTypeOption.class.equals( option ) ) {
             return (T) BeliefSystemTypeOption.get( this.getBeliefSystemType().getId() );
+        } else if ( NetworkProfilingOption.class.equals( option ) ) {
+            return (T) (this.networkProfiling ? NetworkProfilingOption.YES : NetworkProfilingOption.NO);
+        } else if ( ObjectStoreOption.class.equals( option ) ) {
+            return (T) ObjectStoreOption.get( this.objectStoreClassName );
         }
         return null;
     }
@@ -548,6 +633,10 @@ public class SessionConfiguration
             this.queryListener = (QueryListenerOption) option;
         } else if ( option instanceof BeliefSystemTypeOption ) {
             this.beliefSystemType = ((BeliefSystemType.resolveBeliefSystemType( ((BeliefSystemTypeOption) option).getBelieSystemType() )));
+        } else if ( option instanceof NetworkProfilingOption ) {
+            setNetworkProfiling( ((NetworkProfilingOption) option).isNetworkProfiling() );
+        } else if ( option instanceof ObjectStoreOption ) {
+            setObjectStoreClassName( ((ObjectStoreOption) option).getObjectStoreClassName() );
         }
     }
 
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.audit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.drools.core.audit.event.ActivationLogEvent;
+import org.drools.core.audit.event.LogEvent;
+import org.drools.core.audit.event.ObjectLogEvent;
+import org.drools.core.audit.event.RuleBaseLogEvent;
+import org.drools.core.audit.event.RuleFlowGroupLogEvent;
+import org.drools.core.audit.event.RuleFlowLogEvent;
+import org.drools.core.audit.event.RuleFlowNodeLogEvent;
+import org.drools.core.audit.event.RuleFlowVariableLogEvent;
+import org.drools.core.util.IoUtils;
+
+/**
+ * The binary format of the audit log written by the WorkingMemoryBinaryLogger.
+ *
+ * The log starts with a header made of a magic number, the format version and the
+ * name of the engine, followed by one record for each event. A record is made of
+ * the length of the event, a tag identifying its class and the event itself, as
+ * written by its writeExternal() method. The strings are written as UTF-8 bytes
+ * preceded by their length, or -1 for null.
+ */
+final class BinaryAuditLogFormat {
+
+    static final int   MAGIC   = 0x44524C41; // "DRLA"
+    static final short VERSION = 1;
+
+    private static final Class<?>[] EVENT_CLASSES = new Class<?>[] {
+            LogEvent.class,
+            ObjectLogEvent.class,
+            ActivationLogEvent.class,
+            RuleBaseLogEvent.class,
+            RuleFlowLogEvent.class,
+            RuleFlowGroupLogEvent.class,
+            RuleFlowNodeLogEvent.class,
+            RuleFlowVariableLogEvent.class
+    };
+
+    private BinaryAuditLogFormat() { }
+
+    /**
+     * Returns the tag of the class of the event, or of its nearest superclass with a tag.
+     * An event of an unknown subclass is then read back as an instance of that superclass:
+     * its record starts with the fields written by the superclass, and the reader ignores
+     * the rest of the record.
+     */
+    static byte getTag(LogEvent event) {
+        for ( Class<?> eventClass = event.getClass(); eventClass != null; eventClass = eventClass.getSuperclass() ) {
+            for ( int i = 0; i < EVENT_CLASSES.length; i++ ) {
+                if ( EVENT_CLASSES[i] == eventClass ) {
+                    return (byte) i;
+                }
+            }
+        }
+        throw new IllegalArgumentException( "Unknown log event " + event.getClass().getName() );
+    }
+
+    static LogEvent newEvent(byte tag) {
+        if ( tag < 0 || tag >= EVENT_CLASSES.length ) {
+            throw new IllegalArgumentException( "Unknown log event tag " + tag );
+        }
+        try {
+            return (LogEvent) EVENT_CLASSES[tag].newInstance();
+        } catch ( Exception e ) {
+            throw new RuntimeException( e );
+        }
+    }
+
+    /**
+     * A byte array output stream whose content can be wrapped without copying it
+     */
+    static class Buffer extends ByteArrayOutputStream {
+
+        Buffer(int size) {
+            super( size );
+        }
+
+        ByteBuffer asByteBuffer() {
+            return ByteBuffer.wrap( buf, 0, count );
+        }
+    }
+
+    static class EventOutput extends DataOutputStream implements ObjectOutput {
+
+        EventOutput(OutputStream out) {
+            super( out );
+        }
+
+        public void writeObject(Object obj) throws IOException {
+            if ( obj == null ) {
+                writeInt( -1 );
+            } else {
+                byte[] bytes = obj.toString().getBytes( IoUtils.UTF8_CHARSET );
+                writeInt( bytes.length );
+                write( bytes );
+            }
+        }
+    }
+
+    static class EventInput extends DataInputStream implements ObjectInput {
+
+        EventInput(InputStream in) {
+            super( in );
+        }
+
+        public Object readObject() throws IOException {
+            int length = readInt();
+            if ( length < 0 ) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            readFully( bytes );
+            return new String( bytes, IoUtils.UTF8_CHARSET );
+        }
+    }
+}
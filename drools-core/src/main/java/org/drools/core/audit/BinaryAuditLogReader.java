@@ -0,0 +1,132 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.audit;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.core.audit.BinaryAuditLogFormat.EventInput;
+import org.drools.core.audit.event.LogEvent;
+import org.drools.core.util.IoUtils;
+
+import com.thoughtworks.xstream.XStream;
+
+/**
+ * Reads the audit logs written by the WorkingMemoryBinaryLogger, and converts them to
+ * the XML format written by the WorkingMemoryFileLogger, so that they can be inspected
+ * with the existing audit tools.
+ *
+ * A log whose last record has been only partially written, for example because the
+ * JVM crashed, is read up to its last complete event.
+ *
+ * It can also be used from the command line:
+ * <pre>
+ * java org.drools.core.audit.BinaryAuditLogReader audit.bin audit.log
+ * </pre>
+ */
+public class BinaryAuditLogReader {
+
+    private final File file;
+
+    public BinaryAuditLogReader(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads all the events of the log, in the order they have been logged
+     */
+    public WorkingMemoryLog read() throws IOException {
+        EventInput in = new EventInput( new BufferedInputStream( new FileInputStream( file ) ) );
+        try {
+            if ( in.readInt() != BinaryAuditLogFormat.MAGIC ) {
+                throw new IOException( file + " is not a binary audit log" );
+            }
+            short version = in.readShort();
+            if ( version != BinaryAuditLogFormat.VERSION ) {
+                throw new IOException( "Unsupported version " + version + " of binary audit log " + file );
+            }
+            String engine = in.readUTF();
+
+            List<LogEvent> events = new ArrayList<LogEvent>();
+            while ( true ) {
+                LogEvent event = readEvent( in );
+                if ( event == null ) {
+                    break;
+                }
+                events.add( event );
+            }
+            return new WorkingMemoryLog( events, engine );
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Converts the log to the XML format written by the WorkingMemoryFileLogger
+     */
+    public void convertToXml(File xmlFile) throws IOException {
+        WorkingMemoryLog log = read();
+        Writer writer = new OutputStreamWriter( new FileOutputStream( xmlFile ),
+                                                IoUtils.UTF8_CHARSET );
+        try {
+            writer.write( "<object-stream>\n" );
+            writer.write( new XStream().toXML( log ) + "\n" );
+            writer.write( "</object-stream>\n" );
+        } finally {
+            writer.close();
+        }
+    }
+
+    private LogEvent readEvent(EventInput in) throws IOException {
+        byte[] record;
+        byte tag;
+        try {
+            int length = in.readInt();
+            tag = in.readByte();
+            record = new byte[length];
+            in.readFully( record );
+        } catch ( EOFException e ) {
+            // end of the log, or a record that has not been completely written
+            return null;
+        }
+
+        LogEvent event = BinaryAuditLogFormat.newEvent( tag );
+        try {
+            event.readExternal( new EventInput( new ByteArrayInputStream( record ) ) );
+        } catch ( ClassNotFoundException e ) {
+            throw new IOException( e.getMessage() );
+        }
+        return event;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if ( args.length != 2 ) {
+            System.err.println( "Usage: java " + BinaryAuditLogReader.class.getName() + " <binary log> <xml log>" );
+            System.exit( 1 );
+        }
+        new BinaryAuditLogReader( new File( args[0] ) ).convertToXml( new File( args[1] ) );
+    }
+}
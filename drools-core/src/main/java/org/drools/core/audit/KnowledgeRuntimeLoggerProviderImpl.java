@@ -49,6 +49,12 @@ public class KnowledgeRuntimeLoggerProviderImpl
         return registerRuntimeLogger(session, new KnowledgeRuntimeFileLoggerWrapper(logger));
     }
 
+    public KnowledgeRuntimeLogger newBinaryFileLogger(KieRuntimeEventManager session,
+                                                      String fileName) {
+        WorkingMemoryBinaryLogger logger = new WorkingMemoryBinaryLogger( (KnowledgeRuntimeEventManager) session, fileName );
+        return registerRuntimeLogger(session, new KnowledgeRuntimeBinaryFileLoggerWrapper(logger));
+    }
+
     public KnowledgeRuntimeLogger newConsoleLogger(KieRuntimeEventManager session) {
         WorkingMemoryConsoleLogger logger = new WorkingMemoryConsoleLogger( (KnowledgeRuntimeEventManager) session );
         return registerRuntimeLogger(session, new KnowledgeRuntimeConsoleLoggerWrapper(logger));
@@ -93,6 +99,22 @@ public class KnowledgeRuntimeLoggerProviderImpl
 
     }
 
+    private class KnowledgeRuntimeBinaryFileLoggerWrapper
+        implements
+        KnowledgeRuntimeLogger {
+
+        private WorkingMemoryBinaryLogger logger;
+
+        public KnowledgeRuntimeBinaryFileLoggerWrapper(WorkingMemoryBinaryLogger logger) {
+            this.logger = logger;
+        }
+
+        public void close() {
+            logger.stop();
+        }
+
+    }
+
     private class KnowledgeRuntimeConsoleLoggerWrapper
         implements
         KnowledgeRuntimeLogger {
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.audit;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.drools.core.WorkingMemory;
+import org.drools.core.audit.BinaryAuditLogFormat.Buffer;
+import org.drools.core.audit.BinaryAuditLogFormat.EventOutput;
+import org.drools.core.audit.event.LogEvent;
+import org.kie.internal.event.KnowledgeRuntimeEventManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A logger of events generated by a working memory, writing them to an append-only
+ * file in a compact binary format.
+ *
+ * The thread generating the events only publishes them in a lock-free ring buffer,
+ * while a dedicated writer thread serializes them and appends them to the file
+ * through a FileChannel. If the writer falls behind and the ring buffer is full, the
+ * thread generating the events waits for it to free some room, so no event is lost.
+ *
+ * The resulting log can be read, or converted to the XML format written by the
+ * WorkingMemoryFileLogger, with the BinaryAuditLogReader.
+ */
+public class WorkingMemoryBinaryLogger extends WorkingMemoryLogger {
+
+    protected static final transient Logger logger = LoggerFactory.getLogger(WorkingMemoryBinaryLogger.class);
+
+    public static final int  DEFAULT_BUFFER_SIZE    = 8192;
+
+    private static final long FLUSH_INTERVAL_NANOS  = TimeUnit.MILLISECONDS.toNanos( 100 );
+
+    private final String     fileName;
+    private final RingBuffer events;
+    private final Writer     writer;
+    private final Thread     writerThread;
+
+    /**
+     * Creates a new WorkingMemoryBinaryLogger for the given session. The events are
+     * logged in the given file, overwriting it if it already exists.
+     */
+    public WorkingMemoryBinaryLogger(final KnowledgeRuntimeEventManager session,
+                                     final String fileName) {
+        this( session, fileName, DEFAULT_BUFFER_SIZE );
+    }
+
+    /**
+     * @param bufferSize the number of events that can be waiting to be written,
+     *                   rounded up to the next power of 2
+     */
+    public WorkingMemoryBinaryLogger(final KnowledgeRuntimeEventManager session,
+                                     final String fileName,
+                                     final int bufferSize) {
+        super( session );
+        this.fileName = fileName;
+        this.events = new RingBuffer( bufferSize );
+        this.writer = new Writer( openLog( fileName, isPhreak ) );
+        this.writerThread = startWriter( writer, fileName );
+    }
+
+    public WorkingMemoryBinaryLogger(final WorkingMemory workingMemory,
+                                     final String fileName) {
+        super( workingMemory );
+        this.fileName = fileName;
+        this.events = new RingBuffer( DEFAULT_BUFFER_SIZE );
+        this.writer = new Writer( openLog( fileName, isPhreak ) );
+        this.writerThread = startWriter( writer, fileName );
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void logEventCreated(final LogEvent logEvent) {
+        while ( !events.offer( logEvent ) ) {
+            if ( writer.closed ) {
+                // nobody is going to write this event anymore
+                return;
+            }
+            // the writer is lagging behind, wait for it to free some room
+            LockSupport.unpark( writerThread );
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Writes all the pending events and closes the log
+     */
+    public void stop() {
+        writer.stopping = true;
+        LockSupport.unpark( writerThread );
+        try {
+            writerThread.join();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static FileChannel openLog(String fileName, boolean isPhreak) {
+        try {
+            RandomAccessFile file = new RandomAccessFile( fileName, "rw" );
+            file.setLength( 0 );
+            FileChannel channel = file.getChannel();
+
+            Buffer header = new Buffer( 64 );
+            EventOutput out = new EventOutput( header );
+            out.writeInt( BinaryAuditLogFormat.MAGIC );
+            out.writeShort( BinaryAuditLogFormat.VERSION );
+            out.writeUTF( isPhreak ? "PHREAK" : "RETEOO" );
+            out.flush();
+            write( channel, header.asByteBuffer() );
+            return channel;
+        } catch ( FileNotFoundException e ) {
+            throw new RuntimeException( "Could not create the log file.  Please make sure that directory that the log file should be placed in does exist." );
+        } catch ( IOException e ) {
+            throw new RuntimeException( "Could not write the log file " + fileName, e );
+        }
+    }
+
+    private static Thread startWriter(Writer writer, String fileName) {
+        Thread thread = new Thread( writer, "drools-audit-writer-" + fileName );
+        thread.setDaemon( true );
+        thread.start();
+        return thread;
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while ( buffer.hasRemaining() ) {
+            channel.write( buffer );
+        }
+    }
+
+    private class Writer implements Runnable {
+
+        private final FileChannel channel;
+
+        private final Buffer      record      = new Buffer( 256 );
+        private final EventOutput recordOut   = new EventOutput( record );
+        private final Buffer      batch       = new Buffer( 64 * 1024 );
+        private final EventOutput batchOut    = new EventOutput( batch );
+
+        private volatile boolean  stopping;
+        private volatile boolean  closed;
+
+        private Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        public void run() {
+            try {
+                while ( true ) {
+                    // read the flag before draining, so that all the events published before stop() are written
+                    boolean stop = stopping;
+                    int written = writeBatch();
+                    if ( written == 0 ) {
+                        if ( stop ) {
+                            break;
+                        }
+                        LockSupport.parkNanos( FLUSH_INTERVAL_NANOS );
+                    }
+                }
+            } catch ( Throwable t ) {
+                logger.error( "Unable to write the audit log " + fileName + ", no more events will be logged", t );
+            } finally {
+                closed = true;
+                try {
+                    channel.close();
+                } catch ( IOException e ) {
+                    logger.error( "Unable to close the audit log " + fileName, e );
+                }
+            }
+        }
+
+        private int writeBatch() throws IOException {
+            batch.reset();
+            int written = 0;
+            for ( LogEvent event = events.poll(); event != null; event = events.poll() ) {
+                record.reset();
+                event.writeExternal( recordOut );
+                recordOut.flush();
+                batchOut.writeInt( record.size() );
+                batchOut.writeByte( BinaryAuditLogFormat.getTag( event ) );
+                record.writeTo( batchOut );
+                written++;
+                if ( batch.size() >= 64 * 1024 ) {
+                    break;
+                }
+            }
+            if ( written > 0 ) {
+                batchOut.flush();
+                write( channel, batch.asByteBuffer() );
+            }
+            return written;
+        }
+    }
+
+    /**
+     * A bounded lock-free queue, with many producers and a single consumer.
+     *
+     * A producer claims a slot by incrementing the head and then publishes its event in it,
+     * while the consumer reads the slots in order, waiting for the event of the next slot
+     * to be published, and empties them before moving the tail forward.
+     */
+    static class RingBuffer {
+
+        private final AtomicReferenceArray<LogEvent> slots;
+        private final int                            mask;
+        private final AtomicLong                     head = new AtomicLong();
+        private volatile long                        tail;
+
+        RingBuffer(int size) {
+            int capacity = Integer.highestOneBit( Math.max( size, 2 ) - 1 ) << 1;
+            this.slots = new AtomicReferenceArray<LogEvent>( capacity );
+            this.mask = capacity - 1;
+        }
+
+        boolean offer(LogEvent event) {
+            while ( true ) {
+                long current = head.get();
+                if ( current - tail > mask ) {
+                    return false;
+                }
+                if ( head.compareAndSet( current, current + 1 ) ) {
+                    slots.lazySet( (int) ( current & mask ), event );
+                    return true;
+                }
+            }
+        }
+
+        LogEvent poll() {
+            int index = (int) ( tail & mask );
+            LogEvent event = slots.get( index );
+            if ( event == null ) {
+                // the next slot is empty or has been claimed but not published yet
+                return null;
+            }
+            slots.lazySet( index, null );
+            tail = tail + 1;
+            return event;
+        }
+    }
+}
@@ -31,6 +31,9 @@ public class ObjectLogEvent extends LogEvent {
     private long   factId;
     private String objectToString;
 
+    public ObjectLogEvent() {
+    }
+
     /**
      * Create a new activation log event.
      * 
@@ -29,6 +29,9 @@ public class RuleBaseLogEvent extends LogEvent {
     private String packageName;
     private String ruleName;
 
+    public RuleBaseLogEvent() {
+    }
+
     /**
      * Create a new activation log event.
      * 
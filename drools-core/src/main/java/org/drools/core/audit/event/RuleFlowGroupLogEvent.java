@@ -30,6 +30,9 @@ public class RuleFlowGroupLogEvent extends LogEvent {
     private String groupName;
     private int size;
 
+    public RuleFlowGroupLogEvent() {
+    }
+
     /**
      * Create a new ruleflow group log event.
      * 
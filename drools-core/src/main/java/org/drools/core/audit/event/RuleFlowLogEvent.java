@@ -31,6 +31,9 @@ public class RuleFlowLogEvent extends LogEvent {
     private String processName;
     private long processInstanceId;
 
+    public RuleFlowLogEvent() {
+    }
+
     /**
      * Create a new ruleflow log event.
      * 
@@ -26,6 +26,9 @@ public class RuleFlowNodeLogEvent extends RuleFlowLogEvent {
     private String nodeName;
     private String nodeInstanceId;
 
+    public RuleFlowNodeLogEvent() {
+    }
+
     /**
      * Create a new ruleflow node log event.
      * 
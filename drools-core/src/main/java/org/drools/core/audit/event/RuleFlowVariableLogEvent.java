@@ -26,6 +26,9 @@ public class RuleFlowVariableLogEvent extends RuleFlowLogEvent {
     private String variableInstanceId;
     private String objectToString;
 
+    public RuleFlowVariableLogEvent() {
+    }
+
     /**
      * Create a new ruleflow variable log event.
      */
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.base.accumulators;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.kie.api.runtime.rule.AccumulateFunction;
+
+/**
+ * <p>An implementation of an accumulator capable of counting the distinct values
+ * of an expression.</p>
+ *
+ * <p>Example:</p>
+ * <pre>
+ * rule "Number of customers that placed an order"
+ * when
+ *     $customers : Number() from accumulate(
+ *             Order( $c : customer ),
+ *             countDistinct( $c ) )
+ * then
+ *     // do something
+ * end
+ * </pre>
+ *
+ * <p>Each value is counted along with its number of occurrences, so that the
+ * function can be reversed without iterating over the other values.</p>
+ */
+public class CountDistinctAccumulateFunction
+    implements
+    AccumulateFunction {
+
+    public void readExternal(ObjectInput in) throws IOException,
+                                            ClassNotFoundException {
+        // functions are stateless, so nothing to serialize
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+        // functions are stateless, so nothing to serialize
+    }
+
+    public static class CountDistinctData
+        implements
+        Externalizable {
+        public Map< Object, MutableInt > map = new HashMap<Object, MutableInt>();
+
+        public CountDistinctData() {
+        }
+
+        @SuppressWarnings("unchecked")
+        public void readExternal(ObjectInput in) throws IOException,
+                                                ClassNotFoundException {
+            map = (Map< Object, MutableInt >) in.readObject();
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeObject( map );
+        }
+
+        public static class MutableInt implements Serializable {
+            private static final long serialVersionUID = 510l;
+            public int value = 0;
+        }
+
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#createContext()
+     */
+    public Serializable createContext() {
+        return new CountDistinctData();
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#init(java.lang.Object)
+     */
+    public void init(Serializable context) throws Exception {
+        CountDistinctData data = (CountDistinctData) context;
+        data.map.clear();
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#accumulate(java.lang.Object, java.lang.Object)
+     */
+    public void accumulate(Serializable context,
+                           Object value) {
+        CountDistinctData data = (CountDistinctData) context;
+        CountDistinctData.MutableInt counter = data.map.get( value );
+        if( counter == null ) {
+            counter = new CountDistinctData.MutableInt();
+            data.map.put( value, counter );
+        }
+        counter.value++;
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#reverse(java.lang.Object, java.lang.Object)
+     */
+    public void reverse(Serializable context,
+                        Object value) throws Exception {
+        CountDistinctData data = (CountDistinctData) context;
+        CountDistinctData.MutableInt counter = data.map.get( value );
+        if( (--counter.value) == 0 ) {
+            data.map.remove( value );
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#getResult(java.lang.Object)
+     */
+    public Object getResult(Serializable context) throws Exception {
+        CountDistinctData data = (CountDistinctData) context;
+        return new Long( data.map.size() );
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#supportsReverse()
+     */
+    public boolean supportsReverse() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Class< ? > getResultType() {
+        return Number.class;
+    }
+}
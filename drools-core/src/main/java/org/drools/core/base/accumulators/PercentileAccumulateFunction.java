@@ -0,0 +1,354 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.base.accumulators;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+
+import org.kie.api.runtime.rule.AccumulateFunction;
+
+/**
+ * <p>An implementation of an accumulator capable of calculating a percentile of
+ * a set of values, interpolating linearly between the two closest ranks when the
+ * percentile falls between them.</p>
+ *
+ * <p>Accumulate functions take a single argument, so each percentile is provided
+ * by its own subclass: {@link Median}, {@link Percentile90}, {@link Percentile95}
+ * and {@link Percentile99}.</p>
+ *
+ * <p>Example:</p>
+ * <pre>
+ * rule "Slow responses"
+ * when
+ *     $p99 : Number( doubleValue > 500 ) from accumulate(
+ *             Response( $t : time ) over window:time( 5m ),
+ *             percentile99( $t ) )
+ * then
+ *     // do something
+ * end
+ * </pre>
+ *
+ * <p>The values are kept in an order statistic tree, so that both adding and
+ * removing a value, as well as looking up the value at a given rank, take a
+ * logarithmic time.</p>
+ */
+public abstract class PercentileAccumulateFunction implements AccumulateFunction {
+
+    private final double percentile;
+
+    protected PercentileAccumulateFunction(double percentile) {
+        this.percentile = percentile;
+    }
+
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+
+    }
+
+    public static class Median extends PercentileAccumulateFunction {
+        public Median() {
+            super( 0.5 );
+        }
+    }
+
+    public static class Percentile90 extends PercentileAccumulateFunction {
+        public Percentile90() {
+            super( 0.9 );
+        }
+    }
+
+    public static class Percentile95 extends PercentileAccumulateFunction {
+        public Percentile95() {
+            super( 0.95 );
+        }
+    }
+
+    public static class Percentile99 extends PercentileAccumulateFunction {
+        public Percentile99() {
+            super( 0.99 );
+        }
+    }
+
+    public static class PercentileData implements Externalizable {
+        public OrderStatisticTree values = new OrderStatisticTree();
+
+        public PercentileData() {}
+
+        public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+            values = new OrderStatisticTree();
+            int distinct = in.readInt();
+            for ( int i = 0; i < distinct; i++ ) {
+                double value = in.readDouble();
+                int count = in.readInt();
+                for ( int j = 0; j < count; j++ ) {
+                    values.add( value );
+                }
+            }
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+            values.writeExternal( out );
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#createContext()
+     */
+    public Serializable createContext() {
+        return new PercentileData();
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#init(java.lang.Object)
+     */
+    public void init(Serializable context) throws Exception {
+        PercentileData data = (PercentileData) context;
+        data.values.clear();
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#accumulate(java.lang.Object, java.lang.Object)
+     */
+    public void accumulate(Serializable context,
+                           Object value) {
+        PercentileData data = (PercentileData) context;
+        data.values.add( ((Number) value).doubleValue() );
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#reverse(java.lang.Object, java.lang.Object)
+     */
+    public void reverse(Serializable context,
+                        Object value) throws Exception {
+        PercentileData data = (PercentileData) context;
+        data.values.remove( ((Number) value).doubleValue() );
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#getResult(java.lang.Object)
+     */
+    public Object getResult(Serializable context) throws Exception {
+        PercentileData data = (PercentileData) context;
+        int size = data.values.size();
+        if ( size == 0 ) {
+            return new Double( 0 );
+        }
+        double rank = percentile * ( size - 1 );
+        int lower = (int) rank;
+        double result = data.values.get( lower );
+        if ( lower + 1 < size && rank > lower ) {
+            result += ( rank - lower ) * ( data.values.get( lower + 1 ) - result );
+        }
+        return new Double( result );
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#supportsReverse()
+     */
+    public boolean supportsReverse() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Class< ? > getResultType() {
+        return Number.class;
+    }
+
+    /**
+     * A treap of doubles, where each node holds a distinct value with its number of
+     * occurrences and the total number of values in its subtree.
+     */
+    public static class OrderStatisticTree {
+        private Node root;
+        private int  seed = 0x2545F491;
+
+        public int size() {
+            return root == null ? 0 : root.size;
+        }
+
+        public void clear() {
+            root = null;
+        }
+
+        public void add(double value) {
+            root = add( root, value );
+        }
+
+        public void remove(double value) {
+            root = remove( root, value );
+        }
+
+        /**
+         * Returns the value at the given zero based rank, in ascending order
+         */
+        public double get(int rank) {
+            if ( rank < 0 || rank >= size() ) {
+                throw new IndexOutOfBoundsException( "Rank: " + rank + ", Size: " + size() );
+            }
+            Node node = root;
+            while ( true ) {
+                int leftSize = size( node.left );
+                if ( rank < leftSize ) {
+                    node = node.left;
+                } else if ( rank < leftSize + node.count ) {
+                    return node.value;
+                } else {
+                    rank -= leftSize + node.count;
+                    node = node.right;
+                }
+            }
+        }
+
+        void writeExternal(ObjectOutput out) throws IOException {
+            out.writeInt( distinct( root ) );
+            writeNode( out, root );
+        }
+
+        private static int distinct(Node node) {
+            return node == null ? 0 : 1 + distinct( node.left ) + distinct( node.right );
+        }
+
+        private static void writeNode(ObjectOutput out, Node node) throws IOException {
+            if ( node != null ) {
+                writeNode( out, node.left );
+                out.writeDouble( node.value );
+                out.writeInt( node.count );
+                writeNode( out, node.right );
+            }
+        }
+
+        private Node add(Node node, double value) {
+            if ( node == null ) {
+                return new Node( value, nextPriority() );
+            }
+            int cmp = Double.compare( value, node.value );
+            if ( cmp == 0 ) {
+                node.count++;
+                node.size++;
+                return node;
+            }
+            if ( cmp < 0 ) {
+                node.left = add( node.left, value );
+                if ( node.left.priority > node.priority ) {
+                    return rotateRight( node );
+                }
+            } else {
+                node.right = add( node.right, value );
+                if ( node.right.priority > node.priority ) {
+                    return rotateLeft( node );
+                }
+            }
+            node.update();
+            return node;
+        }
+
+        private Node remove(Node node, double value) {
+            if ( node == null ) {
+                return null;
+            }
+            int cmp = Double.compare( value, node.value );
+            if ( cmp == 0 ) {
+                if ( node.count > 1 ) {
+                    node.count--;
+                    node.size--;
+                    return node;
+                }
+                return merge( node.left, node.right );
+            }
+            if ( cmp < 0 ) {
+                node.left = remove( node.left, value );
+            } else {
+                node.right = remove( node.right, value );
+            }
+            node.update();
+            return node;
+        }
+
+        private static Node merge(Node left, Node right) {
+            if ( left == null ) {
+                return right;
+            }
+            if ( right == null ) {
+                return left;
+            }
+            if ( left.priority > right.priority ) {
+                left.right = merge( left.right, right );
+                left.update();
+                return left;
+            }
+            right.left = merge( left, right.left );
+            right.update();
+            return right;
+        }
+
+        private static Node rotateRight(Node node) {
+            Node left = node.left;
+            node.left = left.right;
+            node.update();
+            left.right = node;
+            left.update();
+            return left;
+        }
+
+        private static Node rotateLeft(Node node) {
+            Node right = node.right;
+            node.right = right.left;
+            node.update();
+            right.left = node;
+            right.update();
+            return right;
+        }
+
+        private static int size(Node node) {
+            return node == null ? 0 : node.size;
+        }
+
+        private int nextPriority() {
+            // xorshift, good enough to keep the treap balanced
+            seed ^= seed << 13;
+            seed ^= seed >>> 17;
+            seed ^= seed << 5;
+            return seed;
+        }
+
+        private static class Node {
+            private final double value;
+            private final int    priority;
+            private int          count = 1;
+            private int          size  = 1;
+            private Node         left;
+            private Node         right;
+
+            private Node(double value, int priority) {
+                this.value = value;
+                this.priority = priority;
+            }
+
+            private void update() {
+                size = count + OrderStatisticTree.size( left ) + OrderStatisticTree.size( right );
+            }
+        }
+    }
+}
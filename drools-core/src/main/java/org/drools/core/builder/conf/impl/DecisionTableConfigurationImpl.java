@@ -27,12 +27,15 @@ import org.slf4j.LoggerFactory;
 public class DecisionTableConfigurationImpl extends ResourceConfigurationImpl implements DecisionTableConfiguration {
     public static final String DROOLS_DT_TYPE = "drools.dt.type";
     public static final String DROOLS_DT_WORKSHEET = "drools.dt.worksheet";
+    public static final String DROOLS_DT_STREAMING = "drools.dt.streaming";
 
     private final Logger logger = LoggerFactory.getLogger( DecisionTableConfigurationImpl.class ); 
     
     private DecisionTableInputType inputType = DecisionTableInputType.XLS;
     
     private String worksheetName;
+
+    private boolean streaming;
     
     public DecisionTableConfigurationImpl() {
     }
@@ -52,6 +55,17 @@ public class DecisionTableConfigurationImpl extends ResourceConfigurationImpl im
     public String getWorksheetName() {
         return this.worksheetName;
     }
+
+    /**
+     * When true, xlsx spreadsheets are parsed row by row, without loading the whole workbook in memory
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    public boolean isStreaming() {
+        return this.streaming;
+    }
     
     public Properties toProperties() {
         Properties prop = super.toProperties();
@@ -59,6 +73,9 @@ public class DecisionTableConfigurationImpl extends ResourceConfigurationImpl im
         if( worksheetName != null ) {
             prop.setProperty( DROOLS_DT_WORKSHEET, worksheetName );
         }
+        if( streaming ) {
+            prop.setProperty( DROOLS_DT_STREAMING, "true" );
+        }
         return prop;
     }
 
@@ -66,6 +83,7 @@ public class DecisionTableConfigurationImpl extends ResourceConfigurationImpl im
         super.fromProperties(prop);
         inputType = DecisionTableInputType.valueOf( prop.getProperty( DROOLS_DT_TYPE, DecisionTableInputType.XLS.toString() ) );
         worksheetName = prop.getProperty( DROOLS_DT_WORKSHEET, null );
+        streaming = Boolean.parseBoolean( prop.getProperty( DROOLS_DT_STREAMING, "false" ) );
         return this;
     }
   
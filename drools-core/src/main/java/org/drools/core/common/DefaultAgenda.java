@@ -22,6 +22,7 @@ import org.drools.core.beliefsystem.ModedAssertion;
 import org.drools.core.definitions.rule.impl.RuleImpl;
 import org.drools.core.impl.InternalKnowledgeBase;
 import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.drools.core.phreak.ParallelNetworkEvaluator;
 import org.drools.core.phreak.RuleAgendaItem;
 import org.drools.core.phreak.RuleExecutor;
 import org.drools.core.phreak.StackEntry;
@@ -138,6 +139,8 @@ public class DefaultAgenda
 
     private GarbageCollector                                     garbageCollector;
 
+    private ParallelNetworkEvaluator                             parallelEvaluator;
+
     // ------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------
@@ -182,6 +185,9 @@ public class DefaultAgenda
         if (this.streamMode) {
             this.garbageCollector = new DefaultGarbageCollector();
         }
+        if ( kBase.getConfiguration().isMultithreadEvaluation() && !kBase.getConfiguration().isSequential() ) {
+            this.parallelEvaluator = new ParallelNetworkEvaluator( kBase.getConfiguration().getMaxThreads() );
+        }
     }
 
     public void readExternal(ObjectInput in) throws IOException,
@@ -275,6 +281,12 @@ public class DefaultAgenda
         return this.workingMemory;
     }
 
+    public void notifyDirtyRule(RuleAgendaItem item) {
+        if ( parallelEvaluator != null ) {
+            parallelEvaluator.notifyDirtyRule();
+        }
+    }
+
     @Override
     public void addEagerRuleAgendaItem(RuleAgendaItem item) {
         if ( workingMemory.getSessionConfiguration().getForceEagerActivationFilter().accept(item.getRule()) ) {
@@ -1010,6 +1022,9 @@ public class DefaultAgenda
                         item = (RuleAgendaItem) group.remove();
                         item.setBlocked(true);
                     }   else {
+                        if ( parallelEvaluator != null ) {
+                            parallelEvaluator.evaluate( group, this.workingMemory );
+                        }
                         item = (RuleAgendaItem) group.peek();
                     }
 
@@ -1305,13 +1320,14 @@ public class DefaultAgenda
                     log.trace("Starting fireUntilHalt");
                 }
                 while ( continueFiring( -1 ) ) {
+                    ((StatefulKnowledgeSessionImpl) this.workingMemory).flushStagedInserts();
                     boolean fired = fireNextItem( agendaFilter, 0, -1 ) > 0 ||
                                     !((StatefulKnowledgeSessionImpl) this.workingMemory).getActionQueue().isEmpty();
                     this.workingMemory.executeQueuedActions();
                     if ( !fired ) {
                         synchronized ( this.halt ) {
                             // has to check in here because a different thread might have set the halt flag already
-                            if( ! this.halt.get() ) {
+                            if( ! this.halt.get() && !((StatefulKnowledgeSessionImpl) this.workingMemory).hasStagedInserts() ) {
                                 // need to check again the agenda is still empty as a new activation
                                 // could have been created between the time it did not fire the last 
                                 // one and the synchronized block started
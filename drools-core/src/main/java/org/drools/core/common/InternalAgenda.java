@@ -291,6 +291,11 @@ public interface InternalAgenda
 
     void addAgendaItemToGroup(AgendaItem item);
 
+    /**
+     * Notifies that the network of the rule of the given item has to be evaluated again
+     */
+    void notifyDirtyRule(RuleAgendaItem item);
+
     void addEagerRuleAgendaItem(RuleAgendaItem item);
     void removeEagerRuleAgendaItem(RuleAgendaItem item);
 
@@ -21,6 +21,7 @@ import org.drools.core.WorkingMemory;
 import org.drools.core.definitions.rule.impl.RuleImpl;
 import org.drools.core.event.AgendaEventSupport;
 import org.drools.core.event.RuleRuntimeEventSupport;
+import org.drools.core.phreak.NetworkProfiler;
 import org.drools.core.reteoo.EntryPointNode;
 import org.drools.core.reteoo.ObjectTypeConf;
 import org.drools.core.rule.EntryPointId;
@@ -203,4 +204,10 @@ public interface InternalWorkingMemory
     InternalProcessRuntime getProcessRuntime();
 
     void closeLiveQuery(InternalFactHandle factHandle);
+
+    /**
+     * Returns the profiler collecting the statistics of the evaluation of the phreak
+     * network, or null if this session has not been configured to profile it.
+     */
+    NetworkProfiler getNetworkProfiler();
 }
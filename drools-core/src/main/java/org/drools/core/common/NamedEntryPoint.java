@@ -21,6 +21,7 @@ import org.drools.core.WorkingMemoryEntryPoint;
 import org.drools.core.base.TraitHelper;
 import org.drools.core.beliefsystem.BeliefSet;
 import org.drools.core.definitions.rule.impl.RuleImpl;
+import org.drools.core.facttemplates.Fact;
 import org.drools.core.factmodel.traits.TraitProxy;
 import org.drools.core.impl.InternalKnowledgeBase;
 import org.drools.core.impl.StatefulKnowledgeSessionImpl;
@@ -42,10 +43,16 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static org.drools.core.reteoo.PropertySpecificUtil.allSetButTraitBitMask;
@@ -85,6 +92,9 @@ public class NamedEntryPoint
 
     protected TraitHelper traitHelper;
 
+    /** Objects inserted through stageInsert(), waiting to be propagated into the network */
+    protected final Queue<Object> stagedInserts = new ConcurrentLinkedQueue<Object>();
+
     public NamedEntryPoint(EntryPointId entryPoint,
                            EntryPointNode entryPointNode,
                            StatefulKnowledgeSessionImpl wm) {
@@ -106,7 +116,7 @@ public class NamedEntryPoint
         this.typeConfReg = new ObjectTypeConfigurationRegistry(this.kBase);
         this.handleFactory = this.wm.getFactHandleFactory();
         this.pctxFactory = kBase.getConfiguration().getComponentFactory().getPropagationContextFactory();
-        this.objectStore = new ClassAwareObjectStore(this.kBase.getConfiguration(), this.lock);
+        this.objectStore = this.wm.getSessionConfiguration().newObjectStore(this.kBase.getConfiguration(), this.lock);
         this.traitHelper = new TraitHelper( wm, this );
     }
 
@@ -120,6 +130,8 @@ public class NamedEntryPoint
 
     public void reset() {
         this.objectStore.clear();
+        this.stagedInserts.clear();
+        this.tms = null;
     }
 
     public ObjectStore getObjectStore() {
@@ -252,6 +264,131 @@ public class NamedEntryPoint
 
     }
 
+    /**
+     * Stages the given object for insertion without taking any lock, so that the calling thread
+     * never blocks on a concurrent rule evaluation. The staged objects are inserted in batch,
+     * in staging order, at the beginning of the next fireAllRules() or of the next fireUntilHalt() cycle.
+     */
+    public void stageInsert(final Object object) {
+        if ( object == null ) {
+            return;
+        }
+        this.stagedInserts.add( object );
+        this.wm.notifyStagedInserts();
+    }
+
+    /**
+     * Inserts all the staged objects, holding the entry point lock for the whole batch.
+     */
+    public void flushStagedInserts() {
+        if ( this.stagedInserts.isEmpty() ) {
+            return;
+        }
+        List<Object> objects = new ArrayList<Object>();
+        Object object;
+        while ( (object = this.stagedInserts.poll()) != null ) {
+            objects.add( object );
+        }
+        insertAll( objects );
+    }
+
+    /**
+     * Inserts all the given objects in a single propagation cycle: the locks are taken once for the
+     * whole batch, the ObjectTypeConf is resolved once per class and the queued actions are executed
+     * and the activations unstaged only after the last object has been propagated.
+     * Objects are inserted in iteration order, so their recency is the same as inserting them one by one.
+     *
+     * @return the handles of the inserted objects, in the same order
+     */
+    public List<FactHandle> insertAll(final Collection<?> objects) {
+        return insertAll( objects,
+                          null,
+                          null );
+    }
+
+    /**
+     * Same as {@link #insertAll(Collection)}, but when called from the consequence of the given rule
+     * the activations are not unstaged, as the firing rule will unstage them.
+     */
+    public List<FactHandle> insertAll(final Collection<?> objects,
+                                      final RuleImpl rule,
+                                      final Activation activation) {
+        List<FactHandle> handles = new ArrayList<FactHandle>( objects.size() );
+        if ( objects.isEmpty() ) {
+            return handles;
+        }
+
+        try {
+            this.wm.startOperation();
+            this.lock.lock();
+            this.kBase.readLock();
+
+            this.kBase.executeQueuedActions();
+            this.wm.executeQueuedActions();
+
+            Map<Class<?>, ObjectTypeConf> typeConfs = new IdentityHashMap<Class<?>, ObjectTypeConf>();
+            for ( Object object : objects ) {
+                if ( object == null ) {
+                    // you cannot assert a null object
+                    handles.add( null );
+                    continue;
+                }
+
+                ObjectTypeConf typeConf = typeConfs.get( object.getClass() );
+                if ( typeConf == null ) {
+                    typeConf = this.typeConfReg.getObjectTypeConf( this.entryPoint,
+                                                                   object );
+                    if ( !(object instanceof Activation || object instanceof Fact) ) {
+                        typeConfs.put( object.getClass(), typeConf );
+                    }
+                }
+
+                if ( this.wm.isSequential() || typeConf.isTMSEnabled() || typeConf.isDynamic() ) {
+                    // these require the full insert, which is reentrant on the locks taken above
+                    handles.add( insert( object,
+                                         false,
+                                         rule,
+                                         activation ) );
+                    continue;
+                }
+
+                InternalFactHandle handle = this.objectStore.getHandleForObject( object );
+                if ( handle == null ) {
+                    handle = createHandle( object,
+                                           typeConf );
+                    PropagationContext propagationContext = this.pctxFactory.createPropagationContext( this.wm.getNextPropagationIdCounter(), PropagationContext.INSERTION,
+                                                                                                       rule, (activation == null) ? null : activation.getTuple(), handle, this.entryPoint );
+                    this.objectStore.addHandle( handle,
+                                                object );
+                    this.entryPointNode.assertObject( handle,
+                                                      propagationContext,
+                                                      typeConf,
+                                                      this.wm );
+
+                    propagationContext.evaluateActionQueue( this.wm );
+
+                    this.wm.getRuleRuntimeEventSupport().fireObjectInserted( propagationContext,
+                                                                             handle,
+                                                                             object,
+                                                                             this.wm );
+                }
+                handles.add( handle );
+            }
+
+            this.wm.executeQueuedActions();
+
+            if ( rule == null ) {
+                // This is not needed for internal WM actions as the firing rule will unstage
+                ((InternalAgenda) this.wm.getAgenda()).unstageActivations();
+            }
+        } finally {
+            this.kBase.readUnlock();
+            this.lock.unlock();
+            this.wm.endOperation();
+        }
+        return handles;
+    }
+
     public void insert(final InternalFactHandle handle,
                        final Object object,
                        final RuleImpl rule,
@@ -192,12 +192,12 @@ public class ProjectClassLoader extends ClassLoader {
         return defineClass(name, convertClassToResourcePath(name), bytecode);
     }
 
-    public Class<?> defineClass(String name, String resourceName, byte[] bytecode) {
+    public synchronized Class<?> defineClass(String name, String resourceName, byte[] bytecode) {
         storeClass(name, resourceName, bytecode);
         return defineType(name, bytecode);
     }
 
-    public void undefineClass(String name) {
+    public synchronized void undefineClass(String name) {
         String resourceName = convertClassToResourcePath(name);
         if (store.remove(resourceName) != null) {
             if (CACHE_NON_EXISTING_CLASSES) {
@@ -211,9 +211,10 @@ public class ProjectClassLoader extends ClassLoader {
         storeClass(name, convertClassToResourcePath(name), bytecode);
     }
 
-    public void storeClass(String name, String resourceName, byte[] bytecode) {
+    public synchronized void storeClass(String name, String resourceName, byte[] bytecode) {
         if (store == null) {
-            store = new HashMap<String, byte[]>();
+            // the KieBases of a KieContainer can be updated in parallel, so the store can be read while being written
+            store = new ConcurrentHashMap<String, byte[]>();
         }
         store.put(resourceName, bytecode);
         if (CACHE_NON_EXISTING_CLASSES) {
@@ -314,10 +315,10 @@ public class ProjectClassLoader extends ClassLoader {
         }
     }
 
-    public void initFrom(ProjectClassLoader other) {
+    public synchronized void initFrom(ProjectClassLoader other) {
         if (other.store != null) {
             if (store == null) {
-                store = new HashMap<String, byte[]>();
+                store = new ConcurrentHashMap<String, byte[]>();
             }
             store.putAll(other.store);
         }
@@ -18,10 +18,14 @@ public class ExecutorProviderImpl implements KieExecutors {
         private static final java.util.concurrent.ExecutorService executor;
 
         static {
-            executor = new ThreadPoolExecutor(0, Pool.SIZE,
-                                              60L, TimeUnit.SECONDS,
-                                              new LinkedBlockingQueue<Runnable>(),
-                                              new DaemonThreadFactory());
+            // with an unbounded queue no more than the core threads are ever started,
+            // so they all have to be core threads, allowed to time out when idle
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(Pool.SIZE, Pool.SIZE,
+                                                             60L, TimeUnit.SECONDS,
+                                                             new LinkedBlockingQueue<Runnable>(),
+                                                             new DaemonThreadFactory());
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
         }
     }
 
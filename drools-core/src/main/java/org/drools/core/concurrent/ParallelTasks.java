@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import org.kie.internal.concurrent.ExecutorProviderFactory;
+
+/**
+ * Runs a group of independent tasks on the drools executor and returns their results
+ * in the same order of the tasks.
+ *
+ * The calling thread doesn't just wait for the tasks to be completed, but also runs
+ * all the ones that no worker has started yet. This guarantees that a group of tasks
+ * always completes, even when it is invoked from a task that is already running on
+ * the executor and all its threads are busy.
+ */
+public final class ParallelTasks {
+
+    private ParallelTasks() { }
+
+    public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks) {
+        List<T> results = new ArrayList<T>(tasks.size());
+        if (tasks.size() < 2) {
+            for (Callable<T> task : tasks) {
+                try {
+                    results.add(task.call());
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            return results;
+        }
+
+        Executor executor = ExecutorProviderFactory.getExecutorProvider().getExecutor();
+        List<FutureTask<T>> futures = new ArrayList<FutureTask<T>>(tasks.size());
+        // the first task is left to the calling thread
+        for (int i = 0; i < tasks.size(); i++) {
+            FutureTask<T> future = new FutureTask<T>(tasks.get(i));
+            futures.add(future);
+            if (i > 0) {
+                executor.execute(future);
+            }
+        }
+
+        // a FutureTask does nothing if it has been already started by another thread
+        for (FutureTask<T> future : futures) {
+            future.run();
+        }
+
+        Throwable failure = null;
+        for (FutureTask<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = failure != null ? failure : e;
+            } catch (ExecutionException e) {
+                failure = failure != null ? failure : e.getCause();
+            }
+        }
+        if (failure != null) {
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw new RuntimeException(failure);
+        }
+        return results;
+    }
+}
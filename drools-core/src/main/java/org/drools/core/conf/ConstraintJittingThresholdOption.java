@@ -0,0 +1,94 @@
+package org.drools.core.conf;
+
+import org.kie.api.conf.SingleValueKieBaseOption;
+
+/**
+ * A class for the constraint JIT threshold configuration.
+ */
+public class ConstraintJittingThresholdOption implements SingleValueKieBaseOption {
+
+    private static final long serialVersionUID = 510l;
+
+    /**
+     * The property name for the constraint JIT threshold
+     */
+    public static final String PROPERTY_NAME = "drools.jittingThreshold";
+
+    /**
+     * The default value for this option
+     */
+    public static final int DEFAULT_VALUE = 20;
+
+    /**
+     * Constraints are compiled when the kbase is built, and jitted in background as soon as
+     * they are first evaluated, without waiting for any evaluation in interpreted mode
+     */
+    public static final ConstraintJittingThresholdOption EAGER = new ConstraintJittingThresholdOption( 0 );
+
+    /**
+     * Constraints are never jitted and always run in interpreted mode
+     */
+    public static final ConstraintJittingThresholdOption NEVER = new ConstraintJittingThresholdOption( -1 );
+
+    /**
+     * The number of times a constraint is evaluated in interpreted mode
+     * before being compiled to bytecode in background. A value of 0 means that the
+     * constraint is jitted eagerly, see {@link #EAGER}, while a negative value disables jitting.
+     */
+    private final int threshold;
+
+    /**
+     * Private constructor to enforce the use of the factory method
+     * @param threshold
+     */
+    private ConstraintJittingThresholdOption( int threshold ) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * This is a factory method for this constraint JIT threshold configuration.
+     * The factory method is a best practice for the case where the
+     * actual object construction is changed in the future.
+     *
+     * @param threshold the threshold value for the constraint JIT option
+     *
+     * @return the actual type safe constraint JIT threshold configuration.
+     */
+    public static ConstraintJittingThresholdOption get( int threshold ) {
+        return new ConstraintJittingThresholdOption( threshold );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    /**
+     * Returns the threshold value for constraint jitting
+     *
+     * @return
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + threshold;
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if ( this == obj ) return true;
+        if ( obj == null ) return false;
+        if ( getClass() != obj.getClass() ) return false;
+        ConstraintJittingThresholdOption other = (ConstraintJittingThresholdOption) obj;
+        if ( threshold != other.threshold ) return false;
+        return true;
+    }
+}
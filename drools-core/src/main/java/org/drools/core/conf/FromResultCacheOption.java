@@ -0,0 +1,46 @@
+package org.drools.core.conf;
+
+import org.kie.api.conf.SingleValueKieBaseOption;
+
+/**
+ * An Enum for the from result cache configuration.
+ *
+ * When enabled, the results of a <code>from</code> expression are computed only once
+ * for all the tuples propagated together that bind the same facts to the declarations
+ * used by the expression. It must only be enabled when the <code>from</code> expressions
+ * have no side effects.
+ *
+ * The results are cached only for the duration of a single evaluation of the from node,
+ * so they are shared by the tuples inserted or updated in the same batch, but are never
+ * reused across different evaluations, e.g. from one fireAllRules to the next, and then
+ * never need to be invalidated. The option is read when the from nodes are built, so
+ * changing it has no effect on the nodes already in the network.
+ */
+public enum FromResultCacheOption implements SingleValueKieBaseOption {
+
+    YES(true),
+    NO(false);
+
+    /**
+     * The property name for the from result cache configuration
+     */
+    public static final String PROPERTY_NAME = "drools.fromResultCache";
+
+    private boolean value;
+
+    FromResultCacheOption( final boolean value ) {
+        this.value = value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public boolean isFromResultCache() {
+        return this.value;
+    }
+
+}
@@ -0,0 +1,40 @@
+package org.drools.core.conf;
+
+import org.kie.api.runtime.conf.SingleValueKieSessionOption;
+
+/**
+ * An Enum for the network profiling configuration.
+ *
+ * When enabled, the session records how many times each node of the phreak network
+ * is evaluated, the time spent in it and the number of tuples it consumes and produces.
+ * The collected statistics are available through the NetworkProfiler of the session
+ * and, when the MBeans are enabled, through JMX.
+ */
+public enum NetworkProfilingOption implements SingleValueKieSessionOption {
+
+    YES(true),
+    NO(false);
+
+    /**
+     * The property name for the network profiling configuration
+     */
+    public static final String PROPERTY_NAME = "drools.networkProfiling";
+
+    private boolean value;
+
+    NetworkProfilingOption( final boolean value ) {
+        this.value = value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public boolean isNetworkProfiling() {
+        return this.value;
+    }
+
+}
@@ -0,0 +1,59 @@
+package org.drools.core.conf;
+
+import org.kie.api.runtime.conf.SingleValueKieSessionOption;
+
+/**
+ * A class option for the store keeping the facts of each entry point of a session.
+ *
+ * The store class must implement org.drools.core.common.ObjectStore and have a constructor
+ * accepting the RuleBaseConfiguration of the kbase and the Lock of the entry point.
+ */
+public class ObjectStoreOption implements SingleValueKieSessionOption {
+
+    private static final long serialVersionUID = 510l;
+
+    /**
+     * The property name for the object store configuration
+     */
+    public static final String PROPERTY_NAME = "drools.objectStore";
+
+    private final String objectStoreClassName;
+
+    private ObjectStoreOption( final String objectStoreClassName ) {
+        this.objectStoreClassName = objectStoreClassName;
+    }
+
+    /**
+     * Returns a configuration option for the given object store class
+     *
+     * @param objectStoreClassName the fully qualified name of the object store class
+     */
+    public static ObjectStoreOption get( final String objectStoreClassName ) {
+        return new ObjectStoreOption( objectStoreClassName );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public String getObjectStoreClassName() {
+        return this.objectStoreClassName;
+    }
+
+    @Override
+    public int hashCode() {
+        return objectStoreClassName == null ? 0 : objectStoreClassName.hashCode();
+    }
+
+    @Override
+    public boolean equals( Object obj ) {
+        if ( this == obj ) return true;
+        if ( obj == null || getClass() != obj.getClass() ) return false;
+        ObjectStoreOption other = (ObjectStoreOption) obj;
+        return objectStoreClassName == null ? other.objectStoreClassName == null : objectStoreClassName.equals( other.objectStoreClassName );
+    }
+
+}
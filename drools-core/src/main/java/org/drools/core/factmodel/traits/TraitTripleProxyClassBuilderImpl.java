@@ -21,7 +21,6 @@ import org.drools.core.factmodel.ClassDefinition;
 import org.drools.core.factmodel.DefaultBeanClassBuilder;
 import org.drools.core.factmodel.FieldDefinition;
 import org.drools.core.rule.builder.dialect.asm.ClassGenerator;
-import org.drools.core.util.Triple;
 import org.drools.core.util.TripleFactory;
 import org.drools.core.util.TripleStore;
 import org.drools.core.util.asm.ClassFieldInspector;
@@ -927,17 +926,18 @@ public class TraitTripleProxyClassBuilderImpl implements TraitProxyClassBuilder,
             logicalSetter( mv, field, proxy, this.trait, core, true );
         }
 
+        // store.put( object, alias, value ), without allocating a triple
         mv.visitVarInsn( ALOAD, 0 );
         mv.visitFieldInsn( GETFIELD, BuildUtils.getInternalType( proxy ), "store", Type.getDescriptor( TripleStore.class ) );
         mv.visitVarInsn( ALOAD, 0 );
+        mv.visitFieldInsn( GETFIELD, BuildUtils.getInternalType( proxy ), "object", Type.getDescriptor( core.getDefinedClass() ) );
         mv.visitLdcInsn( field.resolveAlias() );
         mv.visitVarInsn( BuildUtils.varType( type ), 1 );
         if ( BuildUtils.isPrimitive( type ) ) {
             TraitFactory.valueOf( mv, type );
         }
-        mv.visitMethodInsn( INVOKEVIRTUAL, BuildUtils.getInternalType( proxy ), "property", 
-                            "(" + Type.getDescriptor( String.class ) + Type.getDescriptor( Object.class ) + ")" + Type.getDescriptor( Triple.class ) );
-        mv.visitMethodInsn( INVOKEVIRTUAL, Type.getInternalName( TripleStore.class ), "put", "(" + Type.getDescriptor( Triple.class )+ ")Z" );
+        mv.visitMethodInsn( INVOKEVIRTUAL, Type.getInternalName( TripleStore.class ), "put",
+                            "(" + Type.getDescriptor( Object.class ) + Type.getDescriptor( Object.class ) + Type.getDescriptor( Object.class ) + ")Z" );
 
         mv.visitInsn( POP );
         mv.visitInsn( RETURN );
@@ -962,30 +962,24 @@ public class TraitTripleProxyClassBuilderImpl implements TraitProxyClassBuilder,
                 null,
                 null );
         mv.visitCode();
+        // store.getValue( object, alias ), without allocating a triple
         mv.visitVarInsn( ALOAD, 0 );
         mv.visitFieldInsn( GETFIELD, BuildUtils.getInternalType( proxy ), "store", Type.getDescriptor( TripleStore.class ) );
         mv.visitVarInsn( ALOAD, 0 );
+        mv.visitFieldInsn( GETFIELD, BuildUtils.getInternalType( proxy ), "object", Type.getDescriptor( core.getDefinedClass() ) );
         mv.visitLdcInsn( field.resolveAlias() );
-
-        mv.visitMethodInsn( INVOKEVIRTUAL, BuildUtils.getInternalType( proxy ), "propertyKey", 
-                            "(" + Type.getDescriptor( String.class ) + ")" + Type.getDescriptor( Triple.class ) );
-        mv.visitMethodInsn( INVOKEVIRTUAL, Type.getInternalName( TripleStore.class ), "get", 
-                            "(" + Type.getDescriptor( Triple.class ) + ")" + Type.getDescriptor( Triple.class ) );
+        mv.visitMethodInsn( INVOKEVIRTUAL, Type.getInternalName( TripleStore.class ), "getValue",
+                            "(" + Type.getDescriptor( Object.class ) + Type.getDescriptor( Object.class ) + ")" + Type.getDescriptor( Object.class ) );
 
         String actualType = BuildUtils.isPrimitive( type ) ? BuildUtils.box( type ) : type;
 
+        // a missing value is null, so it fails the instanceof check too
         mv.visitVarInsn( ASTORE, 1 );
         mv.visitVarInsn( ALOAD, 1 );
-        Label l0 = new Label();
-        mv.visitJumpInsn( IFNULL, l0 );
-        mv.visitVarInsn( ALOAD, 1 );
-        mv.visitMethodInsn( INVOKEINTERFACE, Type.getInternalName( Triple.class ), "getValue", "()" + Type.getDescriptor( Object.class ) );
-        mv.visitVarInsn( ASTORE, 2 );
-        mv.visitVarInsn( ALOAD, 2 );
         mv.visitTypeInsn( INSTANCEOF, BuildUtils.getInternalType( actualType ) );
         Label l1 = new Label();
         mv.visitJumpInsn( IFEQ, l1 );
-        mv.visitVarInsn( ALOAD, 2 );
+        mv.visitVarInsn( ALOAD, 1 );
         mv.visitTypeInsn( CHECKCAST, BuildUtils.getInternalType( actualType ) );
 
         if ( BuildUtils.isPrimitive( type ) ) {
@@ -994,17 +988,11 @@ public class TraitTripleProxyClassBuilderImpl implements TraitProxyClassBuilder,
             mv.visitLabel( l1 );
             mv.visitInsn( BuildUtils.zero( type ) );
             mv.visitInsn( BuildUtils.returnType( type ) );
-            mv.visitLabel( l0 );
-            mv.visitInsn( BuildUtils.zero( type ) );
-            mv.visitInsn( BuildUtils.returnType( type ) );
         } else {
             mv.visitInsn( ARETURN );
             mv.visitLabel( l1 );
             mv.visitInsn( ACONST_NULL );
             mv.visitInsn( ARETURN );
-            mv.visitLabel( l0 );
-            mv.visitInsn( ACONST_NULL );
-            mv.visitInsn( ARETURN );
         }
 //        mv.visitMaxs( 3, 2 );
         mv.visitMaxs( 0, 0 );
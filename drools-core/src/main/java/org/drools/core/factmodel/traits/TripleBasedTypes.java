@@ -66,16 +66,9 @@ public class TripleBasedTypes extends TripleBasedStruct {
 
 
     public Object get( Object key ) {
-        Triple t = store.get( tripleFactory.newTriple( key, TripleStore.PROXY, Variable.v ) );
-        while ( t != null ) {
-            Object o = t.getValue();
-            if ( o instanceof TraitProxy && (( TraitProxy ) o ).getObject() == this.object ) {
-                return o;
-            } else {
-                t = (Triple) t.getNext();
-            }
-        }
-        return null;
+        // the proxies of all the cores holding this trait share the trait name as subject
+        Triple t = getProxyTripleByTraitType( key );
+        return t != null ? t.getValue() : null;
     }
 
 
@@ -185,7 +178,7 @@ public class TripleBasedTypes extends TripleBasedStruct {
     public Triple getProxyTripleByTraitType( Object key ) {
         Collection<Triple> candidates = store.getAll( tripleFactory.newTriple( key, TripleStore.PROXY, Variable.v ) );
         for ( Triple t : candidates ) {
-            if ( ((TraitProxy) t.getValue() ).getObject() == object ) {
+            if ( t.getValue() instanceof TraitProxy && ( (TraitProxy) t.getValue() ).getObject() == object ) {
                 return t;
             }
         }
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.drools.core.ClockType;
+import org.drools.core.QueryResultsImpl;
+import org.drools.core.SessionConfiguration;
+import org.drools.core.marshalling.impl.ClassObjectMarshallingStrategyAcceptor;
+import org.drools.core.marshalling.impl.MarshallingConfigurationImpl;
+import org.drools.core.marshalling.impl.ProtobufMarshaller;
+import org.drools.core.marshalling.impl.SerializablePlaceholderResolverStrategy;
+import org.kie.api.marshalling.ObjectMarshallingStrategy;
+
+/**
+ * An immutable view of the state of a stateful session, taken at a given point in time,
+ * on which queries can be run concurrently without locking the session it was taken from.
+ *
+ * The session, facts included, is serialized once while it is locked, and each reader
+ * lazily unmarshalls its own replica from these bytes, so that readers neither contend with
+ * the firing thread nor with each other. Immutable means that nothing done to the original
+ * session after the snapshot is taken is visible through it: the facts returned by the queries
+ * are copies, deserialized for each replica, so later changes to the original facts, either
+ * notified to the session or not, don't affect the snapshot. For the same reason all the facts
+ * in the session must be serializable. Changing a fact returned by a query on the snapshot
+ * only affects the replica that returned it and is never propagated.
+ *
+ * The replicas use a pseudo clock that is never advanced, so no timer can ever change their
+ * state. For a session using the pseudo clock, the replicas clock is at the time of the snapshot.
+ * The time of a session using the realtime clock is not part of its serialized state, so the
+ * replicas clock starts at 0: queries on the snapshot of such a session should not depend on
+ * the current time.
+ */
+public class SessionSnapshot {
+
+    private final InternalKnowledgeBase kBase;
+
+    private final ProtobufMarshaller marshaller;
+
+    private final SessionConfiguration conf;
+
+    private final byte[] state;
+
+    private final long timestamp;
+
+    private final Queue<StatefulKnowledgeSessionImpl> replicas = new ConcurrentLinkedQueue<StatefulKnowledgeSessionImpl>();
+
+    private volatile boolean disposed;
+
+    SessionSnapshot(StatefulKnowledgeSessionImpl session) {
+        this.kBase = session.getKnowledgeBase();
+        SerializablePlaceholderResolverStrategy strategy = new SerializablePlaceholderResolverStrategy( ClassObjectMarshallingStrategyAcceptor.DEFAULT );
+        this.marshaller = new ProtobufMarshaller( kBase,
+                                                  new MarshallingConfigurationImpl( new ObjectMarshallingStrategy[] { strategy }, false, false ) );
+
+        this.conf = new SessionConfiguration( kBase.getRootClassLoader() );
+        this.conf.setClockType( ClockType.PSEUDO_CLOCK );
+        this.conf.setKeepReference( false );
+        this.conf.setOption( session.getSessionConfiguration().getQueryListenerOption() );
+
+        // the time is read under the same lock the marshaller takes, so that it is the time of the marshalled state
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        session.getLock().lock();
+        try {
+            this.timestamp = session.getSessionClock().getCurrentTime();
+            marshaller.marshall( out, session, timestamp );
+        } catch ( IOException e ) {
+            throw new RuntimeException( "Unable to take a snapshot of session " + session.getIdentifier(), e );
+        } finally {
+            session.getLock().unlock();
+        }
+        this.state = out.toByteArray();
+    }
+
+    /**
+     * Runs the given query against this snapshot. It can be safely invoked by many threads
+     * at the same time, and while the original session keeps on firing rules.
+     */
+    public QueryResultsImpl getQueryResults(String queryName, Object... arguments) {
+        if ( disposed ) {
+            throw new IllegalStateException( "Cannot run a query on a snapshot that has been disposed" );
+        }
+        StatefulKnowledgeSessionImpl replica = replicas.poll();
+        if ( replica == null ) {
+            replica = newReplica();
+        }
+        try {
+            return replica.getQueryResults( queryName, arguments );
+        } finally {
+            release( replica );
+        }
+    }
+
+    /**
+     * @return the time of the clock of the original session when this snapshot was taken
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Disposes the replicas of this snapshot. The ones still in use are disposed
+     * as soon as their query is over.
+     */
+    public void dispose() {
+        disposed = true;
+        for ( StatefulKnowledgeSessionImpl replica = replicas.poll(); replica != null; replica = replicas.poll() ) {
+            replica.dispose();
+        }
+    }
+
+    private void release(StatefulKnowledgeSessionImpl replica) {
+        replicas.offer( replica );
+        // the snapshot was disposed while the query was running
+        if ( disposed && replicas.remove( replica ) ) {
+            replica.dispose();
+        }
+    }
+
+    private StatefulKnowledgeSessionImpl newReplica() {
+        try {
+            return (StatefulKnowledgeSessionImpl) marshaller.unmarshall( new ByteArrayInputStream( state ),
+                                                                         conf,
+                                                                         EnvironmentFactory.newEnvironment() );
+        } catch ( Exception e ) {
+            throw new RuntimeException( "Unable to restore a session snapshot", e );
+        }
+    }
+}
@@ -66,6 +66,7 @@ import org.drools.core.marshalling.impl.MarshallerWriteContext;
 import org.drools.core.marshalling.impl.ObjectMarshallingStrategyStoreImpl;
 import org.drools.core.marshalling.impl.PersisterHelper;
 import org.drools.core.marshalling.impl.ProtobufMessages;
+import org.drools.core.phreak.NetworkProfiler;
 import org.drools.core.phreak.RuleAgendaItem;
 import org.drools.core.phreak.RuleExecutor;
 import org.drools.core.phreak.SegmentUtilities;
@@ -218,6 +219,9 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
 
     protected AtomicBoolean evaluatingActionQueue;
 
+    /** Set when an entry point has objects staged for insertion */
+    private final AtomicBoolean hasStagedInserts = new AtomicBoolean(false);
+
     protected ReentrantLock lock;
 
     /**
@@ -258,6 +262,8 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
 
     private InternalProcessRuntime processRuntime;
 
+    private NetworkProfiler networkProfiler;
+
     private Map<String, Object> runtimeServices;
 
     private transient ObjectMarshallingStrategyStore marshallingStore;
@@ -265,6 +271,13 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
 
     private boolean alive = true;
 
+    /** The pool this session is released to when disposed, if any */
+    private StatefulSessionPool pool;
+
+    // the listeners registered when the session joined its pool, kept when it is reset
+    private List<RuleRuntimeEventListener> pooledRuleRuntimeEventListeners;
+    private List<AgendaEventListener>      pooledAgendaEventListeners;
+
     // ------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------
@@ -397,6 +410,10 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
 
         this.processRuntime = createProcessRuntime();
 
+        if (config.isNetworkProfiling()) {
+            this.networkProfiler = new NetworkProfiler();
+        }
+
         if (initInitFactHandle) {
             initInitialFact(kBase, null);
         }
@@ -491,6 +508,11 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
     }
 
     public void dispose() {
+        if (pool != null) {
+            pool.release(this);
+            return;
+        }
+
         if (logger != null) {
             try {
                 logger.close();
@@ -833,6 +855,15 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
         }
     }
 
+    /**
+     * Takes an immutable snapshot of the current state of this session, against which
+     * read-only queries can be run from other threads without serializing behind
+     * the rule firing of this session.
+     */
+    public SessionSnapshot newSessionSnapshot() {
+        return new SessionSnapshot( this );
+    }
+
     private InternalViewChangedEventListener getQueryListenerInstance() {
         switch ( this.config.getQueryListenerOption() ) {
             case STANDARD :
@@ -1052,6 +1083,101 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
         return this.config;
     }
 
+    public StatefulSessionPool getPool() {
+        return pool;
+    }
+
+    void setPool(StatefulSessionPool pool) {
+        this.pool = pool;
+        if (pool != null) {
+            this.pooledRuleRuntimeEventListeners = new ArrayList<RuleRuntimeEventListener>(this.ruleRuntimeEventSupport.getEventListeners());
+            this.pooledAgendaEventListeners = new ArrayList<AgendaEventListener>(this.agendaEventSupport.getEventListeners());
+        } else {
+            this.pooledRuleRuntimeEventListeners = null;
+            this.pooledAgendaEventListeners = null;
+        }
+    }
+
+    /**
+     * Marks this pooled session as handed out by its pool, or as returned to it. A session
+     * returned to its pool rejects any operation until it is handed out again.
+     */
+    void setPooledSessionInUse(boolean inUse) {
+        this.alive = inUse;
+    }
+
+    /**
+     * Resets this session to the state it had when it joined its pool, removing the
+     * event listeners, channels and work item handlers added since then. The session
+     * is left unusable until it is handed out again by the pool.
+     */
+    void resetPooledSession() {
+        // reject the operations of the previous borrower from now on
+        alive = false;
+
+        for (RuleRuntimeEventListener listener : this.ruleRuntimeEventSupport.getEventListeners()) {
+            if (!this.pooledRuleRuntimeEventListeners.contains(listener)) {
+                this.ruleRuntimeEventSupport.removeEventListener(listener);
+            }
+        }
+        for (AgendaEventListener listener : this.agendaEventSupport.getEventListeners()) {
+            if (!this.pooledAgendaEventListeners.contains(listener)) {
+                this.agendaEventSupport.removeEventListener(listener);
+            }
+        }
+        for (KieBaseEventListener listener : this.kieBaseEventListeners) {
+            this.kBase.removeEventListener(listener);
+        }
+
+        if (this.channels != null) {
+            this.channels.clear();
+        }
+        // the work item handlers configured for the session are registered again when the manager is recreated
+        if (this.workItemManager != null) {
+            ((org.drools.core.process.instance.WorkItemManager)this.workItemManager).dispose();
+            this.workItemManager = null;
+        }
+
+        if (actionQueue != null) {
+            actionQueue.clear();
+        }
+
+        // remove the property change listeners before the memories holding the facts are cleared
+        for (WorkingMemoryEntryPoint ep : this.entryPoints.values()) {
+            ep.dispose();
+        }
+
+        if (nodeMemories != null) {
+            nodeMemories.resetAllMemories(this);
+        }
+
+        ((DefaultAgenda)this.agenda).reset();
+
+        this.globalResolver.clear();
+        this.kieBaseEventListeners.clear();
+        this.handleFactory.clear( 0, 0 );
+        this.propagationIdCounter.set( 0 );
+        this.opCounter.set( 0 );
+        this.lastIdleTimestamp.set( -1 );
+
+        // the entry points are cleared in place, keeping the object type configurations they already built
+        for (WorkingMemoryEntryPoint ep : this.entryPoints.values()) {
+            ((InternalWorkingMemoryEntryPoint) ep).reset();
+        }
+        updateEntryPointsCache();
+
+        // the jobs of the old timer service are discarded together with the facts they refer to
+        timerService.shutdown();
+        timerService = TimerServiceFactory.getTimerService(this.config);
+        ((AcceptsTimerJobFactoryManager) timerService).setTimerJobFactoryManager( config.getTimerJobFactoryManager() );
+
+        if (this.processRuntime != null) {
+            this.processRuntime = createProcessRuntime();
+        }
+
+        initInitialFact(kBase, null);
+    }
+
     public void reset() {
         if (actionQueue != null) {
             actionQueue.clear();
@@ -1312,6 +1438,8 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
         try {
             kBase.readLock();
 
+            flushStagedInserts();
+
             // do we need to call this in advance?
             executeQueuedActions();
 
@@ -1592,6 +1720,54 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
         }
     }
 
+    public void notifyStagedInserts() {
+        // only the first staged object since the last flush needs to wake up a waiting fireUntilHalt
+        if ( this.hasStagedInserts.compareAndSet( false,
+                                                  true ) ) {
+            this.agenda.notifyHalt();
+        }
+    }
+
+    public boolean hasStagedInserts() {
+        return this.hasStagedInserts.get();
+    }
+
+    /**
+     * Inserts the objects staged on all the entry points. This is called only at the beginning of
+     * fireAllRules() and of each fireUntilHalt() cycle, never while a rule consequence is executing.
+     */
+    public void flushStagedInserts() {
+        // reset the flag before draining, so objects staged meanwhile are caught by the next flush
+        if ( !this.hasStagedInserts.compareAndSet( true,
+                                                   false ) ) {
+            return;
+        }
+        for ( WorkingMemoryEntryPoint ep : this.entryPoints.values() ) {
+            if ( ep instanceof NamedEntryPoint ) {
+                ((NamedEntryPoint) ep).flushStagedInserts();
+            }
+        }
+    }
+
+    public void stageInsert(final Object object) {
+        checkAlive();
+        this.defaultEntryPoint.stageInsert( object );
+    }
+
+    public List<FactHandle> insertAll(final Collection<?> objects) {
+        checkAlive();
+        return this.defaultEntryPoint.insertAll( objects );
+    }
+
+    public List<FactHandle> insertAll(final Collection<?> objects,
+                                      final RuleImpl rule,
+                                      final Activation activation) {
+        checkAlive();
+        return this.defaultEntryPoint.insertAll( objects,
+                                                 rule,
+                                                 activation );
+    }
+
     public Queue<WorkingMemoryAction> getActionQueue() {
         return actionQueue;
     }
@@ -2135,6 +2311,10 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
         return result;
     }
 
+    public NetworkProfiler getNetworkProfiler() {
+        return networkProfiler;
+    }
+
     /**
      * This method must be called before starting any new work in the engine,
      * like inserting a new fact or firing a new rule. It will reset the engine
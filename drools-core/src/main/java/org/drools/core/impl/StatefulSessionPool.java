@@ -0,0 +1,126 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.impl;
+
+import java.util.Collections;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A pool of stateful sessions sharing the same KieBase and configuration.
+ *
+ * Disposing a session taken from the pool doesn't actually dispose it, but resets it
+ * and makes it available again, keeping its node memories, agenda and entry points.
+ * The sessions are really disposed only when the pool is shut down.
+ *
+ * A session can be used only while it is borrowed: once returned to the pool it rejects
+ * any operation until it is handed out again, and disposing it again has no effect.
+ */
+public class StatefulSessionPool {
+
+    /**
+     * Creates the sessions of a pool, already wired with the listeners and work item
+     * handlers that have to survive their reset
+     */
+    public interface SessionFactory {
+        StatefulKnowledgeSessionImpl newSession();
+    }
+
+    private final SessionFactory factory;
+
+    private final Queue<StatefulKnowledgeSessionImpl> sessions = new ConcurrentLinkedQueue<StatefulKnowledgeSessionImpl>();
+
+    private final Set<StatefulKnowledgeSessionImpl> borrowed = Collections.newSetFromMap(new ConcurrentHashMap<StatefulKnowledgeSessionImpl, Boolean>());
+
+    private volatile boolean alive = true;
+
+    public StatefulSessionPool(SessionFactory factory, int initialSize) {
+        this.factory = factory;
+        for (int i = 0; i < initialSize; i++) {
+            StatefulKnowledgeSessionImpl session = createSession();
+            session.setPooledSessionInUse(false);
+            sessions.offer(session);
+        }
+    }
+
+    /**
+     * Returns a session from the pool, or a new one if all of them are in use
+     */
+    public StatefulKnowledgeSessionImpl get() {
+        if (!alive) {
+            throw new IllegalStateException("Cannot take a session from a pool that has been shut down");
+        }
+        StatefulKnowledgeSessionImpl session = sessions.poll();
+        if (session == null) {
+            session = createSession();
+        }
+        session.setPooledSessionInUse(true);
+        borrowed.add(session);
+        return session;
+    }
+
+    void release(StatefulKnowledgeSessionImpl session) {
+        if (!borrowed.remove(session)) {
+            // already returned to the pool
+            return;
+        }
+        if (alive) {
+            session.resetPooledSession();
+            sessions.offer(session);
+            if (alive) {
+                return;
+            }
+            // the pool was shut down while the session was being released
+            if (!sessions.remove(session)) {
+                return;
+            }
+        }
+        session.setPool(null);
+        session.dispose();
+    }
+
+    /**
+     * Disposes the sessions available in the pool. The ones still in use are disposed
+     * as soon as they are released.
+     */
+    public void shutdown() {
+        alive = false;
+        for (StatefulKnowledgeSessionImpl session = sessions.poll(); session != null; session = sessions.poll()) {
+            session.setPool(null);
+            session.dispose();
+        }
+    }
+
+    public boolean isAlive() {
+        return alive;
+    }
+
+    /**
+     * @return the number of sessions available in the pool
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    private StatefulKnowledgeSessionImpl createSession() {
+        StatefulKnowledgeSessionImpl session = factory.newSession();
+        session.setPool(this);
+        return session;
+    }
+}
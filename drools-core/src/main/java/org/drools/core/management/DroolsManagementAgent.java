@@ -115,6 +115,17 @@ public class DroolsManagementAgent
         } catch ( Exception e ) {
             logger.error("Unable to instantiate and register KieSessionMonitoringMBean");
         }
+        if ( ksession.getNetworkProfiler() != null ) {
+            NetworkProfilerMonitor profilerMBean = new NetworkProfilerMonitor( ksession );
+            try {
+                final StandardMBean adapter = new StandardMBean( profilerMBean, NetworkProfilerMXBean.class, true );
+                registerMBean( ksession,
+                               adapter,
+                               profilerMBean.getName() );
+            } catch ( Exception e ) {
+                logger.error("Unable to instantiate and register NetworkProfilerMXBean", e);
+            }
+        }
     }
 
     public void unregisterKnowledgeSession(InternalWorkingMemory ksession) {
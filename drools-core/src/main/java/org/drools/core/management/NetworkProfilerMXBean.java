@@ -0,0 +1,57 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.management;
+
+import org.drools.core.phreak.NetworkProfiler.NodeStats;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * An MXBean to inspect the statistics collected by the NetworkProfiler of a session
+ */
+public interface NetworkProfilerMXBean {
+
+    /**
+     * Returns the number of nodes evaluated since the profiler was started or reset
+     */
+    int getNodeCount();
+
+    long getTotalInvocations();
+
+    /**
+     * Returns the time spent evaluating all the nodes, in milliseconds
+     */
+    long getTotalTime();
+
+    /**
+     * Returns the statistics of each node, starting from the ones where most of the
+     * time has been spent
+     */
+    List<NodeStats> getNodes();
+
+    String getReport();
+
+    /**
+     * Writes the report in the given file, overwriting it if it already exists
+     */
+    void dumpReport(String fileName) throws IOException;
+
+    void reset();
+
+}
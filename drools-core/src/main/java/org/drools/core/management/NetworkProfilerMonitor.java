@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.management;
+
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.phreak.NetworkProfiler;
+import org.drools.core.phreak.NetworkProfiler.NodeStats;
+import org.drools.core.util.IoUtils;
+
+import javax.management.ObjectName;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The monitor MXBean for the NetworkProfiler of a knowledge session
+ */
+public class NetworkProfilerMonitor implements NetworkProfilerMXBean {
+
+    private static final String KSESSION_PREFIX = "org.drools.kbases";
+
+    private NetworkProfiler profiler;
+    private ObjectName name;
+
+    public NetworkProfilerMonitor(InternalWorkingMemory ksession) {
+        this.profiler = ksession.getNetworkProfiler();
+        this.name = DroolsManagementAgent.createObjectName(KSESSION_PREFIX + ":type="+ksession.getKnowledgeBase().getId()+",group=Sessions,sessionId=Session-"+ksession.getId()+",component=NetworkProfiler");
+    }
+
+    public ObjectName getName() {
+        return name;
+    }
+
+    public int getNodeCount() {
+        return profiler.getNodeStats().size();
+    }
+
+    public long getTotalInvocations() {
+        long total = 0;
+        for ( NodeStats nodeStats : profiler.getNodeStats() ) {
+            total += nodeStats.getInvocations();
+        }
+        return total;
+    }
+
+    public long getTotalTime() {
+        long total = 0;
+        for ( NodeStats nodeStats : profiler.getNodeStats() ) {
+            total += nodeStats.getTotalTime();
+        }
+        return TimeUnit.NANOSECONDS.toMillis( total );
+    }
+
+    public List<NodeStats> getNodes() {
+        return profiler.getNodeStats();
+    }
+
+    public String getReport() {
+        return profiler.getReport();
+    }
+
+    public void dumpReport(String fileName) throws IOException {
+        Writer writer = new OutputStreamWriter( new FileOutputStream( fileName ), IoUtils.UTF8_CHARSET );
+        try {
+            profiler.dumpReport( writer );
+        } finally {
+            writer.close();
+        }
+    }
+
+    public void reset() {
+        profiler.reset();
+    }
+
+}
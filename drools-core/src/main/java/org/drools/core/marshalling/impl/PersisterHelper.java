@@ -18,6 +18,7 @@ package org.drools.core.marshalling.impl;
 
 import com.google.protobuf.ByteString;
 import com.google.protobuf.ByteString.Output;
+import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.ExtensionRegistry;
 import com.google.protobuf.Message;
 import org.drools.core.beliefsystem.simple.BeliefSystemLogicalCallback;
@@ -36,7 +37,6 @@ import org.drools.core.util.KeyStoreHelper;
 import org.kie.api.marshalling.ObjectMarshallingStrategy;
 import org.kie.api.marshalling.ObjectMarshallingStrategy.Context;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.InvalidKeyException;
@@ -197,13 +197,15 @@ public class PersisterHelper {
         
         writeStrategiesIndex( context, _header );
         
-        byte[] buff = payload.toByteArray();
+        // the payload is serialized straight into a ByteString and the header is written
+        // to the stream through a buffer, so that the session is never copied twice in memory
+        ByteString buff = payload.toByteString();
         sign( _header, buff );
-        _header.setPayload( ByteString.copyFrom( buff ) );
+        _header.setPayload( buff );
 
 //        LoggerFactory.getLogger(PersisterHelper.class).trace("=============================================================================================================");
 //        LoggerFactory.getLogger(PersisterHelper.class).trace(payload);
-        context.stream.write( _header.build().toByteArray() );
+        _header.build().writeTo( context.stream );
     }
     
     private static void writeStrategiesIndex(MarshallerWriteContext context,
@@ -224,13 +226,13 @@ public class PersisterHelper {
     }
 
     private static void sign(ProtobufMessages.Header.Builder _header,
-                             byte[] buff ) {
+                             ByteString buff ) {
         KeyStoreHelper helper = new KeyStoreHelper();
         if (helper.isSigned()) {
             try {
                 _header.setSignature( ProtobufMessages.Signature.newBuilder()
                                       .setKeyAlias( helper.getPvtKeyAlias() )
-                                      .setSignature( ByteString.copyFrom( helper.signDataWithPrivateKey( buff ) ) )
+                                      .setSignature( ByteString.copyFrom( helper.signDataWithPrivateKey( buff.toByteArray() ) ) )
                                       .build() );
             } catch (Exception e) {
                 throw new RuntimeException( "Error signing session: " + e.getMessage(),
@@ -242,36 +244,33 @@ public class PersisterHelper {
     private static ProtobufMessages.Header loadStrategiesCheckSignature(MarshallerReaderContext context, ProtobufMessages.Header _header) throws ClassNotFoundException, IOException {
         loadStrategiesIndex( context, _header );
 
-        byte[] sessionbuff = _header.getPayload().toByteArray();
-
         // should we check version as well here?
-        checkSignature( _header, sessionbuff );
+        checkSignature( _header, _header.getPayload() );
         
         return _header;
     }
 
-    public static ProtobufMessages.Header readFromStreamWithHeaderPreloaded( MarshallerReaderContext context, ExtensionRegistry registry ) throws IOException, ClassNotFoundException {
-        // we preload the stream into a byte[] to overcome a message size limit
-        // imposed by protobuf as per https://issues.jboss.org/browse/DROOLS-25
-        byte[] preloaded = preload(context.stream);
-        ProtobufMessages.Header _header = ProtobufMessages.Header.parseFrom( preloaded, registry );
+    public static ProtobufMessages.Header readFromStreamWithHeader( MarshallerReaderContext context, ExtensionRegistry registry ) throws IOException, ClassNotFoundException {
+        // the header is parsed straight from the stream, lifting the message size limit
+        // imposed by protobuf as per https://issues.jboss.org/browse/DROOLS-25 instead of
+        // preloading the whole stream into a byte[]
+        ProtobufMessages.Header _header = ProtobufMessages.Header.parseFrom( newUnlimitedInput( context.stream ), registry );
 
         return loadStrategiesCheckSignature(context, _header);
     }
-    
-    /* Method that preloads the source stream into a byte array to bypass the message size limitations in Protobuf unmarshalling.
-       (Protobuf does not enforce a message size limit when unmarshalling from a byte array)
-    */
-    private static byte[] preload(InputStream stream) throws IOException {
-        byte[] buf = new byte[4096];
-        ByteArrayOutputStream preloaded = new ByteArrayOutputStream();
 
-        int read;
-        while((read = stream.read(buf)) != -1) {
-            preloaded.write(buf, 0, read);
-        }
+    /**
+     * @deprecated the stream is no longer preloaded, use {@link #readFromStreamWithHeader(MarshallerReaderContext, ExtensionRegistry)}
+     */
+    @Deprecated
+    public static ProtobufMessages.Header readFromStreamWithHeaderPreloaded( MarshallerReaderContext context, ExtensionRegistry registry ) throws IOException, ClassNotFoundException {
+        return readFromStreamWithHeader( context, registry );
+    }
 
-        return preloaded.toByteArray();
+    private static CodedInputStream newUnlimitedInput(InputStream stream) {
+        CodedInputStream input = CodedInputStream.newInstance( stream );
+        input.setSizeLimit( Integer.MAX_VALUE );
+        return input;
     }
 
 	private static void loadStrategiesIndex(MarshallerReaderContext context,
@@ -297,7 +296,7 @@ public class PersisterHelper {
     }
 
     private static void checkSignature(Header _header,
-                                       byte[] sessionbuff) {
+                                       ByteString sessionbuff) {
         KeyStoreHelper helper = new KeyStoreHelper();
         boolean signed = _header.hasSignature();
         if ( helper.isSigned() != signed ) {
@@ -312,7 +311,7 @@ public class PersisterHelper {
             }
             try {
                 if ( !helper.checkDataWithPublicKey( _header.getSignature().getKeyAlias(),
-                                                     sessionbuff,
+                                                     sessionbuff.toByteArray(),
                                                      _header.getSignature().getSignature().toByteArray() ) ) {
                     throw new RuntimeException( "Signature does not match serialized package. This is a security violation. Deserialisation aborted." );
                 }
@@ -201,7 +201,7 @@ public class ProtobufInputMarshaller {
                                                                                                          ClassNotFoundException {
         ExtensionRegistry registry = PersisterHelper.buildRegistry( context, processMarshaller );
 
-        ProtobufMessages.Header _header = PersisterHelper.readFromStreamWithHeaderPreloaded( context, registry );
+        ProtobufMessages.Header _header = PersisterHelper.readFromStreamWithHeader( context, registry );
 
         return ProtobufMessages.KnowledgeSession.parseFrom( _header.getPayload(), registry );
     }
@@ -136,6 +136,9 @@ public class ProtobufOutputMarshaller {
                 }
             }
 
+            // staged inserts aren't part of the serialized state, so propagate them first
+            wm.flushStagedInserts();
+
             ((InternalAgenda)wm.getAgenda()).unstageActivations();
 
             evaluateRuleActivations( wm );
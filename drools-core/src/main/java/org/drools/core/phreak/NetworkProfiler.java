@@ -0,0 +1,299 @@
+package org.drools.core.phreak;
+
+import org.drools.core.common.LeftTupleSets;
+import org.drools.core.common.Memory;
+import org.drools.core.common.NetworkNode;
+import org.drools.core.reteoo.AccumulateNode.AccumulateMemory;
+import org.drools.core.reteoo.BetaMemory;
+import org.drools.core.reteoo.FromNode.FromMemory;
+import org.drools.core.reteoo.NodeTypeEnums;
+import org.kie.api.definition.rule.Rule;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects, for each node of the phreak network evaluated by a session, the number of
+ * times it has been evaluated, the time spent evaluating it, the number of tuples it has
+ * consumed and produced and the size of its memory after the last evaluation.
+ *
+ * The alpha nodes are profiled too: each evaluation is the check of a single fact against
+ * the node's constraint, not including the propagation to its children, and the fact counts
+ * as the consumed tuple and, if it matches, as the produced one. The alpha nodes resolved
+ * through the hashed lookup of an ObjectType or alpha node are not evaluated, so they
+ * aren't profiled either.
+ *
+ * It is only created when the session is configured with the NetworkProfilingOption, so
+ * that the RuleNetworkEvaluator takes no timings at all when profiling is disabled.
+ * The statistics can be read at any time, also from other threads, but they may not
+ * reflect the evaluations still in progress.
+ */
+public class NetworkProfiler {
+
+    private volatile NodeStats[] stats = new NodeStats[64];
+
+    private volatile long startTime = System.currentTimeMillis();
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Returns the number of tuples that the given node is going to consume: the staged left
+     * tuples and, for the beta nodes, also the staged right tuples.
+     */
+    public int countInput(NetworkNode node, Memory nodeMem, LeftTupleSets srcTuples) {
+        int count = size(srcTuples);
+        BetaMemory bm = getBetaMemory(nodeMem);
+        if (bm != null && NodeTypeEnums.isBetaNode(node)) {
+            count += bm.getStagedRightTuples().insertSize() +
+                     bm.getStagedRightTuples().deleteSize() +
+                     bm.getStagedRightTuples().updateSize();
+        }
+        return count;
+    }
+
+    public void record(NetworkNode node, Memory nodeMem, long start, int tuplesIn, LeftTupleSets trgTuples) {
+        record(node, System.nanoTime() - start, tuplesIn, size(trgTuples), getMemorySize(nodeMem));
+    }
+
+    /**
+     * Records the evaluation of the constraint of an alpha node against a single fact
+     */
+    public void recordAlpha(NetworkNode node, long start, boolean allowed) {
+        record(node, System.nanoTime() - start, 1, allowed ? 1 : 0, -1);
+    }
+
+    private void record(NetworkNode node, long elapsed, int tuplesIn, int tuplesOut, long memorySize) {
+        NodeStats nodeStats = getNodeStats(node);
+        synchronized (nodeStats) {
+            nodeStats.invocations++;
+            nodeStats.totalTime += elapsed;
+            nodeStats.tuplesIn += tuplesIn;
+            nodeStats.tuplesOut += tuplesOut;
+            nodeStats.memorySize = memorySize;
+        }
+    }
+
+    private NodeStats getNodeStats(NetworkNode node) {
+        int id = node.getId();
+        NodeStats[] current = stats;
+        NodeStats nodeStats = id < current.length ? current[id] : null;
+        if (nodeStats == null) {
+            synchronized (this) {
+                current = stats;
+                if (id >= current.length) {
+                    NodeStats[] grown = new NodeStats[Math.max(id + 1, current.length * 2)];
+                    System.arraycopy(current, 0, grown, 0, current.length);
+                    current = grown;
+                }
+                nodeStats = current[id];
+                if (nodeStats == null) {
+                    nodeStats = new NodeStats(node);
+                    current[id] = nodeStats;
+                }
+                stats = current;
+            }
+        }
+        return nodeStats;
+    }
+
+    private static int size(LeftTupleSets tuples) {
+        return tuples == null ? 0 : tuples.insertSize() + tuples.deleteSize() + tuples.updateSize();
+    }
+
+    private static BetaMemory getBetaMemory(Memory nodeMem) {
+        if (nodeMem instanceof BetaMemory) {
+            return (BetaMemory) nodeMem;
+        } else if (nodeMem instanceof AccumulateMemory) {
+            return ((AccumulateMemory) nodeMem).getBetaMemory();
+        } else if (nodeMem instanceof FromMemory) {
+            return ((FromMemory) nodeMem).getBetaMemory();
+        }
+        return null;
+    }
+
+    private static long getMemorySize(Memory nodeMem) {
+        BetaMemory bm = getBetaMemory(nodeMem);
+        if (bm == null) {
+            // the node doesn't keep any tuple in its memory
+            return -1;
+        }
+        long size = 0;
+        if (bm.getLeftTupleMemory() != null) {
+            size += bm.getLeftTupleMemory().size();
+        }
+        if (bm.getRightTupleMemory() != null) {
+            size += bm.getRightTupleMemory().size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the statistics of all the nodes evaluated since the profiler has been
+     * created or reset, starting from the ones where most of the time has been spent
+     */
+    public List<NodeStats> getNodeStats() {
+        List<NodeStats> result = new ArrayList<NodeStats>();
+        for (NodeStats nodeStats : stats) {
+            if (nodeStats != null) {
+                result.add(nodeStats.copy());
+            }
+        }
+        Collections.sort(result, new Comparator<NodeStats>() {
+            public int compare(NodeStats s1, NodeStats s2) {
+                return s1.totalTime > s2.totalTime ? -1 : s1.totalTime < s2.totalTime ? 1 : s1.nodeId - s2.nodeId;
+            }
+        });
+        return result;
+    }
+
+    public NodeStats getNodeStats(int nodeId) {
+        NodeStats[] current = stats;
+        NodeStats nodeStats = nodeId < current.length ? current[nodeId] : null;
+        return nodeStats != null ? nodeStats.copy() : null;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void reset() {
+        synchronized (this) {
+            stats = new NodeStats[stats.length];
+            startTime = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Writes a report of the collected statistics, with one line for each node, sorted
+     * by the time spent evaluating it, followed by the rules sharing the node
+     */
+    public void dumpReport(Writer writer) throws IOException {
+        List<NodeStats> nodes = getNodeStats();
+        writer.write(String.format("%8s %-22s %12s %14s %12s %12s %10s  %s%n",
+                                   "Id", "Type", "Invocations", "Time (us)", "Tuples in", "Tuples out", "Memory", "Rules"));
+        for (NodeStats nodeStats : nodes) {
+            writer.write(String.format("%8d %-22s %12d %14d %12d %12d %10s  %s%n",
+                                       nodeStats.nodeId,
+                                       nodeStats.nodeType,
+                                       nodeStats.invocations,
+                                       TimeUnit.NANOSECONDS.toMicros(nodeStats.totalTime),
+                                       nodeStats.tuplesIn,
+                                       nodeStats.tuplesOut,
+                                       nodeStats.memorySize < 0 ? "-" : Long.toString(nodeStats.memorySize),
+                                       nodeStats.rules));
+        }
+        writer.flush();
+    }
+
+    public String getReport() {
+        StringWriter writer = new StringWriter();
+        try {
+            dumpReport(writer);
+        } catch (IOException e) {
+            // cannot happen writing on a StringWriter
+            throw new RuntimeException(e);
+        }
+        return writer.toString();
+    }
+
+    public static class NodeStats {
+        private final int          nodeId;
+        private final String       nodeType;
+        private final List<String> rules;
+
+        private long invocations;
+        private long totalTime;
+        private long tuplesIn;
+        private long tuplesOut;
+        private long memorySize;
+
+        private NodeStats(NetworkNode node) {
+            this(node.getId(), node.getClass().getSimpleName(), getRuleNames(node));
+        }
+
+        private NodeStats(int nodeId, String nodeType, List<String> rules) {
+            this.nodeId = nodeId;
+            this.nodeType = nodeType;
+            this.rules = rules;
+        }
+
+        private static List<String> getRuleNames(NetworkNode node) {
+            Map<Rule, ?> associations = node.getAssociations();
+            List<String> names = new ArrayList<String>();
+            if (associations != null) {
+                for (Rule rule : associations.keySet()) {
+                    names.add(rule.getName());
+                }
+            }
+            Collections.sort(names);
+            return Collections.unmodifiableList(names);
+        }
+
+        private synchronized NodeStats copy() {
+            NodeStats copy = new NodeStats(nodeId, nodeType, rules);
+            copy.invocations = invocations;
+            copy.totalTime = totalTime;
+            copy.tuplesIn = tuplesIn;
+            copy.tuplesOut = tuplesOut;
+            copy.memorySize = memorySize;
+            return copy;
+        }
+
+        public int getNodeId() {
+            return nodeId;
+        }
+
+        public String getNodeType() {
+            return nodeType;
+        }
+
+        /**
+         * Returns the names of the rules sharing this node
+         */
+        public List<String> getRules() {
+            return rules;
+        }
+
+        public long getInvocations() {
+            return invocations;
+        }
+
+        /**
+         * Returns the time spent evaluating this node, in nanoseconds
+         */
+        public long getTotalTime() {
+            return totalTime;
+        }
+
+        public long getTuplesIn() {
+            return tuplesIn;
+        }
+
+        public long getTuplesOut() {
+            return tuplesOut;
+        }
+
+        /**
+         * Returns the number of tuples held by the memory of this node after its last
+         * evaluation, or -1 if the node doesn't keep any tuple in its memory
+         */
+        public long getMemorySize() {
+            return memorySize;
+        }
+
+        public String toString() {
+            return "NodeStats[id=" + nodeId + ", type=" + nodeType + ", invocations=" + invocations +
+                   ", time=" + totalTime + "ns, in=" + tuplesIn + ", out=" + tuplesOut + ", memory=" + memorySize +
+                   ", rules=" + rules + "]";
+        }
+    }
+}
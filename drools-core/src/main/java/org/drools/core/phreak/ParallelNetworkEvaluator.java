@@ -0,0 +1,225 @@
+package org.drools.core.phreak;
+
+import org.drools.core.common.InternalAgendaGroup;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.conflict.PhreakConflictResolver;
+import org.drools.core.reteoo.BetaNode;
+import org.drools.core.reteoo.LeftTupleSource;
+import org.drools.core.reteoo.NodeTypeEnums;
+import org.drools.core.reteoo.PathMemory;
+import org.drools.core.reteoo.SegmentMemory;
+import org.drools.core.reteoo.TerminalNode;
+import org.drools.core.spi.Activation;
+import org.kie.internal.concurrent.ExecutorProviderFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Evaluates the dirty rules of an agenda group concurrently, before they are fired.
+ *
+ * Rules are partitioned by the root segment of their path: two paths can only share
+ * segments (and therefore node memories and staged tuples) when they share the same
+ * root segment, so different partitions never touch the same memories and can be
+ * evaluated by different threads. The rules within a partition are evaluated
+ * sequentially by the same thread.
+ *
+ * Only paths made of joins and exists are evaluated in parallel, as the other nodes
+ * either create fact handles, schedule timers, link and unlink rules or run user code
+ * with side effects. The terminal nodes are not evaluated by the worker threads: their
+ * staged tuples are kept by the RuleExecutor and applied afterwards by the calling thread,
+ * in conflict resolution order, so that activations are always added to the agenda
+ * deterministically.
+ *
+ * The agenda is only inspected when some rule became dirty since the last evaluation,
+ * so that firing a sequence of activations doesn't sort the agenda group at each step.
+ */
+public class ParallelNetworkEvaluator {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelNetworkEvaluator.class);
+
+    private final int maxThreads;
+
+    private final AtomicBoolean dirtyRules = new AtomicBoolean(true);
+
+    public ParallelNetworkEvaluator(int maxThreads) {
+        this.maxThreads = maxThreads > 0 ? maxThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public void notifyDirtyRule() {
+        dirtyRules.set(true);
+    }
+
+    public void evaluate(InternalAgendaGroup group, InternalWorkingMemory wm) {
+        if (!dirtyRules.compareAndSet(true, false)) {
+            return;
+        }
+
+        List<RuleExecutor> executors = new ArrayList<RuleExecutor>();
+        List<List<RuleExecutor>> partitions = partition(group, executors);
+        if (partitions.size() < 2) {
+            // nothing to gain, the rules will be evaluated by the firing thread
+            return;
+        }
+
+        int threads = Math.min(maxThreads, partitions.size());
+        if (log.isTraceEnabled()) {
+            log.trace("Evaluating {} partitions with {} threads", partitions.size(), threads);
+        }
+
+        List<List<RuleExecutor>> tasks = new ArrayList<List<RuleExecutor>>(threads);
+        for (int i = 0; i < threads; i++) {
+            tasks.add(new ArrayList<RuleExecutor>());
+        }
+        for (int i = 0; i < partitions.size(); i++) {
+            tasks.get(i % threads).addAll(partitions.get(i));
+        }
+
+        CompletionService<Boolean> ecs = ExecutorProviderFactory.getExecutorProvider().getCompletionService();
+        for (List<RuleExecutor> task : tasks) {
+            ecs.submit(new PartitionEvaluator(task, wm));
+        }
+
+        try {
+            waitForCompletion(ecs, threads);
+        } finally {
+            // merge the results, in the same order in which the rules would have been evaluated sequentially,
+            // also when a partition failed, so that no executor is left staging its terminal tuples
+            for (RuleExecutor executor : executors) {
+                executor.flushStagedTerminalTuples(wm);
+            }
+        }
+        wm.executeQueuedActions();
+    }
+
+    private static void waitForCompletion(CompletionService<Boolean> ecs, int tasks) {
+        Throwable failure = null;
+        boolean interrupted = false;
+        // all the tasks have to be terminated before their results are merged, even if interrupted
+        for (int i = 0; i < tasks; ) {
+            try {
+                ecs.take().get();
+                i++;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (ExecutionException e) {
+                failure = failure != null ? failure : e.getCause();
+                i++;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw new RuntimeException("Unable to evaluate the rule network in parallel", failure);
+        }
+    }
+
+    private List<List<RuleExecutor>> partition(InternalAgendaGroup group, List<RuleExecutor> executors) {
+        Activation[] activations = group.getActivations();
+        if (activations.length < 2) {
+            return Collections.emptyList();
+        }
+
+        List<RuleAgendaItem> items = new ArrayList<RuleAgendaItem>(activations.length);
+        for (Activation activation : activations) {
+            RuleAgendaItem item = (RuleAgendaItem) activation;
+            if (item.getRuleExecutor().isDirty() && isParallelizable(item)) {
+                items.add(item);
+            }
+        }
+        Collections.sort(items, ConflictComparator.INSTANCE);
+
+        Map<SegmentMemory, List<RuleExecutor>> partitionsByRoot = new IdentityHashMap<SegmentMemory, List<RuleExecutor>>();
+        List<List<RuleExecutor>> partitions = new ArrayList<List<RuleExecutor>>();
+        for (RuleAgendaItem item : items) {
+            RuleExecutor executor = item.getRuleExecutor();
+            executors.add(executor);
+            SegmentMemory root = executor.getPathMemory().getSegmentMemories()[0];
+            List<RuleExecutor> partition = partitionsByRoot.get(root);
+            if (partition == null) {
+                partition = new ArrayList<RuleExecutor>();
+                partitionsByRoot.put(root, partition);
+                partitions.add(partition);
+            }
+            partition.add(executor);
+        }
+        return partitions;
+    }
+
+    private static boolean isParallelizable(RuleAgendaItem item) {
+        if (item.getRule().isQuery() || item.getRule().isEager() || !item.getRule().getDependingQueries().isEmpty()) {
+            return false;
+        }
+
+        PathMemory pmem = item.getRuleExecutor().getPathMemory();
+        if (pmem.getNetworkNode().getType() != NodeTypeEnums.RuleTerminalNode || pmem.getStreamQueue() != null) {
+            return false;
+        }
+
+        for (SegmentMemory smem : pmem.getSegmentMemories()) {
+            if (smem == null) {
+                // the segments still have to be lazily created, which isn't thread safe
+                return false;
+            }
+        }
+
+        LeftTupleSource lts = ((TerminalNode) pmem.getNetworkNode()).getLeftTupleSource();
+        while (lts.getType() != NodeTypeEnums.LeftInputAdapterNode) {
+            switch (lts.getType()) {
+                case NodeTypeEnums.JoinNode:
+                case NodeTypeEnums.ExistsNode:
+                    if (((BetaNode) lts).isRightInputIsRiaNode()) {
+                        return false;
+                    }
+                    break;
+                default:
+                    return false;
+            }
+            lts = lts.getLeftTupleSource();
+        }
+        return true;
+    }
+
+    private static class PartitionEvaluator implements Callable<Boolean> {
+        private final List<RuleExecutor> executors;
+        private final InternalWorkingMemory wm;
+
+        private PartitionEvaluator(List<RuleExecutor> executors, InternalWorkingMemory wm) {
+            this.executors = executors;
+            this.wm = wm;
+        }
+
+        public Boolean call() throws Exception {
+            for (RuleExecutor executor : executors) {
+                executor.evaluateNetworkStagingTerminal(wm);
+            }
+            return true;
+        }
+    }
+
+    private static class ConflictComparator implements Comparator<RuleAgendaItem> {
+        private static final ConflictComparator INSTANCE = new ConflictComparator();
+
+        public int compare(RuleAgendaItem item1, RuleAgendaItem item2) {
+            // highest priority first
+            return PhreakConflictResolver.doCompare(item2, item1);
+        }
+    }
+}
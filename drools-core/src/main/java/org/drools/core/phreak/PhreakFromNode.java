@@ -1,6 +1,7 @@
 package org.drools.core.phreak;
 
 import org.drools.core.common.BetaConstraints;
+import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.LeftTupleSets;
 import org.drools.core.reteoo.BetaMemory;
@@ -11,14 +12,18 @@ import org.drools.core.reteoo.LeftTupleMemory;
 import org.drools.core.reteoo.LeftTupleSink;
 import org.drools.core.reteoo.RightTuple;
 import org.drools.core.rule.ContextEntry;
+import org.drools.core.rule.Declaration;
 import org.drools.core.spi.AlphaNodeFieldConstraint;
 import org.drools.core.spi.DataProvider;
 import org.drools.core.spi.PropagationContext;
 import org.drools.core.util.FastIterator;
 import org.drools.core.util.LinkedList;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.drools.core.phreak.PhreakJoinNode.updateChildLeftTuple;
@@ -43,12 +48,16 @@ public class PhreakFromNode {
             doLeftDeletes(fm, srcLeftTuples, trgLeftTuples, stagedLeftTuples);
         }
 
+        // the results are only cached for the tuples processed by this call, so that they are never stale
+        Map<FromResultKey, List<Object>> resultCache = fromNode.isResultCacheEnabled() ?
+                                                       new HashMap<FromResultKey, List<Object>>() : null;
+
         if (srcLeftTuples.getUpdateFirst() != null) {
-            doLeftUpdates(fromNode, fm, sink, wm, srcLeftTuples, trgLeftTuples, stagedLeftTuples);
+            doLeftUpdates(fromNode, fm, sink, wm, srcLeftTuples, trgLeftTuples, stagedLeftTuples, resultCache);
         }
 
         if (srcLeftTuples.getInsertFirst() != null) {
-            doLeftInserts(fromNode, fm, sink, wm, srcLeftTuples, trgLeftTuples);
+            doLeftInserts(fromNode, fm, sink, wm, srcLeftTuples, trgLeftTuples, resultCache);
         }
 
         srcLeftTuples.resetAll();
@@ -59,7 +68,8 @@ public class PhreakFromNode {
                               LeftTupleSink sink,
                               InternalWorkingMemory wm,
                               LeftTupleSets srcLeftTuples,
-                              LeftTupleSets trgLeftTuples) {
+                              LeftTupleSets trgLeftTuples,
+                              Map<FromResultKey, List<Object>> resultCache) {
 
         BetaMemory bm = fm.getBetaMemory();
         ContextEntry[] context = bm.getContext();
@@ -86,10 +96,12 @@ public class PhreakFromNode {
                                             wm,
                                             leftTuple);
 
-            for (final java.util.Iterator<?> it = dataProvider.getResults(leftTuple,
-                                                                          wm,
-                                                                          propagationContext,
-                                                                          fm.providerContext); it.hasNext(); ) {
+            for (final java.util.Iterator<?> it = getResults(dataProvider,
+                                                             fm,
+                                                             leftTuple,
+                                                             wm,
+                                                             propagationContext,
+                                                             resultCache); it.hasNext(); ) {
                 final Object object = it.next();
                 if ( (object == null) || !resultClass.isAssignableFrom( object.getClass() ) ) {
                     continue; // skip anything if it not assignable
@@ -130,7 +142,8 @@ public class PhreakFromNode {
                               InternalWorkingMemory wm,
                               LeftTupleSets srcLeftTuples,
                               LeftTupleSets trgLeftTuples,
-                              LeftTupleSets stagedLeftTuples) {
+                              LeftTupleSets stagedLeftTuples,
+                              Map<FromResultKey, List<Object>> resultCache) {
         BetaMemory bm = fm.getBetaMemory();
         ContextEntry[] context = bm.getContext();
         BetaConstraints betaConstraints = fromNode.getBetaConstraints();
@@ -152,10 +165,12 @@ public class PhreakFromNode {
                                             leftTuple);
 
             FastIterator rightIt = LinkedList.fastIterator;
-            for (final java.util.Iterator<?> it = dataProvider.getResults(leftTuple,
-                                                                          wm,
-                                                                          propagationContext,
-                                                                          fm.providerContext); it.hasNext(); ) {
+            for (final java.util.Iterator<?> it = getResults(dataProvider,
+                                                             fm,
+                                                             leftTuple,
+                                                             wm,
+                                                             propagationContext,
+                                                             resultCache); it.hasNext(); ) {
                 final Object object = it.next();
                 if ( (object == null) || !resultClass.isAssignableFrom( object.getClass() ) ) {
                     continue; // skip anything if it not assignable
@@ -244,6 +259,73 @@ public class PhreakFromNode {
         }
     }
 
+    private static Iterator<?> getResults(DataProvider dataProvider,
+                                          FromMemory fm,
+                                          LeftTuple leftTuple,
+                                          InternalWorkingMemory wm,
+                                          PropagationContext propagationContext,
+                                          Map<FromResultKey, List<Object>> resultCache) {
+        if (resultCache == null) {
+            return dataProvider.getResults(leftTuple, wm, propagationContext, fm.providerContext);
+        }
+
+        FromResultKey key = new FromResultKey(dataProvider.getRequiredDeclarations(), leftTuple);
+        List<Object> results = resultCache.get(key);
+        if (results == null) {
+            results = new ArrayList<Object>();
+            for (Iterator<?> it = dataProvider.getResults(leftTuple, wm, propagationContext, fm.providerContext); it.hasNext(); ) {
+                results.add(it.next());
+            }
+            resultCache.put(key, results);
+        }
+        return results.iterator();
+    }
+
+    /**
+     * The facts a tuple binds to the declarations required by a from expression.
+     * Two tuples with the same key, that are propagated together, get the same results.
+     */
+    public static class FromResultKey {
+        private final Object[] facts;
+        private final int      hashCode;
+
+        FromResultKey(Declaration[] declarations, LeftTuple leftTuple) {
+            facts = new Object[declarations.length];
+            int hash = 1;
+            for (int i = 0; i < declarations.length; i++) {
+                InternalFactHandle handle = leftTuple.get(declarations[i]);
+                facts[i] = handle != null ? handle.getObject() : null;
+                hash = 31 * hash + System.identityHashCode(facts[i]);
+            }
+            hashCode = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FromResultKey)) {
+                return false;
+            }
+            Object[] otherFacts = ((FromResultKey) obj).facts;
+            if (facts.length != otherFacts.length) {
+                return false;
+            }
+            for (int i = 0; i < facts.length; i++) {
+                if (facts[i] != otherFacts[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     public static void unlinkCreatedHandles(final LeftTuple leftTuple) {
         Map<Object, RightTuple> matches = (Map<Object, RightTuple>) leftTuple.getObject();
         FastIterator rightIt = LinkedList.fastIterator;
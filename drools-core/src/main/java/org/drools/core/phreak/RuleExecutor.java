@@ -7,6 +7,7 @@ import org.drools.core.common.EventSupport;
 import org.drools.core.common.InternalAgenda;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.LeftTupleSets;
+import org.drools.core.common.LeftTupleSetsImpl;
 import org.drools.core.common.Memory;
 import org.drools.core.common.StreamTupleEntryQueue;
 import org.drools.core.common.TupleEntryQueue;
@@ -20,6 +21,7 @@ import org.drools.core.reteoo.RightTuple;
 import org.drools.core.reteoo.RuleTerminalNode;
 import org.drools.core.reteoo.RuleTerminalNodeLeftTuple;
 import org.drools.core.reteoo.SegmentMemory;
+import org.drools.core.reteoo.TerminalNode;
 import org.drools.core.spi.Activation;
 import org.drools.core.spi.PropagationContext;
 import org.drools.core.util.BinaryHeapQueue;
@@ -39,6 +41,7 @@ public class RuleExecutor {
 
     protected static final transient Logger   log               = LoggerFactory.getLogger(RuleExecutor.class);
     private static final RuleNetworkEvaluator NETWORK_EVALUATOR = new RuleNetworkEvaluator();
+    private static final PhreakRuleTerminalNode TERMINAL_NODE     = new PhreakRuleTerminalNode();
     private final PathMemory                  pmem;
     private final RuleAgendaItem              ruleAgendaItem;
     private final LeftTupleList               tupleList;
@@ -47,6 +50,9 @@ public class RuleExecutor {
     private final boolean                     declarativeAgendaEnabled;
     private boolean                           fireExitedEarly;
     private boolean                           sequential;
+    private LeftTupleSets                     stagedTerminalTuples;
+    private LinkedList<StackEntry>            evaluationStack;
+    private LinkedList<StackEntry>            outerEvaluationStack;
 
     public RuleExecutor(final PathMemory pmem,
             RuleAgendaItem ruleAgendaItem,
@@ -96,18 +102,81 @@ public class RuleExecutor {
         wm.executeQueuedActions();
     }
 
+    /**
+     * Evaluates the network up to, but excluding, the terminal node, whose tuples are staged
+     * until {@link #flushStagedTerminalTuples(InternalWorkingMemory)} is invoked.
+     * This is used by the ParallelNetworkEvaluator, so that only the firing thread modifies the agenda.
+     */
+    public synchronized void evaluateNetworkStagingTerminal(InternalWorkingMemory wm) {
+        setDirty(false);
+        stagedTerminalTuples = new LeftTupleSetsImpl();
+        NETWORK_EVALUATOR.evaluateNetwork(pmem, null, this, wm);
+    }
+
+    public synchronized void flushStagedTerminalTuples(InternalWorkingMemory wm) {
+        LeftTupleSets tuples = stagedTerminalTuples;
+        stagedTerminalTuples = null;
+        if (tuples != null && !tuples.isEmpty()) {
+            TERMINAL_NODE.doNode((TerminalNode) pmem.getNetworkNode(), wm, tuples, this);
+        }
+    }
+
+    public LeftTupleSets getStagedTerminalTuples() {
+        return stagedTerminalTuples;
+    }
+
+    /**
+     * Returns the stack used by the RuleNetworkEvaluator to evaluate this rule, reusing the one
+     * of the previous evaluation when possible. A nested evaluation of the same rule, while the
+     * stack is still taken, gets a new one.
+     *
+     * The stacks are intrusive lists linking the StackEntries themselves, so pushing an entry
+     * doesn't allocate any node, and PhreakQueryTerminalNode relies on those links to tell
+     * whether an entry is already on a stack.
+     */
+    LinkedList<StackEntry> takeEvaluationStack() {
+        LinkedList<StackEntry> stack = evaluationStack;
+        if (stack == null) {
+            return new LinkedList<StackEntry>();
+        }
+        evaluationStack = null;
+        return stack;
+    }
+
+    void releaseEvaluationStack(LinkedList<StackEntry> stack) {
+        stack.clear();
+        evaluationStack = stack;
+    }
+
+    private LinkedList<StackEntry> takeOuterEvaluationStack() {
+        LinkedList<StackEntry> stack = outerEvaluationStack;
+        if (stack == null) {
+            return new LinkedList<StackEntry>();
+        }
+        outerEvaluationStack = null;
+        return stack;
+    }
+
+    private void releaseOuterEvaluationStack(LinkedList<StackEntry> stack) {
+        stack.clear();
+        outerEvaluationStack = stack;
+    }
+
     public synchronized int evaluateNetworkAndFire( InternalWorkingMemory wm,
                                                     final AgendaFilter filter,
                                                     int fireCount,
                                                     int fireLimit ) {
-        LinkedList<StackEntry> outerStack = new LinkedList<StackEntry>();
-
-        InternalAgenda agenda = (InternalAgenda) wm.getAgenda();
-        boolean fireUntilHalt = agenda.isFireUntilHalt();
-
-        reEvaluateNetwork(wm, outerStack, true);
-        wm.executeQueuedActions();
-        return fire(wm, filter, fireCount, fireLimit, outerStack, (InternalAgenda) wm.getAgenda());
+        LinkedList<StackEntry> outerStack = takeOuterEvaluationStack();
+        try {
+            InternalAgenda agenda = (InternalAgenda) wm.getAgenda();
+            boolean fireUntilHalt = agenda.isFireUntilHalt();
+
+            reEvaluateNetwork(wm, outerStack, true);
+            wm.executeQueuedActions();
+            return fire(wm, filter, fireCount, fireLimit, outerStack, (InternalAgenda) wm.getAgenda());
+        } finally {
+            releaseOuterEvaluationStack(outerStack);
+        }
     }
 
     public synchronized void fire(InternalWorkingMemory wm, LinkedList<StackEntry> outerStack) {
@@ -91,7 +91,7 @@ public class RuleNetworkEvaluator {
             visitedRules = Collections.emptySet();
         }
 
-        LinkedList<StackEntry> stack = new LinkedList<StackEntry>();
+        LinkedList<StackEntry> stack = executor.takeEvaluationStack();
 
         NetworkNode node;
         Memory nodeMem;
@@ -114,6 +114,7 @@ public class RuleNetworkEvaluator {
             log.trace("Rule[name={}] segments={} {}", ((TerminalNode)pmem.getNetworkNode()).getRule().getName(), smems.length, srcTuples.toStringSizes());
         }
         outerEval(liaNode, pmem, node, bit, nodeMem, smems, smemIndex, srcTuples, wm, stack, outerStack, visitedRules, true, executor);
+        executor.releaseEvaluationStack(stack); // outerEval only returns once the stack is empty
     }
 
     public static String indent(int size) {
@@ -241,6 +242,9 @@ public class RuleNetworkEvaluator {
         LeftTupleSets srcTuples;
         SegmentMemory smem = smems[smemIndex];
         LeftTupleSets stagedLeftTuples = null;
+        LeftTupleSets ownedTuples = null; // last target created by this loop, that no StackEntry refers to
+        LeftTupleSets spareTuples = null; // drained source, that can be reused as the next target
+        NetworkProfiler profiler = wm.getNetworkProfiler();
         while (true) {
             srcTuples = trgTuples; // previous target, is now the source
             if (log.isTraceEnabled()) {
@@ -305,6 +309,13 @@ public class RuleNetworkEvaluator {
                 }
             }
 
+            long start = 0;
+            int tuplesIn = 0;
+            if (profiler != null) {
+                tuplesIn = profiler.countInput(node, nodeMem, srcTuples);
+                start = profiler.start();
+            }
+
             if (NodeTypeEnums.isTerminalNode(node)) {
                 TerminalNode rtn = ( TerminalNode ) node;
                 if (node.getType() == NodeTypeEnums.QueryTerminalNode) {
@@ -312,26 +323,46 @@ public class RuleNetworkEvaluator {
                                    wm,
                                    srcTuples,
                                    stack);
+                } else if (executor.getStagedTerminalTuples() != null) {
+                    // evaluated by a worker thread, the terminal node is processed later by the firing thread
+                    executor.getStagedTerminalTuples().addAll(srcTuples);
                 } else {
                     pRtNode.doNode(rtn,
                                    wm,
                                    srcTuples,
                                    executor);
                 }
+                if (profiler != null) {
+                    profiler.record(node, nodeMem, start, tuplesIn, null);
+                }
                 break;
             } else if (NodeTypeEnums.RightInputAdaterNode == node.getType()) {
                 doRiaNode2(wm, srcTuples, (RightInputAdapterNode) node);
+                if (profiler != null) {
+                    profiler.record(node, nodeMem, start, tuplesIn, null);
+                }
                 break;
             }
 
             stagedLeftTuples = getTargetStagedLeftTuples(node, wm, smem);
             LeftTupleSinkNode sink = ((LeftTupleSource) node).getSinkPropagator().getFirstLeftTupleSink();
 
-            trgTuples = new LeftTupleSetsImpl();
-
+            boolean srcOwned = srcTuples == ownedTuples;
+            if (spareTuples != null) {
+                trgTuples = spareTuples;
+                spareTuples = null;
+            } else {
+                trgTuples = new LeftTupleSetsImpl();
+            }
+            // the target of a query element is kept by its StackEntry, so it cannot be reused
+            ownedTuples = node.getType() != NodeTypeEnums.QueryElementNode ? trgTuples : null;
 
             if (NodeTypeEnums.isBetaNode(node)) {
                 boolean exitInnerEval = evalBetaNode(liaNode, pmem, node, nodeMem, smems, smemIndex, trgTuples, wm, stack, outerStack, visitedRules, processRian, executor, srcTuples, stagedLeftTuples, sink);
+                if (profiler != null) {
+                    // recorded also when the evaluation is suspended to evaluate the subnetwork
+                    profiler.record(node, nodeMem, start, tuplesIn, trgTuples);
+                }
                 if ( exitInnerEval ) {
                     break; // RiaNode exists and has placed StackEntry on the Stack
                 }
@@ -363,11 +394,19 @@ public class RuleNetworkEvaluator {
                         break;
                     }
                 }
+                if (profiler != null) {
+                    profiler.record(node, nodeMem, start, tuplesIn, trgTuples);
+                }
                 if ( exitInnerEval && trgTuples.isEmpty() ) {
                     break; // Queries exists and has been placed StackEntry, and there are no current trgTuples to process
                 }
             }
 
+            if (srcOwned && srcTuples.isEmpty()) {
+                // the node has consumed its source, so the buffer can hold the target of the next node
+                spareTuples = srcTuples;
+            }
+
             if (node != smem.getTipNode()) {
                 // get next node and node memory in the segment
                 node = sink;
@@ -23,6 +23,7 @@ import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.Memory;
 import org.drools.core.common.MemoryFactory;
 import org.drools.core.common.RuleBasePartitionId;
+import org.drools.core.phreak.NetworkProfiler;
 import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.rule.ContextEntry;
 import org.drools.core.rule.constraint.EvaluatorConstraint;
@@ -138,9 +139,9 @@ public class AlphaNode extends ObjectSource
                              final PropagationContext context,
                              final InternalWorkingMemory workingMemory) {
         final AlphaMemory memory = (AlphaMemory) workingMemory.getNodeMemory( this );
-        if ( this.constraint.isAllowed( factHandle,
-                                        workingMemory,
-                                        memory.context ) ) {
+        if ( isAllowed( factHandle,
+                        workingMemory,
+                        memory ) ) {
 
             this.sink.propagateAssertObject( factHandle,
                                              context,
@@ -148,6 +149,23 @@ public class AlphaNode extends ObjectSource
         }
     }
 
+    private boolean isAllowed(final InternalFactHandle factHandle,
+                              final InternalWorkingMemory workingMemory,
+                              final AlphaMemory memory) {
+        NetworkProfiler profiler = workingMemory.getNetworkProfiler();
+        if ( profiler == null ) {
+            return this.constraint.isAllowed( factHandle,
+                                              workingMemory,
+                                              memory.context );
+        }
+        long start = profiler.start();
+        boolean allowed = this.constraint.isAllowed( factHandle,
+                                                     workingMemory,
+                                                     memory.context );
+        profiler.recordAlpha( this, start, allowed );
+        return allowed;
+    }
+
     public void modifyObject(final InternalFactHandle factHandle,
                              final ModifyPreviousTuples modifyPreviousTuples,
                              final PropagationContext context,
@@ -155,9 +173,9 @@ public class AlphaNode extends ObjectSource
         if ( context.getModificationMask().intersects( inferredMask ) ) {
 
             final AlphaMemory memory = (AlphaMemory) workingMemory.getNodeMemory( this );
-            if ( this.constraint.isAllowed( factHandle,
-                    workingMemory,
-                    memory.context ) ) {
+            if ( isAllowed( factHandle,
+                            workingMemory,
+                            memory ) ) {
                 this.sink.propagateModifyObject( factHandle,
                         modifyPreviousTuples,
                         context,
@@ -27,6 +27,7 @@ import org.drools.core.util.LinkedList;
 import org.drools.core.util.LinkedListNode;
 import org.drools.core.util.ObjectHashMap;
 import org.drools.core.util.ObjectHashMap.ObjectEntry;
+import org.drools.core.util.index.IndexUtil;
 import org.drools.core.rule.IndexableConstraint;
 import org.drools.core.spi.AlphaNodeFieldConstraint;
 import org.drools.core.spi.FieldValue;
@@ -38,6 +39,7 @@ import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -58,6 +60,8 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
 
     ObjectHashMap             hashedSinkMap;
 
+    LinkedList<RangeIndex>    rangeIndexes;
+
     private int               alphaNodeHashingThreshold;
 
     private ObjectSink[]      sinks;
@@ -80,6 +84,7 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
         hashableSinks = (ObjectSinkNodeList) in.readObject();
         hashedFieldIndexes = (LinkedList) in.readObject();
         hashedSinkMap = (ObjectHashMap) in.readObject();
+        rangeIndexes = (LinkedList) in.readObject();
         alphaNodeHashingThreshold = in.readInt();
     }
 
@@ -89,6 +94,7 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
         out.writeObject( hashableSinks );
         out.writeObject( hashedFieldIndexes );
         out.writeObject( hashedSinkMap );
+        out.writeObject( rangeIndexes );
         out.writeInt( alphaNodeHashingThreshold );
     }
 
@@ -143,6 +149,18 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
                     }
                     return;
                 }
+
+                if ( this.alphaNodeHashingThreshold != 0 && RangeIndex.isRangeIndexable( indexableConstraint ) ) {
+                    final RangeIndex rangeIndex = registerRangeIndex( indexableConstraint.getFieldExtractor() );
+                    rangeIndex.add( alphaNode );
+                    if ( rangeIndex.isIndexed() ) {
+                        return;
+                    }
+                    if ( rangeIndex.size() >= this.alphaNodeHashingThreshold ) {
+                        rangeSinks( rangeIndex, alphaNode );
+                        return;
+                    }
+                }
             }
         }
 
@@ -192,6 +210,17 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
 
                     return;
                 }
+
+                if ( this.alphaNodeHashingThreshold != 0 && RangeIndex.isRangeIndexable( indexableConstraint ) ) {
+                    final RangeIndex rangeIndex = unregisterRangeIndex( indexableConstraint.getFieldExtractor().getIndex(),
+                                                                        alphaNode );
+                    if ( rangeIndex.isIndexed() ) {
+                        if ( rangeIndex.size() < this.alphaNodeHashingThreshold ) {
+                            unRangeSinks( rangeIndex );
+                        }
+                        return;
+                    }
+                }
             }
         }
 
@@ -282,6 +311,79 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
         fieldIndex.setHashed( false );
     }
 
+    /**
+     * Moves the alpha nodes of the given RangeIndex out of the other sinks, so that they are
+     * only propagated through the index. The given node has just been added and is not there yet.
+     */
+    void rangeSinks(final RangeIndex rangeIndex,
+                    final AlphaNode added) {
+        for ( int i = 0; i < rangeIndex.size(); i++ ) {
+            final AlphaNode alphaNode = rangeIndex.getNode( i );
+            if ( alphaNode != added ) {
+                this.otherSinks.remove( alphaNode );
+            }
+        }
+
+        if ( this.otherSinks != null && this.otherSinks.isEmpty() ) {
+            this.otherSinks = null;
+        }
+
+        rangeIndex.setIndexed( true );
+    }
+
+    void unRangeSinks(final RangeIndex rangeIndex) {
+        if ( rangeIndex.size() > 0 && this.otherSinks == null ) {
+            this.otherSinks = new ObjectSinkNodeList();
+        }
+        for ( int i = 0; i < rangeIndex.size(); i++ ) {
+            this.otherSinks.add( rangeIndex.getNode( i ) );
+        }
+
+        rangeIndex.setIndexed( false );
+    }
+
+    private RangeIndex registerRangeIndex(final InternalReadAccessor fieldExtractor) {
+        if ( this.rangeIndexes == null ) {
+            this.rangeIndexes = new LinkedList<RangeIndex>();
+        }
+
+        RangeIndex rangeIndex = findRangeIndex( fieldExtractor.getIndex() );
+        if ( rangeIndex == null ) {
+            rangeIndex = new RangeIndex( fieldExtractor );
+            this.rangeIndexes.add( rangeIndex );
+        }
+
+        return rangeIndex;
+    }
+
+    private RangeIndex unregisterRangeIndex(final int index,
+                                            final AlphaNode alphaNode) {
+        final RangeIndex rangeIndex = findRangeIndex( index );
+        rangeIndex.remove( alphaNode );
+
+        // if the index is empty then remove it from the linkedlist
+        if ( rangeIndex.size() == 0 ) {
+            this.rangeIndexes.remove( rangeIndex );
+
+            // if the linkedlist is empty then null it
+            if ( this.rangeIndexes.isEmpty() ) {
+                this.rangeIndexes = null;
+            }
+        }
+
+        return rangeIndex;
+    }
+
+    private RangeIndex findRangeIndex(final int index) {
+        for ( RangeIndex node = this.rangeIndexes.getFirst(); node != null; node = node.getNext() ) {
+            if ( node.getIndex() == index ) {
+                return node;
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Returns a FieldIndex which Keeps a count on how many times a particular field is used with an equality check
      * in the sinks.
@@ -373,6 +475,21 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
             }
         }
 
+        if ( this.rangeIndexes != null ) {
+            for ( RangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                if ( !rangeIndex.isIndexed() || rangeIndex.isNullValue( object ) ) {
+                    continue;
+                }
+                // the matching AlphaNodes are found by the index, so there is no need to retest them
+                for ( int i = 0, end = rangeIndex.getAscendingMatchesEnd( object ); i < end; i++ ) {
+                    rangeIndex.getAscendingNode( i ).getSinkPropagator().propagateAssertObject( factHandle, context, workingMemory );
+                }
+                for ( int i = rangeIndex.getDescendingMatchesStart( object ), end = rangeIndex.getDescendingSize(); i < end; i++ ) {
+                    rangeIndex.getDescendingNode( i ).getSinkPropagator().propagateAssertObject( factHandle, context, workingMemory );
+                }
+            }
+        }
+
         // propagate unhashed
         if ( this.hashableSinks != null ) {
             for ( ObjectSinkNode sink = this.hashableSinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode() ) {
@@ -422,6 +539,22 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
             }
         }
 
+        if ( this.rangeIndexes != null ) {
+            for ( RangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                if ( !rangeIndex.isIndexed() || rangeIndex.isNullValue( object ) ) {
+                    continue;
+                }
+                // the AlphaNodes not found by the index can be skipped, while the matching ones still have
+                // to check the modification mask to decide if the modification has to be propagated
+                for ( int i = 0, end = rangeIndex.getAscendingMatchesEnd( object ); i < end; i++ ) {
+                    doPropagateModifyObject( factHandle, modifyPreviousTuples, context, workingMemory, rangeIndex.getAscendingNode( i ) );
+                }
+                for ( int i = rangeIndex.getDescendingMatchesStart( object ), end = rangeIndex.getDescendingSize(); i < end; i++ ) {
+                    doPropagateModifyObject( factHandle, modifyPreviousTuples, context, workingMemory, rangeIndex.getDescendingNode( i ) );
+                }
+            }
+        }
+
         // propagate unhashed
         if ( this.hashableSinks != null ) {
             for ( ObjectSinkNode sink = this.hashableSinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode() ) {
@@ -471,6 +604,21 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
             }
         }
 
+        if ( this.rangeIndexes != null ) {
+            for ( RangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                if ( !rangeIndex.isIndexed() || rangeIndex.isNullValue( object ) ) {
+                    continue;
+                }
+                // only alpha nodes are range indexed
+                for ( int i = 0, end = rangeIndex.getAscendingMatchesEnd( object ); i < end; i++ ) {
+                    rangeIndex.getAscendingNode( i ).getSinkPropagator().byPassModifyToBetaNode( factHandle, modifyPreviousTuples, context, workingMemory );
+                }
+                for ( int i = rangeIndex.getDescendingMatchesStart( object ), end = rangeIndex.getDescendingSize(); i < end; i++ ) {
+                    rangeIndex.getDescendingNode( i ).getSinkPropagator().byPassModifyToBetaNode( factHandle, modifyPreviousTuples, context, workingMemory );
+                }
+            }
+        }
+
         // propagate unhashed
         if ( this.hashableSinks != null ) {
             for ( ObjectSinkNode sink = this.hashableSinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode() ) {
@@ -543,6 +691,20 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
                 }
             }
         }
+
+        if ( this.rangeIndexes != null ) {
+            for ( RangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                if ( !rangeIndex.isIndexed() ) {
+                    // not indexed nodes are still in the other sinks
+                    continue;
+                }
+                for ( int i = 0; i < rangeIndex.size(); i++ ) {
+                    if ( candidate.equals( rangeIndex.getNode( i ) ) ) {
+                        return rangeIndex.getNode( i );
+                    }
+                }
+            }
+        }
         return null;
     }
 
@@ -571,6 +733,16 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
             }
         }
 
+        if ( this.rangeIndexes != null ) {
+            for ( RangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                if ( rangeIndex.isIndexed() ) {
+                    for ( int i = 0; i < rangeIndex.size(); i++ ) {
+                        sinks[at++] = rangeIndex.getNode( i );
+                    }
+                }
+            }
+        }
+
         if ( this.hashableSinks != null ) {
             for ( ObjectSinkNode sink = this.hashableSinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode() ) {
                 sinks[at++] = sink;
@@ -605,7 +777,19 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
     }     
 
     public int size() {
-        return (this.otherSinks != null ? this.otherSinks.size() : 0) + (this.hashableSinks != null ? this.hashableSinks.size() : 0) + (this.hashedSinkMap != null ? this.hashedSinkMap.size() : 0);
+        return (this.otherSinks != null ? this.otherSinks.size() : 0) + (this.hashableSinks != null ? this.hashableSinks.size() : 0) + (this.hashedSinkMap != null ? this.hashedSinkMap.size() : 0) + rangeIndexedSize();
+    }
+
+    private int rangeIndexedSize() {
+        int size = 0;
+        if ( this.rangeIndexes != null ) {
+            for ( RangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                if ( rangeIndex.isIndexed() ) {
+                    size += rangeIndex.size();
+                }
+            }
+        }
+        return size;
     }
 
     public static class HashKey
@@ -981,4 +1165,307 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
             next = null;
         }
     }
+
+    /**
+     * Indexes the AlphaNodes that compare the same numeric field with a literal through
+     * a <, <=, > or >= operator. The nodes are kept sorted by the literal value, so that
+     * all the nodes matching a given object are found with a binary search: the nodes
+     * testing ascending comparisons (field > value) that match an object are always a
+     * prefix of the ascending array, while the ones testing descending comparisons
+     * (field < value) are always a suffix of the descending array.
+     */
+    public static class RangeIndex
+        implements
+        LinkedListNode<RangeIndex>,
+        Externalizable {
+        private static final long         serialVersionUID = 510l;
+
+        private static final RangeEntry[] EMPTY            = new RangeEntry[0];
+
+        private int                       index;
+        private InternalReadAccessor      fieldExtractor;
+        private boolean                   decimal;
+
+        private RangeEntry[]              ascending        = EMPTY;
+        private RangeEntry[]              descending       = EMPTY;
+
+        private boolean                   indexed;
+
+        private RangeIndex                previous;
+        private RangeIndex                next;
+
+        public RangeIndex() {
+        }
+
+        public RangeIndex(final InternalReadAccessor fieldExtractor) {
+            this.index = fieldExtractor.getIndex();
+            this.fieldExtractor = fieldExtractor;
+            this.decimal = fieldExtractor.getValueType().isFloatNumber();
+        }
+
+        public static boolean isRangeIndexable(final IndexableConstraint constraint) {
+            if ( !constraint.getConstraintType().isComparison() ) {
+                return false;
+            }
+            final FieldValue value = constraint.getField();
+            final InternalReadAccessor extractor = constraint.getFieldExtractor();
+            if ( value == null || value.isNull() || extractor == null ||
+                 // our current implementation does not support indexing of deeply nested properties
+                 extractor instanceof MVELObjectClassFieldReader ) {
+                return false;
+            }
+            final ValueType vtype = extractor.getValueType();
+            if ( vtype.isFloatNumber() ) {
+                return true;
+            }
+            // a decimal literal can't be compared as a long without changing the constraint semantic
+            final Object literal = value.getValue();
+            return vtype.isIntegerNumber() &&
+                   ( literal instanceof Long || literal instanceof Integer || literal instanceof Short || literal instanceof Byte );
+        }
+
+        public void readExternal(ObjectInput in) throws IOException,
+                                                ClassNotFoundException {
+            index = in.readInt();
+            fieldExtractor = (InternalReadAccessor) in.readObject();
+            decimal = in.readBoolean();
+            ascending = (RangeEntry[]) in.readObject();
+            descending = (RangeEntry[]) in.readObject();
+            indexed = in.readBoolean();
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeInt( index );
+            out.writeObject( fieldExtractor );
+            out.writeBoolean( decimal );
+            out.writeObject( ascending );
+            out.writeObject( descending );
+            out.writeBoolean( indexed );
+        }
+
+        public int getIndex() {
+            return this.index;
+        }
+
+        public InternalReadAccessor getFieldExtractor() {
+            return this.fieldExtractor;
+        }
+
+        public boolean isIndexed() {
+            return this.indexed;
+        }
+
+        public void setIndexed(final boolean indexed) {
+            this.indexed = indexed;
+        }
+
+        public int size() {
+            return this.ascending.length + this.descending.length;
+        }
+
+        public AlphaNode getNode(final int i) {
+            return i < this.ascending.length ? this.ascending[i].node : this.descending[i - this.ascending.length].node;
+        }
+
+        public AlphaNode getAscendingNode(final int i) {
+            return this.ascending[i].node;
+        }
+
+        public AlphaNode getDescendingNode(final int i) {
+            return this.descending[i].node;
+        }
+
+        public int getDescendingSize() {
+            return this.descending.length;
+        }
+
+        public void add(final AlphaNode alphaNode) {
+            final IndexableConstraint constraint = (IndexableConstraint) alphaNode.getConstraint();
+            final RangeEntry entry = new RangeEntry( alphaNode,
+                                                     constraint.getField(),
+                                                     constraint.getConstraintType() );
+            if ( constraint.getConstraintType().isAscending() ) {
+                this.ascending = insert( this.ascending, entry );
+            } else {
+                this.descending = insert( this.descending, entry );
+            }
+        }
+
+        public boolean remove(final AlphaNode alphaNode) {
+            int pos = find( this.ascending, alphaNode );
+            if ( pos >= 0 ) {
+                this.ascending = delete( this.ascending, pos );
+                return true;
+            }
+            pos = find( this.descending, alphaNode );
+            if ( pos >= 0 ) {
+                this.descending = delete( this.descending, pos );
+                return true;
+            }
+            return false;
+        }
+
+        public boolean isNullValue(final Object object) {
+            return this.fieldExtractor.isNullValue( null, object );
+        }
+
+        /**
+         * Returns the number of ascending nodes matching the given object, that are
+         * the ones in the [0, end) range of the ascending array
+         */
+        public int getAscendingMatchesEnd(final Object object) {
+            int low = 0;
+            int high = this.ascending.length;
+            if ( this.decimal ) {
+                final double value = this.fieldExtractor.getDoubleValue( null, object );
+                while ( low < high ) {
+                    final int mid = ( low + high ) >>> 1;
+                    final RangeEntry entry = this.ascending[mid];
+                    if ( entry.dvalue < value || ( entry.dvalue == value && entry.inclusive ) ) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+            } else {
+                final long value = this.fieldExtractor.getLongValue( null, object );
+                while ( low < high ) {
+                    final int mid = ( low + high ) >>> 1;
+                    final RangeEntry entry = this.ascending[mid];
+                    if ( entry.lvalue < value || ( entry.lvalue == value && entry.inclusive ) ) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Returns the position of the first descending node matching the given object,
+         * all the nodes from there to the end of the descending array are matching too
+         */
+        public int getDescendingMatchesStart(final Object object) {
+            int low = 0;
+            int high = this.descending.length;
+            if ( this.decimal ) {
+                final double value = this.fieldExtractor.getDoubleValue( null, object );
+                while ( low < high ) {
+                    final int mid = ( low + high ) >>> 1;
+                    final RangeEntry entry = this.descending[mid];
+                    if ( entry.dvalue > value || ( entry.dvalue == value && entry.inclusive ) ) {
+                        high = mid;
+                    } else {
+                        low = mid + 1;
+                    }
+                }
+            } else {
+                final long value = this.fieldExtractor.getLongValue( null, object );
+                while ( low < high ) {
+                    final int mid = ( low + high ) >>> 1;
+                    final RangeEntry entry = this.descending[mid];
+                    if ( entry.lvalue > value || ( entry.lvalue == value && entry.inclusive ) ) {
+                        high = mid;
+                    } else {
+                        low = mid + 1;
+                    }
+                }
+            }
+            return low;
+        }
+
+        private static RangeEntry[] insert(final RangeEntry[] entries,
+                                           final RangeEntry entry) {
+            // insert after the entries that sort equal, to keep the nodes in insertion order
+            int pos = entries.length;
+            while ( pos > 0 && entries[pos - 1].compareTo( entry ) > 0 ) {
+                pos--;
+            }
+            final RangeEntry[] result = new RangeEntry[entries.length + 1];
+            System.arraycopy( entries, 0, result, 0, pos );
+            result[pos] = entry;
+            System.arraycopy( entries, pos, result, pos + 1, entries.length - pos );
+            return result;
+        }
+
+        private static RangeEntry[] delete(final RangeEntry[] entries,
+                                           final int pos) {
+            if ( entries.length == 1 ) {
+                return EMPTY;
+            }
+            final RangeEntry[] result = new RangeEntry[entries.length - 1];
+            System.arraycopy( entries, 0, result, 0, pos );
+            System.arraycopy( entries, pos + 1, result, pos, entries.length - pos - 1 );
+            return result;
+        }
+
+        private static int find(final RangeEntry[] entries,
+                                final AlphaNode alphaNode) {
+            for ( int i = 0; i < entries.length; i++ ) {
+                if ( entries[i].node == alphaNode ) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        public RangeIndex getNext() {
+            return this.next;
+        }
+
+        public RangeIndex getPrevious() {
+            return this.previous;
+        }
+
+        public void setNext(final RangeIndex next) {
+            this.next = next;
+        }
+
+        public void setPrevious(final RangeIndex previous) {
+            this.previous = previous;
+        }
+
+        public void nullPrevNext() {
+            previous = null;
+            next = null;
+        }
+    }
+
+    public static class RangeEntry
+        implements
+        Comparable<RangeEntry>,
+        Serializable {
+        private static final long serialVersionUID = 510l;
+
+        private final AlphaNode   node;
+        private final long        lvalue;
+        private final double      dvalue;
+        private final boolean     inclusive;
+        private final boolean     ascending;
+
+        public RangeEntry(final AlphaNode node,
+                          final FieldValue value,
+                          final IndexUtil.ConstraintType constraintType) {
+            this.node = node;
+            this.lvalue = value.getLongValue();
+            this.dvalue = value.getDoubleValue();
+            this.inclusive = constraintType == IndexUtil.ConstraintType.GREATER_OR_EQUAL ||
+                             constraintType == IndexUtil.ConstraintType.LESS_OR_EQUAL;
+            this.ascending = constraintType.isAscending();
+        }
+
+        public int compareTo(final RangeEntry other) {
+            int result = this.dvalue < other.dvalue ? -1 : this.dvalue > other.dvalue ? 1 : 0;
+            if ( result == 0 ) {
+                result = this.lvalue < other.lvalue ? -1 : this.lvalue > other.lvalue ? 1 : 0;
+            }
+            if ( result == 0 && this.inclusive != other.inclusive ) {
+                // inclusive ascending comparisons (>=) match before the exclusive ones (>) for the same value,
+                // while exclusive descending comparisons (<) match before the inclusive ones (<=)
+                result = this.inclusive == this.ascending ? -1 : 1;
+            }
+            return result;
+        }
+    }
 }
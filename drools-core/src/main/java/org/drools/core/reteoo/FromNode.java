@@ -63,6 +63,8 @@ public class FromNode extends LeftTupleSource
 
     protected boolean                    tupleMemoryEnabled;
 
+    protected boolean                    resultCacheEnabled;
+
     protected transient ObjectTypeConf   objectTypeConf;
 
     public FromNode() {
@@ -82,6 +84,7 @@ public class FromNode extends LeftTupleSource
         this.alphaConstraints = constraints;
         this.betaConstraints = (binder == null) ? EmptyBetaConstraints.getInstance() : binder;
         this.tupleMemoryEnabled = tupleMemoryEnabled;
+        this.resultCacheEnabled = context.getKnowledgeBase().getConfiguration().isFromResultCache();
         this.from = from;
         resultClass = this.from.getResultClass();
 
@@ -95,6 +98,7 @@ public class FromNode extends LeftTupleSource
         alphaConstraints = (AlphaNodeFieldConstraint[]) in.readObject();
         betaConstraints = (BetaConstraints) in.readObject();
         tupleMemoryEnabled = in.readBoolean();
+        resultCacheEnabled = in.readBoolean();
         from = (From) in.readObject();
         resultClass = from.getResultClass();
     }
@@ -105,6 +109,7 @@ public class FromNode extends LeftTupleSource
         out.writeObject( alphaConstraints );
         out.writeObject( betaConstraints );
         out.writeBoolean( tupleMemoryEnabled );
+        out.writeBoolean( resultCacheEnabled );
         out.writeObject( from );
     }
 
@@ -224,6 +229,10 @@ public class FromNode extends LeftTupleSource
         this.tupleMemoryEnabled = tupleMemoryEnabled;
     }
 
+    public boolean isResultCacheEnabled() {
+        return resultCacheEnabled;
+    }
+
     /**
      * Returns the next node
      * @return
@@ -137,6 +137,7 @@ public class PathMemory extends AbstractBaseLinkedListNode<Memory>
         InternalAgenda agenda = (InternalAgenda) wm.getAgenda();
         synchronized ( agendaItem ) {
             agendaItem.getRuleExecutor().setDirty(true);
+            agenda.notifyDirtyRule( agendaItem );
             ActivationsFilter activationFilter = agenda.getActivationsFilter();
             if ( activationFilter != null && !activationFilter.accept( agendaItem,
                                                                        wm,
@@ -26,6 +26,8 @@ import org.drools.core.impl.InternalKnowledgeBase;
 import org.drools.core.phreak.AddRemoveRule;
 import org.drools.core.rule.InvalidPatternException;
 import org.drools.core.rule.WindowDeclaration;
+import org.drools.core.rule.constraint.MvelConstraint;
+import org.drools.core.spi.BetaNodeFieldConstraint;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -105,6 +107,54 @@ public class ReteooBuilder
 
         this.rules.put( rule.getName(),
                         terminals.toArray( new BaseNode[terminals.size()] ) );
+
+        if ( this.kBase.getConfiguration().getJittingThreshold() == 0 ) {
+            compileConstraints( terminals );
+        }
+    }
+
+    /**
+     * Compiles the MVEL constraints of the given terminal nodes' paths, so that the first facts
+     * inserted in a session don't pay for it.
+     */
+    private void compileConstraints(List<TerminalNode> terminals) {
+        Set<BaseNode> visited = new HashSet<BaseNode>();
+        for ( TerminalNode terminal : terminals ) {
+            compileConstraints( terminal.getLeftTupleSource(), visited );
+        }
+    }
+
+    private void compileConstraints(LeftTupleSource lts, Set<BaseNode> visited) {
+        while ( lts != null && visited.add( lts ) ) {
+            if ( lts instanceof BetaNode ) {
+                BetaNode betaNode = (BetaNode) lts;
+                for ( BetaNodeFieldConstraint constraint : betaNode.getRawConstraints().getConstraints() ) {
+                    compileConstraint( constraint );
+                }
+                ObjectSource rightInput = betaNode.getRightInput();
+                if ( rightInput instanceof RightInputAdapterNode ) {
+                    compileConstraints( ((RightInputAdapterNode) rightInput).getLeftTupleSource(), visited );
+                } else {
+                    compileConstraints( rightInput, visited );
+                }
+            } else if ( lts instanceof LeftInputAdapterNode ) {
+                compileConstraints( ((LeftInputAdapterNode) lts).getParentObjectSource(), visited );
+            }
+            lts = lts.getLeftTupleSource();
+        }
+    }
+
+    private void compileConstraints(ObjectSource source, Set<BaseNode> visited) {
+        while ( source instanceof AlphaNode && visited.add( source ) ) {
+            compileConstraint( ((AlphaNode) source).getConstraint() );
+            source = source.getParentObjectSource();
+        }
+    }
+
+    private void compileConstraint(Object constraint) {
+        if ( constraint instanceof MvelConstraint ) {
+            ((MvelConstraint) constraint).compileEvaluator( this.kBase );
+        }
     }
 
     public void addEntryPoint( String id ) {
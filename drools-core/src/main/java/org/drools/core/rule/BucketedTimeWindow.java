@@ -0,0 +1,300 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.rule;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.drools.core.common.EventFactHandle;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.common.PropagationContextFactory;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.core.reteoo.WindowNode.WindowMemory;
+import org.drools.core.spi.PropagationContext;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.JobHandle;
+import org.drools.core.time.TimerService;
+import org.drools.core.time.impl.PointInTimeTrigger;
+
+/**
+ * A sliding time window that groups its events in buckets of a fixed time span,
+ * e.g. <code>over window:time( 1h, 1s )</code>.
+ *
+ * Instead of keeping all the events ordered by timestamp, each event is added to the
+ * bucket covering its timestamp, and a whole bucket is expired at once, as soon as
+ * its most recent possible event leaves the window. This means that an event can stay
+ * in the window up to one bucket span longer than the window size.
+ *
+ * Only one job is scheduled at any time for each window, to expire the oldest bucket,
+ * and it is only rescheduled when that bucket is expired or an older one is created.
+ */
+public class BucketedTimeWindow extends SlidingTimeWindow {
+
+    private long bucketSize;
+
+    public BucketedTimeWindow() {
+        this( 0, 1 );
+    }
+
+    /**
+     * @param size the size of the window
+     * @param bucketSize the time span of each bucket
+     */
+    public BucketedTimeWindow(final long size,
+                              final long bucketSize) {
+        super( size );
+        if ( bucketSize <= 0 ) {
+            throw new IllegalArgumentException( "The bucket size of a time window must be greater than 0" );
+        }
+        this.bucketSize = bucketSize;
+    }
+
+    public void readExternal(final ObjectInput in) throws IOException,
+                                                  ClassNotFoundException {
+        super.readExternal( in );
+        this.bucketSize = in.readLong();
+    }
+
+    public void writeExternal(final ObjectOutput out) throws IOException {
+        super.writeExternal( out );
+        out.writeLong( this.bucketSize );
+    }
+
+    /**
+     * @return the time span of each bucket
+     */
+    public long getBucketSize() {
+        return bucketSize;
+    }
+
+    public Object createContext() {
+        return new BucketedTimeWindowContext();
+    }
+
+    public boolean assertFact(final WindowMemory memory,
+                              final Object context,
+                              final InternalFactHandle fact,
+                              final PropagationContext pctx,
+                              final InternalWorkingMemory workingMemory) {
+        final BucketedTimeWindowContext buckets = (BucketedTimeWindowContext) context;
+        final EventFactHandle handle = (EventFactHandle) fact;
+        long currentTime = workingMemory.getTimerService().getCurrentTime();
+        if ( handle.getStartTimestamp() + getSize() <= currentTime ) {
+            return false;
+        }
+        synchronized (buckets) {
+            long index = getBucketIndex( handle );
+            Bucket bucket = buckets.getBucket( index );
+            if ( bucket == null ) {
+                bucket = buckets.addBucket( index );
+                if ( buckets.buckets.firstKey() == index ) {
+                    // it is the oldest bucket, so it is the next one to expire
+                    scheduleExpiration( buckets, pctx, workingMemory, memory );
+                }
+            }
+            bucket.handles.add( handle );
+        }
+        return true;
+    }
+
+    public void retractFact(final WindowMemory memory,
+                            final Object context,
+                            final InternalFactHandle fact,
+                            final PropagationContext pctx,
+                            final InternalWorkingMemory workingMemory) {
+        final BucketedTimeWindowContext buckets = (BucketedTimeWindowContext) context;
+        final EventFactHandle handle = (EventFactHandle) fact;
+        synchronized (buckets) {
+            // it may be a call back to expire a handle of the bucket that is already being expired
+            if ( buckets.expiringBucket != null && buckets.expiringBucket.handles.contains( handle ) ) {
+                return;
+            }
+            long index = getBucketIndex( handle );
+            Bucket bucket = buckets.getBucket( index );
+            if ( bucket != null && bucket.handles.remove( handle ) && bucket.handles.isEmpty() ) {
+                buckets.removeBucket( index );
+                if ( buckets.buckets.isEmpty() ) {
+                    cancelExpiration( buckets, workingMemory );
+                }
+            }
+        }
+    }
+
+    public void expireFacts(final WindowMemory memory,
+                            final Object context,
+                            final PropagationContext pctx,
+                            final InternalWorkingMemory workingMemory) {
+        TimerService clock = workingMemory.getTimerService();
+        long currentTime = clock.getCurrentTime();
+        BucketedTimeWindowContext buckets = (BucketedTimeWindowContext) context;
+        synchronized (buckets) {
+            while ( !buckets.buckets.isEmpty() && getExpirationTime( buckets.buckets.firstKey() ) <= currentTime ) {
+                Bucket bucket = buckets.removeBucket( buckets.buckets.firstKey() );
+                buckets.expiringBucket = bucket;
+                PropagationContextFactory pctxFactory = workingMemory.getKnowledgeBase().getConfiguration().getComponentFactory().getPropagationContextFactory();
+                for ( EventFactHandle handle : bucket.handles ) {
+                    if ( handle.isValid() ) {
+                        // if not expired yet, expire it
+                        final PropagationContext expiresPctx = pctxFactory.createPropagationContext( workingMemory.getNextPropagationIdCounter(), PropagationContext.EXPIRATION,
+                                                                                                     null, null, handle );
+                        ObjectTypeNode.doRetractObject( handle, expiresPctx, workingMemory );
+                        expiresPctx.evaluateActionQueue( workingMemory );
+                    }
+                }
+                buckets.expiringBucket = null;
+            }
+            // schedule the expiration of the next bucket
+            scheduleExpiration( buckets, pctx, workingMemory, memory );
+        }
+    }
+
+    public EventFactHandle getNextExpiringHandle(final Object context) {
+        BucketedTimeWindowContext buckets = (BucketedTimeWindowContext) context;
+        if ( buckets.buckets.isEmpty() ) {
+            return null;
+        }
+        Set<EventFactHandle> handles = buckets.buckets.firstEntry().getValue().handles;
+        return handles.isEmpty() ? null : handles.iterator().next();
+    }
+
+    public long getExpirationOffset() {
+        // the events of a bucket are only expired once the most recent of them leaves the window
+        return getSize() + this.bucketSize;
+    }
+
+    public String toString() {
+        return "BucketedTimeWindow( size=" + getSize() + ", bucketSize=" + bucketSize + " )";
+    }
+
+    private long getBucketIndex(final EventFactHandle handle) {
+        long timestamp = handle.getStartTimestamp();
+        return timestamp >= 0 ? timestamp / bucketSize : ( timestamp + 1 ) / bucketSize - 1;
+    }
+
+    private long getExpirationTime(final long index) {
+        // the time at which the most recent event that can fall in the bucket leaves the window
+        return ( index + 1 ) * bucketSize - 1 + getSize();
+    }
+
+    private void scheduleExpiration(final BucketedTimeWindowContext buckets,
+                                    final PropagationContext pctx,
+                                    final InternalWorkingMemory workingMemory,
+                                    final WindowMemory memory) {
+        cancelExpiration( buckets, workingMemory );
+        if ( buckets.buckets.isEmpty() ) {
+            return;
+        }
+        TimerService clock = workingMemory.getTimerService();
+        long nextTimestamp = getExpirationTime( buckets.buckets.firstKey() );
+        if ( nextTimestamp < clock.getCurrentTime() ) {
+            // Past and out-of-order events should not be insert,
+            // but the engine silently accepts them anyway, resulting in possibly undesirable behaviors
+            workingMemory.queueWorkingMemoryAction( new BehaviorExpireWMAction( nodeId, this, memory, buckets, pctx ) );
+        } else {
+            JobContext jobctx = new BehaviorJobContext( nodeId, workingMemory, this, memory,
+                                                        buckets, pctx );
+            JobHandle handle = clock.scheduleJob( job,
+                                                  jobctx,
+                                                  new PointInTimeTrigger( nextTimestamp, null, null ) );
+            jobctx.setJobHandle( handle );
+            buckets.jobHandle = handle;
+        }
+    }
+
+    private void cancelExpiration(final BucketedTimeWindowContext buckets,
+                                  final InternalWorkingMemory workingMemory) {
+        if ( buckets.jobHandle != null ) {
+            workingMemory.getTimerService().removeJob( buckets.jobHandle );
+            buckets.jobHandle = null;
+        }
+    }
+
+    public static class Bucket {
+        public final Set<EventFactHandle> handles = new HashSet<EventFactHandle>();
+    }
+
+    public static class BucketedTimeWindowContext
+        implements
+        Externalizable {
+
+        public TreeMap<Long, Bucket> buckets = new TreeMap<Long, Bucket>();
+        public Bucket                expiringBucket;
+        public JobHandle             jobHandle;
+
+        // the most recent bucket, where events arriving in order are added
+        private long   lastIndex;
+        private Bucket lastBucket;
+
+        public BucketedTimeWindowContext() {
+        }
+
+        public Bucket getBucket(long index) {
+            if ( lastBucket != null && lastIndex == index ) {
+                return lastBucket;
+            }
+            return buckets.get( index );
+        }
+
+        public Bucket addBucket(long index) {
+            Bucket bucket = new Bucket();
+            buckets.put( index, bucket );
+            if ( lastBucket == null || index > lastIndex ) {
+                lastIndex = index;
+                lastBucket = bucket;
+            }
+            return bucket;
+        }
+
+        public Bucket removeBucket(long index) {
+            if ( lastBucket != null && lastIndex == index ) {
+                lastBucket = null;
+            }
+            return buckets.remove( index );
+        }
+
+        public void readExternal(ObjectInput in) throws IOException,
+                                                ClassNotFoundException {
+            int size = in.readInt();
+            for ( int i = 0; i < size; i++ ) {
+                long index = in.readLong();
+                Bucket bucket = addBucket( index );
+                int handles = in.readInt();
+                for ( int j = 0; j < handles; j++ ) {
+                    bucket.handles.add( (EventFactHandle) in.readObject() );
+                }
+            }
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeInt( buckets.size() );
+            for ( Map.Entry<Long, Bucket> entry : buckets.entrySet() ) {
+                out.writeLong( entry.getKey() );
+                out.writeInt( entry.getValue().handles.size() );
+                for ( EventFactHandle handle : entry.getValue().handles ) {
+                    out.writeObject( handle );
+                }
+            }
+        }
+    }
+}
@@ -56,7 +56,7 @@ public class SlidingTimeWindow
     // stateless job
     public static final BehaviorJob job = new BehaviorJob();
 
-    private int        nodeId;
+    protected int      nodeId;
 
     public SlidingTimeWindow() {
         this( 0 );
@@ -238,6 +238,13 @@ public class SlidingTimeWindow
         }
     }
 
+    /**
+     * Returns the handle whose expiration the next scheduled job is waiting for
+     */
+    public EventFactHandle getNextExpiringHandle(final Object context) {
+        return ((SlidingTimeWindowContext) context).queue.peek();
+    }
+
     public long getExpirationOffset() {
         return this.size;
     }
@@ -294,10 +301,8 @@ public class SlidingTimeWindow
             // BehaviorJob, no state            
             BehaviorJobContext bjobCtx = ( BehaviorJobContext ) jobCtx;
             
-            // write out SlidingTimeWindowContext
-            SlidingTimeWindowContext slCtx = ( SlidingTimeWindowContext ) bjobCtx.behaviorContext;
-  
-            EventFactHandle handle = slCtx.getQueue().peek();
+            // write out the next expiring handle of the window context
+            EventFactHandle handle = ((SlidingTimeWindow) bjobCtx.behavior).getNextExpiringHandle( bjobCtx.behaviorContext );
             outputCtx.writeInt( handle.getId() );
 
 //            BetaNode node = (BetaNode) handle.getRightTupleSink();
@@ -317,10 +322,8 @@ public class SlidingTimeWindow
                                MarshallerWriteContext outputCtx) {
             // BehaviorJob, no state            
             BehaviorJobContext bjobCtx = ( BehaviorJobContext ) jobCtx;
-            // write out SlidingTimeWindowContext
-            SlidingTimeWindowContext slCtx = ( SlidingTimeWindowContext ) bjobCtx.behaviorContext;
-  
-            EventFactHandle handle = slCtx.getQueue().peek();
+            // write out the next expiring handle of the window context
+            EventFactHandle handle = ((SlidingTimeWindow) bjobCtx.behavior).getNextExpiringHandle( bjobCtx.behaviorContext );
             
             return ProtobufMessages.Timers.Timer.newBuilder()
                     .setType( ProtobufMessages.Timers.TimerType.BEHAVIOR )
@@ -467,7 +470,7 @@ public class SlidingTimeWindow
             int i = inCtx.readInt();
             
             this.behavior = (SlidingTimeWindow) windowNode.getBehaviors()[i];
-            this.context =  ( SlidingTimeWindowContext ) behaviorContext[i];
+            this.context =  behaviorContext[i];
             pctx = null;
         }
         
@@ -483,7 +486,7 @@ public class SlidingTimeWindow
             int i = 0; //  <==== this needs fixing
             
             this.behavior = (SlidingTimeWindow) windowNode.getBehaviors()[i];
-            this.context =  ( SlidingTimeWindowContext ) behaviorContext[i];
+            this.context =  behaviorContext[i];
             pctx = null;
         }
 
@@ -501,16 +504,12 @@ public class SlidingTimeWindow
         public void write(MarshallerWriteContext outputCtx) throws IOException {
             outputCtx.writeShort( WorkingMemoryAction.WorkingMemoryBehahviourRetract );
 
-            // write out SlidingTimeWindowContext
-            SlidingTimeWindowContext slCtx = ( SlidingTimeWindowContext ) context;
-
-            EventFactHandle handle = slCtx.getQueue().peek();
+            // write out the next expiring handle of the window context
+            EventFactHandle handle = ((SlidingTimeWindow) behavior).getNextExpiringHandle( context );
             outputCtx.writeInt( handle.getId() );
         }
             
         public ProtobufMessages.ActionQueue.Action serialize(MarshallerWriteContext outputCtx) {
-            SlidingTimeWindowContext slCtx = ( SlidingTimeWindowContext ) context;
-            
             ProtobufMessages.ActionQueue.BehaviorExpire _be = ProtobufMessages.ActionQueue.BehaviorExpire.newBuilder()
                     .setNodeId( nodeId )
                     .build();
@@ -60,12 +60,13 @@ import static org.drools.core.util.StringUtils.skipBlanks;
 
 public class MvelConstraint extends MutableTypeConstraint implements IndexableConstraint, AcceptsReadAccessor {
     protected static final boolean TEST_JITTING = false;
-    protected static final int JIT_THRESOLD = 20; // Integer.MAX_VALUE;
 
     private static final Logger logger = LoggerFactory.getLogger(MvelConstraint.class);
 
     protected final transient AtomicInteger invocationCounter = new AtomicInteger(1);
     protected transient boolean jitted = false;
+    // read from the kbase configuration when the condition evaluator is created
+    private transient int jittingThreshold;
 
     private Set<String> packageNames;
     protected String expression;
@@ -223,26 +224,65 @@ public class MvelConstraint extends MutableTypeConstraint implements IndexableCo
                 }
             }
 
-            if (!TEST_JITTING && !isDynamic && invocationCounter.getAndIncrement() == JIT_THRESOLD) {
-                jitEvaluator(handle, workingMemory, leftTuple);
+            // a negative threshold disables jitting, so this constraint is always evaluated in interpreted mode
+            if (!TEST_JITTING && !isDynamic && jittingThreshold >= 0) {
+                // with eager jitting the expression has been compiled while building the kbase,
+                // and the jitting is submitted in background as soon as it is first evaluated
+                int evaluationsBeforeJitting = jittingThreshold == 0 ? 1 : jittingThreshold;
+                if (invocationCounter.getAndIncrement() == evaluationsBeforeJitting) {
+                    jitEvaluator(handle, workingMemory, leftTuple);
+                }
             }
         }
         return conditionEvaluator.evaluate(handle, workingMemory, leftTuple);
     }
 
     protected void createMvelConditionEvaluator(InternalWorkingMemory workingMemory) {
+        jittingThreshold = workingMemory.getKnowledgeBase().getConfiguration().getJittingThreshold();
         if (compilationUnit != null) {
-            MVELDialectRuntimeData data = getMVELDialectRuntimeData(workingMemory);
-            ExecutableStatement statement = (ExecutableStatement)compilationUnit.getCompiledExpression(data, evaluationContext);
-            ParserConfiguration configuration = statement instanceof CompiledExpression ?
-                    ((CompiledExpression)statement).getParserConfiguration() :
-                    data.getParserConfiguration();
-            conditionEvaluator = new MvelConditionEvaluator(compilationUnit, configuration, statement, declarations, getAccessedClass());
+            createMvelConditionEvaluator(getMVELDialectRuntimeData(workingMemory));
         } else {
             conditionEvaluator = new MvelConditionEvaluator(getParserConfiguration(workingMemory), expression, declarations, getAccessedClass());
         }
     }
 
+    private void createMvelConditionEvaluator(MVELDialectRuntimeData data) {
+        ExecutableStatement statement = (ExecutableStatement)compilationUnit.getCompiledExpression(data, evaluationContext);
+        ParserConfiguration configuration = statement instanceof CompiledExpression ?
+                ((CompiledExpression)statement).getParserConfiguration() :
+                data.getParserConfiguration();
+        conditionEvaluator = new MvelConditionEvaluator(compilationUnit, configuration, statement, declarations, getAccessedClass());
+    }
+
+    /**
+     * Compiles the MVEL expression of this constraint while the kbase is being built,
+     * instead of doing it lazily on its first evaluation.
+     */
+    public void compileEvaluator(InternalKnowledgeBase kBase) {
+        if (conditionEvaluator != null || compilationUnit == null) {
+            return;
+        }
+        jittingThreshold = kBase.getConfiguration().getJittingThreshold();
+        MVELDialectRuntimeData data = getMVELDialectRuntimeData(kBase);
+        if (data != null) {
+            createMvelConditionEvaluator(data);
+        }
+    }
+
+    /**
+     * @return true if the MVEL expression of this constraint has already been compiled
+     */
+    public boolean isEvaluatorCompiled() {
+        return conditionEvaluator != null;
+    }
+
+    /**
+     * @return true if this constraint is evaluated by a jitted evaluator
+     */
+    public boolean isJitted() {
+        return conditionEvaluator != null && !(conditionEvaluator instanceof MvelConditionEvaluator);
+    }
+
     protected boolean forceJitEvaluator(InternalFactHandle handle, InternalWorkingMemory workingMemory, LeftTuple leftTuple) {
         boolean mvelValue;
         try {
@@ -522,6 +562,7 @@ public class MvelConstraint extends MutableTypeConstraint implements IndexableCo
         clone.isUnification = isUnification;
         clone.isDynamic = isDynamic;
         clone.conditionEvaluator = conditionEvaluator;
+        clone.jittingThreshold = jittingThreshold;
         clone.compilationUnit = compilationUnit != null ? compilationUnit.clone() : null;
         return clone;
     }
@@ -581,8 +622,12 @@ public class MvelConstraint extends MutableTypeConstraint implements IndexableCo
     }
 
     protected MVELDialectRuntimeData getMVELDialectRuntimeData(InternalWorkingMemory workingMemory) {
+        return getMVELDialectRuntimeData(workingMemory.getKnowledgeBase());
+    }
+
+    private MVELDialectRuntimeData getMVELDialectRuntimeData(InternalKnowledgeBase kBase) {
         for (String packageName : packageNames) {
-            InternalKnowledgePackage pkg = workingMemory.getKnowledgeBase().getPackage(packageName);
+            InternalKnowledgePackage pkg = kBase.getPackage(packageName);
             if (pkg != null) {
                 return ((MVELDialectRuntimeData) pkg.getDialectRuntimeRegistry().getDialectData("mvel"));
             }
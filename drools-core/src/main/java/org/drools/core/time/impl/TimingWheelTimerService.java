@@ -0,0 +1,399 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.time.impl;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.drools.core.time.AcceptsTimerJobFactoryManager;
+import org.drools.core.time.InternalSchedulerService;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.JobHandle;
+import org.drools.core.time.TimerService;
+import org.drools.core.time.Trigger;
+import org.kie.api.time.SessionClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A realtime Scheduler implementation based on a hashed timing wheel,
+ * meant for sessions with very large numbers of timers and expiring events.
+ *
+ * Scheduling and cancelling a job are O(1) operations that just enqueue the job
+ * in a lock free queue, while a single worker thread moves the jobs into the
+ * buckets of the wheel and executes the expired ones once every tick. Jobs scheduled
+ * farther in the future than a whole revolution of the wheel are kept in the bucket
+ * with the number of remaining rounds. The price for this is that jobs are fired with
+ * the precision of a tick, instead of the millisecond precision of the JDKTimerService.
+ *
+ * It can be used in place of the default JDKTimerService through the
+ * drools.timerService session property.
+ */
+public class TimingWheelTimerService
+        implements
+        TimerService,
+        SessionClock,
+        InternalSchedulerService,
+        AcceptsTimerJobFactoryManager {
+
+    private static final Logger logger = LoggerFactory.getLogger( TimingWheelTimerService.class );
+
+    public static final long DEFAULT_TICK_DURATION = 10;
+    public static final int  DEFAULT_WHEEL_SIZE    = 512;
+
+    private static final int WORKER_INIT     = 0;
+    private static final int WORKER_STARTED  = 1;
+    private static final int WORKER_SHUTDOWN = 2;
+
+    private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+    private AtomicLong                    idCounter         = new AtomicLong();
+
+    protected TimerJobFactoryManager      jobFactoryManager = DefaultTimerJobFactoryManager.instance;
+
+    private final long                    tickDuration;
+    private final Bucket[]                wheel;
+    private final int                     mask;
+
+    private final Queue<Timeout>          pendingTimeouts   = new ConcurrentLinkedQueue<Timeout>();
+    private final Queue<Timeout>          cancelledTimeouts = new ConcurrentLinkedQueue<Timeout>();
+
+    private final AtomicInteger           workerState       = new AtomicInteger( WORKER_INIT );
+    private final Thread                  workerThread;
+    private final CountDownLatch          startTimeInitialized = new CountDownLatch( 1 );
+    private volatile long                 startTime;
+
+    public TimingWheelTimerService() {
+        this( DEFAULT_TICK_DURATION, DEFAULT_WHEEL_SIZE );
+    }
+
+    /**
+     * @param tickDuration the duration of a tick in milliseconds
+     * @param wheelSize the number of buckets of the wheel, rounded up to the next power of 2
+     */
+    public TimingWheelTimerService(long tickDuration, int wheelSize) {
+        if ( tickDuration <= 0 ) {
+            throw new IllegalArgumentException( "Tick duration must be greater than 0: " + tickDuration );
+        }
+        if ( wheelSize <= 0 || wheelSize > 1 << 30 ) {
+            throw new IllegalArgumentException( "Wheel size must be between 1 and 2^30: " + wheelSize );
+        }
+        this.tickDuration = tickDuration;
+        int size = 1;
+        while ( size < wheelSize ) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for ( int i = 0; i < size; i++ ) {
+            this.wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+
+        this.workerThread = new Thread( new Worker(), "drools-timing-wheel" );
+        this.workerThread.setDaemon( true );
+    }
+
+    public void setTimerJobFactoryManager(TimerJobFactoryManager timerJobFactoryManager) {
+        this.jobFactoryManager = timerJobFactoryManager;
+    }
+
+    public void setCounter(long counter) {
+        idCounter = new AtomicLong( counter );
+    }
+
+    public TimerJobFactoryManager getTimerJobFactoryManager() {
+        return this.jobFactoryManager;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    public long getCurrentTime() {
+        return System.currentTimeMillis();
+    }
+
+    public void shutdown() {
+        if ( workerState.getAndSet( WORKER_SHUTDOWN ) == WORKER_STARTED ) {
+            workerThread.interrupt();
+        }
+    }
+
+    public JobHandle scheduleJob(Job job,
+                                 JobContext ctx,
+                                 Trigger trigger) {
+        Date date = trigger.hasNextFireTime();
+        if ( date != null ) {
+            TimingWheelJobHandle jobHandle = new TimingWheelJobHandle( idCounter.getAndIncrement() );
+
+            TimerJobInstance jobInstance = jobFactoryManager.createTimerJobInstance( job,
+                                                                                     ctx,
+                                                                                     trigger,
+                                                                                     jobHandle,
+                                                                                     this );
+            jobHandle.setTimerJobInstance( jobInstance );
+            internalSchedule( jobInstance );
+
+            return jobHandle;
+        } else {
+            return null;
+        }
+    }
+
+    public void internalSchedule(TimerJobInstance timerJobInstance) {
+        start();
+
+        long delay = timerJobInstance.getTrigger().hasNextFireTime().getTime() - System.currentTimeMillis();
+        Timeout timeout = new Timeout( timerJobInstance,
+                                       elapsedTime() + Math.max( delay, 0 ) );
+
+        ((TimingWheelJobHandle) timerJobInstance.getJobHandle()).setTimeout( timeout );
+        jobFactoryManager.addTimerJobInstance( timerJobInstance );
+        pendingTimeouts.add( timeout );
+    }
+
+    public boolean removeJob(JobHandle jobHandle) {
+        jobHandle.setCancel( true );
+        TimingWheelJobHandle wheelJobHandle = (TimingWheelJobHandle) jobHandle;
+        jobFactoryManager.removeTimerJobInstance( wheelJobHandle.getTimerJobInstance() );
+        Timeout timeout = wheelJobHandle.getTimeout();
+        return timeout != null && timeout.cancel();
+    }
+
+    public long getTimeToNextJob() {
+        return 0;
+    }
+
+    public Collection<TimerJobInstance> getTimerJobInstances(long id) {
+        return jobFactoryManager.getTimerJobInstances();
+    }
+
+    private void start() {
+        if ( workerState.get() == WORKER_INIT && workerState.compareAndSet( WORKER_INIT, WORKER_STARTED ) ) {
+            workerThread.start();
+        }
+        if ( workerState.get() == WORKER_SHUTDOWN ) {
+            throw new IllegalStateException( "Cannot schedule a job on a timer service that has been shut down" );
+        }
+        // the deadlines are relative to the start time, so wait until the worker initializes it
+        while ( startTime == 0 ) {
+            try {
+                startTimeInitialized.await();
+            } catch ( InterruptedException e ) {
+                // not interruptible, the worker is about to initialize the start time
+            }
+        }
+    }
+
+    private long elapsedTime() {
+        return ( System.nanoTime() - startTime ) / 1000000L;
+    }
+
+    private class Worker implements Runnable {
+
+        private long tick;
+
+        public void run() {
+            startTime = System.nanoTime();
+            if ( startTime == 0 ) {
+                // 0 is used as the not yet initialized marker
+                startTime = 1;
+            }
+            startTimeInitialized.countDown();
+
+            while ( workerState.get() == WORKER_STARTED ) {
+                long deadline = waitForNextTick();
+                if ( deadline >= 0 ) {
+                    processCancelledTimeouts();
+                    transferTimeoutsToBuckets();
+                    wheel[(int) ( tick & mask )].expireTimeouts( deadline );
+                    tick++;
+                }
+            }
+        }
+
+        private long waitForNextTick() {
+            long deadline = tickDuration * ( tick + 1 );
+            while ( true ) {
+                long currentTime = elapsedTime();
+                long sleepTime = deadline - currentTime;
+                if ( sleepTime <= 0 ) {
+                    return currentTime;
+                }
+                try {
+                    Thread.sleep( sleepTime );
+                } catch ( InterruptedException e ) {
+                    if ( workerState.get() == WORKER_SHUTDOWN ) {
+                        return -1;
+                    }
+                }
+            }
+        }
+
+        private void transferTimeoutsToBuckets() {
+            for ( int i = 0; i < MAX_TRANSFERS_PER_TICK; i++ ) {
+                Timeout timeout = pendingTimeouts.poll();
+                if ( timeout == null ) {
+                    break;
+                }
+                if ( timeout.isCancelled() ) {
+                    continue;
+                }
+
+                long calculated = timeout.deadline / tickDuration;
+                timeout.remainingRounds = ( calculated - tick ) / wheel.length;
+
+                // a timeout that is already past its deadline goes in the current bucket
+                long ticks = Math.max( calculated, tick );
+                wheel[(int) ( ticks & mask )].add( timeout );
+            }
+        }
+
+        private void processCancelledTimeouts() {
+            for ( Timeout timeout = cancelledTimeouts.poll(); timeout != null; timeout = cancelledTimeouts.poll() ) {
+                if ( timeout.bucket != null ) {
+                    timeout.bucket.remove( timeout );
+                }
+            }
+        }
+    }
+
+    private static class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if ( head == null ) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void expireTimeouts(long deadline) {
+            Timeout timeout = head;
+            while ( timeout != null ) {
+                Timeout next = timeout.next;
+                if ( timeout.isCancelled() ) {
+                    remove( timeout );
+                } else if ( timeout.remainingRounds <= 0 ) {
+                    if ( timeout.deadline <= deadline ) {
+                        remove( timeout );
+                        timeout.expire();
+                    }
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            if ( timeout.bucket != this ) {
+                return;
+            }
+            if ( timeout.prev != null ) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if ( timeout.next != null ) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    private class Timeout {
+        private static final int ST_INIT      = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED   = 2;
+
+        private final TimerJobInstance timerJobInstance;
+        private final long             deadline;
+        private final AtomicInteger    state = new AtomicInteger( ST_INIT );
+
+        // only accessed by the worker thread
+        private long                   remainingRounds;
+        private Timeout                next;
+        private Timeout                prev;
+        private Bucket                 bucket;
+
+        private Timeout(TimerJobInstance timerJobInstance, long deadline) {
+            this.timerJobInstance = timerJobInstance;
+            this.deadline = deadline;
+        }
+
+        private boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        private boolean cancel() {
+            if ( !state.compareAndSet( ST_INIT, ST_CANCELLED ) ) {
+                return false;
+            }
+            // the bucket is owned by the worker thread, that will unlink the timeout on the next tick
+            cancelledTimeouts.add( this );
+            return true;
+        }
+
+        private void expire() {
+            if ( !state.compareAndSet( ST_INIT, ST_EXPIRED ) ) {
+                return;
+            }
+            try {
+                ((Callable<Void>) timerJobInstance).call();
+            } catch ( Exception e ) {
+                logger.error( "Exception running timer job: ", e );
+            }
+        }
+    }
+
+    public static class TimingWheelJobHandle extends DefaultJobHandle
+            implements
+            JobHandle {
+
+        private static final long serialVersionUID = 510l;
+
+        private transient Timeout timeout;
+
+        public TimingWheelJobHandle(long id) {
+            super( id );
+        }
+
+        private Timeout getTimeout() {
+            return timeout;
+        }
+
+        private void setTimeout(Timeout timeout) {
+            this.timeout = timeout;
+        }
+    }
+}
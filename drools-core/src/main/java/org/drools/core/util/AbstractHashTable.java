@@ -16,9 +16,11 @@
 
 package org.drools.core.util;
 
+import org.drools.core.base.ValueType;
 import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.rule.Declaration;
 import org.drools.core.rule.IndexEvaluator;
+import org.drools.core.rule.constraint.MvelConstraint;
 import org.drools.core.spi.InternalReadAccessor;
 import org.drools.core.spi.ReadAccessor;
 import org.drools.core.util.index.LeftTupleIndexHashTable;
@@ -519,6 +521,145 @@ public abstract class AbstractHashTable
         }
     }
 
+    /**
+     * Creates the Index for a single field, using a SingleLongIndex when both sides
+     * of the constraint are integral numbers of the same type, so that neither hashing
+     * nor equality checks need to box the key.
+     */
+    public static Index createSingleIndex(final FieldIndex[] indexes,
+                                          final int startResult) {
+        if ( SingleLongIndex.isLongIndex( indexes[0] ) ) {
+            return new SingleLongIndex( indexes,
+                                        startResult );
+        }
+        return new SingleIndex( indexes,
+                                startResult );
+    }
+
+    public static class SingleLongIndex
+        implements
+        Index {
+
+        private static final long    serialVersionUID = 510l;
+
+        private InternalReadAccessor extractor;
+        private Declaration          declaration;
+        private IndexEvaluator       evaluator;
+        private boolean              nullable;
+
+        private int                  startResult;
+
+        public SingleLongIndex() {
+
+        }
+
+        public SingleLongIndex(final FieldIndex[] indexes,
+                               final int startResult) {
+            this.startResult = startResult;
+
+            this.extractor = indexes[0].extractor;
+            this.declaration = indexes[0].declaration;
+            this.evaluator = indexes[0].evaluator;
+            this.nullable = !this.extractor.getValueType().getClassType().isPrimitive();
+        }
+
+        public static boolean isLongIndex(final FieldIndex fieldIndex) {
+            if ( !(fieldIndex.evaluator instanceof MvelConstraint.PlainIndexEvaluator) || fieldIndex.declaration == null ) {
+                return false;
+            }
+            ValueType rightType = fieldIndex.extractor.getValueType();
+            ValueType leftType = fieldIndex.declaration.getValueType();
+            // boxed values of different types are never equal, so both sides must have the same type
+            return rightType != null && rightType.isIntegerNumber() &&
+                   rightType.getClassType() != null && leftType != null &&
+                   rightType.getClassType() == leftType.getClassType();
+        }
+
+        public void readExternal(ObjectInput in) throws IOException,
+                                                ClassNotFoundException {
+            extractor = (InternalReadAccessor) in.readObject();
+            declaration = (Declaration) in.readObject();
+            evaluator = (IndexEvaluator) in.readObject();
+            nullable = in.readBoolean();
+            startResult = in.readInt();
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeObject( extractor );
+            out.writeObject( declaration );
+            out.writeObject( evaluator );
+            out.writeBoolean( nullable );
+            out.writeInt( startResult );
+        }
+
+        public FieldIndex getFieldIndex(int index) {
+            if ( index > 0 ) {
+                throw new IllegalArgumentException( "IndexUtil position " + index + " does not exist" );
+            }
+            return new FieldIndex( extractor,
+                                   declaration,
+                                   evaluator );
+        }
+
+        public int hashCodeOf(final Object object) {
+            return hashCodeOf( this.extractor, object );
+        }
+
+        public int hashCodeOf(final LeftTuple tuple) {
+            return hashCodeOf( this.declaration.getExtractor(), tuple.get( this.declaration ).getObject() );
+        }
+
+        private int hashCodeOf(final InternalReadAccessor reader,
+                               final Object object) {
+            int hashCode = this.startResult;
+            if ( !this.nullable || !reader.isNullValue( null, object ) ) {
+                final long value = reader.getLongValue( null, object );
+                hashCode = LeftTupleIndexHashTable.PRIME * hashCode + (int) (value ^ (value >>> 32));
+            } else {
+                hashCode = LeftTupleIndexHashTable.PRIME * hashCode;
+            }
+            return rehash( hashCode );
+        }
+
+        public boolean equal(final Object right,
+                             final LeftTuple tuple) {
+            return equal( this.declaration.getExtractor(),
+                          tuple.get( this.declaration ).getObject(),
+                          this.extractor,
+                          right );
+        }
+
+        public boolean equal(final Object object1,
+                             final Object object2) {
+            return equal( this.extractor,
+                          object1,
+                          this.extractor,
+                          object2 );
+        }
+
+        public boolean equal(final LeftTuple tuple1,
+                             final LeftTuple tuple2) {
+            return equal( this.declaration.getExtractor(),
+                          tuple1.get( this.declaration ).getObject(),
+                          this.declaration.getExtractor(),
+                          tuple2.get( this.declaration ).getObject() );
+        }
+
+        private boolean equal(final InternalReadAccessor reader1,
+                              final Object object1,
+                              final InternalReadAccessor reader2,
+                              final Object object2) {
+            if ( this.nullable ) {
+                boolean isNull1 = reader1.isNullValue( null, object1 );
+                boolean isNull2 = reader2.isNullValue( null, object2 );
+                if ( isNull1 || isNull2 ) {
+                    return isNull1 && isNull2;
+                }
+            }
+            return reader1.getLongValue( null, object1 ) == reader2.getLongValue( null, object2 );
+        }
+    }
+
     public static class DoubleCompositeIndex
         implements
         Index {
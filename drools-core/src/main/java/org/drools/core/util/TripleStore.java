@@ -26,48 +26,80 @@ import java.util.List;
 
 import org.kie.api.runtime.rule.Variable;
 
-
-public class TripleStore extends AbstractHashTable implements Externalizable {
-
+/**
+ * Stores the triples used by the trait proxies to hold their soft fields.
+ *
+ * The triples are not stored as objects, but grouped by subject: each subject has a single
+ * record, found by identity in a hash table, that keeps its properties and values in two
+ * parallel arrays. This saves an object and a hash table entry per triple, makes reading a
+ * property a hash lookup followed by a scan of the few properties of its subject, and lets
+ * the queries on a given subject avoid scanning the whole store.
+ *
+ * Subjects are compared by identity, except for Strings that are compared by equality.
+ * Triples returned by get and getAll are snapshots: they are not updated by later changes.
+ */
+public class TripleStore implements Externalizable {
 
     public static final String TYPE = "rdfs:type";
     public static final String PROXY = "drools:proxy";
     public static final String VALUE = "drools:hasValue";
 
+    private static final int   DEFAULT_CAPACITY    = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
     private String id;
 
+    private Subject[] table;
+    private float     loadFactor;
+    private int       threshold;
+
+    /** The number of subjects */
+    private int subjectsSize;
+
+    /** The number of triples */
+    private int size;
+
     public TripleStore( ) {
-        super();
-        this.comparator = new TripleKeyComparator();
+        this( DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR );
     }
 
     public TripleStore(final int capacity,
                        final float loadFactor) {
-        super(capacity, loadFactor);
-        this.comparator = new TripleKeyComparator();
+        this.loadFactor = loadFactor;
+        this.table = new Subject[ tableSizeFor( capacity ) ];
+        this.threshold = (int) ( this.table.length * loadFactor );
     }
 
-    public TripleStore(final Entry[] table) {
-        super( table );
-        this.comparator = new TripleKeyComparator();
-    }
-
-    public TripleStore(final float loadFactor,
-                       final Entry[] table) {
-        super( loadFactor, table );
-        this.comparator = new TripleKeyComparator();
-    }
-
-    @Override
     public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
-        super.readExternal(in);
         id = (String) in.readObject();
+        loadFactor = in.readFloat();
+        int subjects = in.readInt();
+        table = new Subject[ tableSizeFor( (int) ( subjects / loadFactor ) + 1 ) ];
+        threshold = (int) ( table.length * loadFactor );
+        for ( int i = 0; i < subjects; i++ ) {
+            Subject subject = getOrCreateSubject( in.readObject() );
+            int properties = in.readInt();
+            for ( int j = 0; j < properties; j++ ) {
+                subject.add( in.readObject(), in.readObject() );
+                size++;
+            }
+        }
     }
 
-    @Override
     public void writeExternal(ObjectOutput out) throws IOException {
-        super.writeExternal(out);
-        out.writeObject(id);
+        out.writeObject( id );
+        out.writeFloat( loadFactor );
+        out.writeInt( subjectsSize );
+        for ( Subject bucket : table ) {
+            for ( Subject subject = bucket; subject != null; subject = subject.next ) {
+                out.writeObject( subject.instance );
+                out.writeInt( subject.size );
+                for ( int i = 0; i < subject.size; i++ ) {
+                    out.writeObject( subject.properties[ i ] );
+                    out.writeObject( subject.values[ i ] );
+                }
+            }
+        }
     }
 
     public String getId() {
@@ -78,242 +110,354 @@ public class TripleStore extends AbstractHashTable implements Externalizable {
         this.id = id;
     }
 
+    /**
+     * @return the number of triples in this store
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Sets the value of the property of the triple's subject, replacing the existing one if any
+     * @return true if the property already had a value
+     */
     public boolean put(final Triple triple) {
-        boolean ret = put( triple, true );
-        return ret;
+        return put( triple, true );
     }
 
+    /**
+     * Adds the triple, even if its property already has a value for the same subject
+     */
     public boolean add( final Triple triple ) {
-        return put(triple, false);
+        return put( triple, false );
     }
 
     public boolean put(final Triple triple,
                        final boolean checkExists) {
-        final int hashCode = this.comparator.hashCodeOf( triple );
-        final int index = indexOf( hashCode,
-                this.table.length );
+        return put( triple.getInstance(), triple.getProperty(), triple.getValue(), checkExists );
+    }
 
+    /**
+     * Sets the value of a property of the given subject, replacing the existing one if any,
+     * without creating an intermediate triple
+     * @return true if the property already had a value
+     */
+    public boolean put(final Object instance,
+                       final Object property,
+                       final Object value) {
+        return put( instance, property, value, true );
+    }
 
-        // scan the linked entries to see if it exists
+    private boolean put(final Object instance,
+                        final Object property,
+                        final Object value,
+                        final boolean checkExists) {
+        Subject subject = getOrCreateSubject( instance );
         if ( checkExists ) {
-            Object val = triple.getValue();
-            ((TripleImpl) triple).setValue( Variable.v );
-            TripleImpl current = (TripleImpl) this.table[index];
-            while ( current != null ) {
-                if ( hashCode == this.comparator.hashCodeOf( current ) && this.comparator.equal( triple,
-                        current ) ) {
-                    current.setValue( val );
-                    return true;
-                }
-                current = (TripleImpl) current.getNext();
+            int index = subject.lastIndexOf( property, Variable.v, subject.size );
+            if ( index >= 0 ) {
+                subject.values[ index ] = value;
+                return true;
             }
-            ((TripleImpl) triple).setValue( val );
         }
+        subject.add( property, value );
+        size++;
+        return false;
+    }
 
-        // We aren't checking the key exists, or it didn't find the key
-        TripleImpl timpl = ( TripleImpl ) triple;
-        timpl.setNext( this.table[index] );
-        this.table[index] = timpl;
-
-        if ( this.size++ >= this.threshold ) {
-            resize( 2 * this.table.length );
+    /**
+     * Returns the value of a property of the given subject, or null if it doesn't have any,
+     * without creating an intermediate triple
+     */
+    public Object getValue(final Object instance,
+                           final Object property) {
+        Subject subject = getSubject( instance );
+        if ( subject == null ) {
+            return null;
         }
-        return false;
+        int index = subject.lastIndexOf( property, Variable.v, subject.size );
+        return index >= 0 ? subject.values[ index ] : null;
     }
 
+    /**
+     * Returns a triple matching the given one, where any of the subject, property or value
+     * can be Variable.v to match any of them, or null if there is no such triple
+     */
     public Triple get(final Triple triple) {
-        final int hashCode = this.comparator.hashCodeOf( triple );
-        final int index = indexOf( hashCode,
-                                   this.table.length );
-
-        // scan the linked entries to see if it exists
-        TripleImpl current = (TripleImpl) this.table[index];
-        while ( current != null ) {
-            if ( hashCode == this.comparator.hashCodeOf( current ) && this.comparator.equal( triple,
-                                                                                             current ) ) {
-                return current;
+        Object instance = triple.getInstance();
+        if ( instance != Variable.v ) {
+            Subject subject = getSubject( instance );
+            return subject != null ? subject.getLast( triple ) : null;
+        }
+        for ( Subject bucket : table ) {
+            for ( Subject subject = bucket; subject != null; subject = subject.next ) {
+                Triple t = subject.getLast( triple );
+                if ( t != null ) {
+                    return t;
+                }
             }
-            current = (TripleImpl) current.getNext();
         }
-
         return null;
     }
 
+    /**
+     * Returns all the triples matching the given one, where any of the subject, property or value
+     * can be Variable.v to match any of them
+     */
     public Collection<Triple> getAll(final Triple triple) {
         List<Triple> list = new ArrayList<Triple>();
-
-        if ( triple.getInstance() != Variable.v && triple.getProperty() != Variable.v ) {
-            Triple t =  get( triple );
-            if ( t != null ) {
-
-                Triple current = t;
-                while ( current != null ) {
-                    if ( this.comparator.equal( triple,current ) ) {
-                        list.add( current );
-                    }
-                    current = (Triple) current.getNext();
-                }
-
+        Object instance = triple.getInstance();
+        if ( instance != Variable.v ) {
+            Subject subject = getSubject( instance );
+            if ( subject != null ) {
+                subject.collect( triple, list );
             }
             return list;
         }
-
-        Iterator iter = this.iterator();
-        Triple tx;
-        while ( ( tx = ((Triple) iter.next()) ) != null ) {
-//            while ( tx != null ) {
-//                Triple current = tx;
-//                while ( current != null ) {
-                    if ( this.comparator.equal( triple, tx ) ) {
-                        list.add( tx );
-                    }
-//                    current = (Triple) current.remove();
-//                }
-//                tx = (TripleImpl) tx.remove();
-//            }
+        for ( Subject bucket : table ) {
+            for ( Subject subject = bucket; subject != null; subject = subject.next ) {
+                subject.collect( triple, list );
+            }
         }
-
         return list;
     }
 
+    public boolean contains( final Triple triple ) {
+        return get( triple ) != null;
+    }
 
-
+    /**
+     * Removes all the triples matching the given one, where any of the subject, property or value
+     * can be Variable.v to match any of them
+     * @return the number of removed triples
+     */
     public int removeAll(final Triple triple) {
+        Object instance = triple.getInstance();
+        if ( instance != Variable.v ) {
+            Subject subject = getSubject( instance );
+            return subject != null ? removeAll( subject, triple ) : 0;
+        }
         int removed = 0;
-        Collection<Triple> coll = getAll( triple );
-        for ( Triple t : coll ) {
-            if ( remove(t) ) {
-                removed++;
+        for ( Subject bucket : table ) {
+            Subject subject = bucket;
+            while ( subject != null ) {
+                // the subject may be unlinked when its last triple is removed
+                Subject next = subject.next;
+                removed += removeAll( subject, triple );
+                subject = next;
             }
         }
         return removed;
     }
 
-
+    /**
+     * Removes a triple with the same subject, property and value of the given one
+     * @return true if a triple has been removed
+     */
     public boolean remove(final Triple triple) {
-        final int hashCode = this.comparator.hashCodeOf( triple );
-        final int index = indexOf( hashCode,
-                this.table.length );
-
-        TripleImpl previous = (TripleImpl) this.table[index];
-        TripleImpl current = previous;
-
-        Triple key = new TripleImpl( triple.getInstance(), triple.getProperty(), Variable.v );
-
-        while ( current != null ) {
-            final TripleImpl next = (TripleImpl) current.getNext();
-            if ( hashCode == this.comparator.hashCodeOf( current ) && this.comparator.equal( key, current ) ) {
-
-                if ( ( current.getValue() == null && triple.getValue() == null )
-                       || ( current.getValue() != null && current.getValue().equals( triple.getValue() ) ) ) {
-                    if ( previous == current ) {
-                        this.table[index] = next;
-                    } else {
-                        previous.setNext( next );
-                    }
-                    current.setNext( null );
-                    this.size--;
-                    return true;
-                }
+        if ( triple == null ) {
+            return false;
+        }
+        Subject subject = getSubject( triple.getInstance() );
+        if ( subject == null ) {
+            return false;
+        }
+        Object property = triple.getProperty();
+        Object value = triple.getValue();
+        for ( int i = subject.lastIndexOf( property, Variable.v, subject.size ); i >= 0; i = subject.lastIndexOf( property, Variable.v, i ) ) {
+            Object current = subject.values[ i ];
+            if ( current == null ? value == null : current.equals( value ) ) {
+                removeAt( subject, i );
+                return true;
             }
-            previous = current;
-            current = next;
         }
         return false;
     }
 
+    private int removeAll(final Subject subject,
+                          final Triple triple) {
+        int removed = 0;
+        for ( int i = subject.lastIndexOf( triple.getProperty(), triple.getValue(), subject.size ); i >= 0; i = subject.lastIndexOf( triple.getProperty(), triple.getValue(), i ) ) {
+            removeAt( subject, i );
+            removed++;
+        }
+        return removed;
+    }
 
+    private void removeAt(final Subject subject,
+                          final int index) {
+        subject.removeAt( index );
+        size--;
+        if ( subject.size == 0 ) {
+            removeSubject( subject );
+        }
+    }
 
-    public boolean contains( final Triple triple ) {
-        final int hashCode = this.comparator.hashCodeOf( triple );
-        final int index = indexOf( hashCode,
-                this.table.length );
-
-        // scan the linked entries to see if it exists
-        TripleImpl current = (TripleImpl) this.table[index];
-        while ( current != null ) {
-            if ( hashCode == this.comparator.hashCodeOf( current ) ) {
-                if ( this.comparator.equal( triple, current ) ) {
-                    return true;
-                }
+    private Subject getSubject(final Object instance) {
+        if ( instance == null || instance == Variable.v ) {
+            return null;
+        }
+        int hash = hashOf( instance );
+        for ( Subject subject = table[ hash & ( table.length - 1 ) ]; subject != null; subject = subject.next ) {
+            if ( subject.hash == hash && subject.isFor( instance ) ) {
+                return subject;
             }
-            current = (TripleImpl) current.getNext();
         }
-        return false;
+        return null;
     }
 
-    @Override
-    public int getResizeHashcode(Entry entry) {
-        // TripleStore never caches the hashcode, so it must be recomputed, which is also rehashed.
-        return this.comparator.hashCodeOf( entry );
-    }     
+    private Subject getOrCreateSubject(final Object instance) {
+        Subject subject = getSubject( instance );
+        if ( subject == null ) {
+            subject = new Subject( instance, hashOf( instance ) );
+            int index = subject.hash & ( table.length - 1 );
+            subject.next = table[ index ];
+            table[ index ] = subject;
+            if ( subjectsSize++ >= threshold ) {
+                resize( table.length * 2 );
+            }
+        }
+        return subject;
+    }
 
-    @Override
-    public Entry getBucket(Object object) {
-        final int hashCode = this.comparator.hashCodeOf( object );
-        final int index = indexOf( hashCode,
-                this.table.length );
+    private void removeSubject(final Subject subject) {
+        int index = subject.hash & ( table.length - 1 );
+        Subject previous = null;
+        for ( Subject current = table[ index ]; current != null; current = current.next ) {
+            if ( current == subject ) {
+                if ( previous == null ) {
+                    table[ index ] = current.next;
+                } else {
+                    previous.next = current.next;
+                }
+                current.next = null;
+                subjectsSize--;
+                return;
+            }
+            previous = current;
+        }
+    }
 
-        return this.table[index];
+    private void resize(final int newCapacity) {
+        Subject[] newTable = new Subject[ newCapacity ];
+        for ( Subject bucket : table ) {
+            Subject subject = bucket;
+            while ( subject != null ) {
+                Subject next = subject.next;
+                int index = subject.hash & ( newCapacity - 1 );
+                subject.next = newTable[ index ];
+                newTable[ index ] = subject;
+                subject = next;
+            }
+        }
+        table = newTable;
+        threshold = (int) ( newCapacity * loadFactor );
+    }
+
+    private static int hashOf(final Object instance) {
+        int h = instance instanceof String ? instance.hashCode() : System.identityHashCode( instance );
+        return h ^ ( h >>> 16 );
     }
 
-    public static class TripleKeyComparator implements ObjectComparator {
+    private static int tableSizeFor(final int capacity) {
+        int size = 1;
+        while ( size < capacity && size < ( 1 << 30 ) ) {
+            size <<= 1;
+        }
+        return size;
+    }
 
-        public void writeExternal(ObjectOutput out) throws IOException {
-//            throw new UnsupportedOperationException();
+    @Override
+    public String toString() {
+        return "TripleStore [id=" + id + ", subjects=" + subjectsSize + ", triples=" + size + "]";
+    }
 
+    /**
+     * The triples of a single subject, in insertion order
+     */
+    private static final class Subject {
+        private final Object instance;
+        private final int    hash;
+        private Object[]     properties = new Object[ 4 ];
+        private Object[]     values     = new Object[ 4 ];
+        private int          size;
+        private Subject      next;
+
+        private Subject(Object instance,
+                        int hash) {
+            this.instance = instance;
+            this.hash = hash;
         }
 
-        public void readExternal(ObjectInput in) throws IOException,
-                ClassNotFoundException {
-//            throw new UnsupportedOperationException();
+        private boolean isFor(Object other) {
+            return instance == other || ( instance instanceof String && instance.equals( other ) );
         }
 
-        public int hashCodeOf(Object object) {
-            Triple t = ( Triple ) object;
-            final int prime = 31;
-            int result = 1;
-            result = prime * result + t.getInstance().hashCode();
-            result = prime * result + t.getProperty().hashCode();
-            return result;
+        private void add(Object property,
+                         Object value) {
+            if ( size == properties.length ) {
+                int newLength = size * 2;
+                Object[] newProperties = new Object[ newLength ];
+                Object[] newValues = new Object[ newLength ];
+                System.arraycopy( properties, 0, newProperties, 0, size );
+                System.arraycopy( values, 0, newValues, 0, size );
+                properties = newProperties;
+                values = newValues;
+            }
+            properties[ size ] = property;
+            values[ size ] = value;
+            size++;
         }
 
-        public int rehash(int h) {
-            throw new UnsupportedOperationException();
+        private void removeAt(int index) {
+            int moved = size - index - 1;
+            if ( moved > 0 ) {
+                System.arraycopy( properties, index + 1, properties, index, moved );
+                System.arraycopy( values, index + 1, values, index, moved );
+            }
+            size--;
+            properties[ size ] = null;
+            values[ size ] = null;
         }
 
-        public boolean equal(Object object1,
-                             Object object2) {
-            Triple t1 = ( Triple ) object1;
-            Triple t2 = ( Triple ) object2;
-
-            if ( t1.getInstance() != Variable.v ) {
-                if ( t1.getInstance() == null ) {
-                    return false;
-                } else if ( t1.getInstance() instanceof String ) {
-                    if ( ! t1.getInstance().equals( t2.getInstance() ) ) {
-                        return false;
-                    }
-                } else if ( t1.getInstance() != t2.getInstance() ) {
-                    return false;
+        /**
+         * Returns the index of the most recent triple before the given index matching the given
+         * property and value, where Variable.v matches anything, or -1 if there is none
+         */
+        private int lastIndexOf(Object property,
+                                Object value,
+                                int before) {
+            for ( int i = before - 1; i >= 0; i-- ) {
+                if ( matches( property, properties[ i ] ) && matches( value, values[ i ] ) ) {
+                    return i;
                 }
             }
+            return -1;
+        }
 
-            if ( t1.getProperty() != Variable.v && ! t1.getProperty().equals( t2.getProperty() ) ) {
-                return false;
-            }
-            if ( t1.getValue() != Variable.v ) {
-                if ( t1.getValue() == null ) {
-                    return t2.getValue() == null;
-                } else {
-                    return t1.getValue().equals( t2.getValue() );
+        private Triple getLast(Triple triple) {
+            int index = lastIndexOf( triple.getProperty(), triple.getValue(), size );
+            return index >= 0 ? new TripleImpl( instance, properties[ index ], values[ index ] ) : null;
+        }
+
+        private void collect(Triple triple,
+                             List<Triple> list) {
+            Object property = triple.getProperty();
+            Object value = triple.getValue();
+            for ( int i = 0; i < size; i++ ) {
+                if ( matches( property, properties[ i ] ) && matches( value, values[ i ] ) ) {
+                    list.add( new TripleImpl( instance, properties[ i ], values[ i ] ) );
                 }
             }
-            return true;
-//            // Assuming == for core instance check is fine.
-//            return t1.getInstance() == t2.getInstance()  && t1.getProperty().equals( t2.getProperty() );
         }
 
+        private static boolean matches(Object pattern,
+                                       Object current) {
+            return pattern == Variable.v || pattern == current || ( pattern != null && pattern.equals( current ) );
+        }
     }
-
 }
@@ -73,8 +73,8 @@ public class RightTupleIndexHashTable extends AbstractHashTable
             case 0 :
                 throw new IllegalArgumentException( "FieldIndexHashTable cannot use an index[] of length  0" );
             case 1 :
-                this.index = new SingleIndex( index,
-                                              this.startResult );
+                this.index = createSingleIndex( index,
+                                                this.startResult );
                 break;
             case 2 :
                 this.index = new DoubleCompositeIndex( index,
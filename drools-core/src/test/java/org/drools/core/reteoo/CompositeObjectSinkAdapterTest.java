@@ -36,6 +36,7 @@ import org.drools.core.rule.constraint.MvelConstraint;
 import org.drools.core.spi.InternalReadAccessor;
 import org.drools.core.spi.PropagationContext;
 import org.drools.core.test.model.Cheese;
+import org.drools.core.util.index.IndexUtil;
 import org.junit.Before;
 import org.junit.Test;
 import org.kie.internal.KnowledgeBaseFactory;
@@ -277,6 +278,85 @@ public class CompositeObjectSinkAdapterTest {
 
     }
 
+    @Test
+    public void testRangeIndexedAlphas() {
+        final CompositeObjectSinkAdapter ad = new CompositeObjectSinkAdapter();
+        InternalReadAccessor extractor = store.getReader( Cheese.class,
+                                                          "price",
+                                                          this.getClass().getClassLoader() );
+
+        final AlphaNode gt10 = newRangeAlpha( "price > 10", IndexUtil.ConstraintType.GREATER_THAN, 10, extractor );
+        final AlphaNode ge20 = newRangeAlpha( "price >= 20", IndexUtil.ConstraintType.GREATER_OR_EQUAL, 20, extractor );
+        ad.addObjectSink( gt10 );
+        ad.addObjectSink( ge20 );
+
+        // below the threshold the comparisons are evaluated one by one
+        assertEquals( 2,
+                      ad.otherSinks.size() );
+        assertFalse( ad.rangeIndexes.getFirst().isIndexed() );
+
+        final AlphaNode lt15 = newRangeAlpha( "price < 15", IndexUtil.ConstraintType.LESS_THAN, 15, extractor );
+        final AlphaNode le20 = newRangeAlpha( "price <= 20", IndexUtil.ConstraintType.LESS_OR_EQUAL, 20, extractor );
+        ad.addObjectSink( lt15 );
+        ad.addObjectSink( le20 );
+
+        assertNull( ad.otherSinks );
+        CompositeObjectSinkAdapter.RangeIndex rangeIndex = ad.rangeIndexes.getFirst();
+        assertTrue( rangeIndex.isIndexed() );
+        assertEquals( 4,
+                      ad.getSinks().length );
+        assertSame( ge20,
+                    ad.getMatchingNode( ge20 ) );
+
+        Cheese cheese = new Cheese( "brie", 20 );
+        assertEquals( 2,
+                      rangeIndex.getAscendingMatchesEnd( cheese ) );
+        assertEquals( 1,
+                      rangeIndex.getDescendingMatchesStart( cheese ) );
+        assertSame( le20,
+                    rangeIndex.getDescendingNode( 1 ) );
+
+        cheese.setPrice( 12 );
+        assertEquals( 1,
+                      rangeIndex.getAscendingMatchesEnd( cheese ) );
+        assertSame( gt10,
+                    rangeIndex.getAscendingNode( 0 ) );
+        assertEquals( 0,
+                      rangeIndex.getDescendingMatchesStart( cheese ) );
+
+        cheese.setPrice( 10 );
+        assertEquals( 0,
+                      rangeIndex.getAscendingMatchesEnd( cheese ) );
+
+        //now remove one, check the indexing is undone
+        ad.removeObjectSink( lt15 );
+        ad.removeObjectSink( gt10 );
+        assertFalse( rangeIndex.isIndexed() );
+        assertEquals( 2,
+                      ad.otherSinks.size() );
+
+        ad.removeObjectSink( ge20 );
+        ad.removeObjectSink( le20 );
+        assertNull( ad.otherSinks );
+        assertNull( ad.rangeIndexes );
+    }
+
+    private AlphaNode newRangeAlpha(String expression,
+                                    IndexUtil.ConstraintType constraintType,
+                                    long value,
+                                    InternalReadAccessor extractor) {
+        final MvelConstraint constraint = new MvelConstraint( null,
+                                                              expression,
+                                                              null,
+                                                              constraintType,
+                                                              new LongFieldImpl( value ),
+                                                              extractor );
+        return new AlphaNode( buildContext.getNextId(),
+                              constraint,
+                              new MockObjectSource( buildContext.getNextId() ),
+                              buildContext );
+    }
+
     @Test
     public void testTripleAlphaCharacterConstraint() {
         final CompositeObjectSinkAdapter ad = new CompositeObjectSinkAdapter();
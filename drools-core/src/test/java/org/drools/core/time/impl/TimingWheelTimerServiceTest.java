@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.time.impl;
+
+import java.util.Properties;
+
+import org.drools.core.ClockType;
+import org.drools.core.SessionConfiguration;
+import org.drools.core.time.JobHandle;
+import org.drools.core.time.TimerService;
+import org.drools.core.time.TimerServiceFactory;
+import org.drools.core.time.impl.JDKTimerServiceTest.DelayedTrigger;
+import org.drools.core.time.impl.JDKTimerServiceTest.HelloWorldJob;
+import org.drools.core.time.impl.JDKTimerServiceTest.HelloWorldJobContext;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TimingWheelTimerServiceTest {
+
+    private TimerService newTimerService() {
+        Properties properties = new Properties();
+        properties.setProperty( "drools.timerService", TimingWheelTimerService.class.getName() );
+        SessionConfiguration config = new SessionConfiguration( properties );
+        config.setClockType( ClockType.REALTIME_CLOCK );
+        TimerService timeService = TimerServiceFactory.getTimerService( config );
+        assertTrue( timeService instanceof TimingWheelTimerService );
+        return timeService;
+    }
+
+    @Test
+    public void testSingleExecutionJob() throws Exception {
+        TimerService timeService = newTimerService();
+        HelloWorldJobContext ctx = new HelloWorldJobContext( "hello world", timeService );
+        timeService.scheduleJob( new HelloWorldJob(), ctx, new DelayedTrigger( 100 ) );
+        Thread.sleep( 500 );
+        timeService.shutdown();
+        assertEquals( 1, ctx.getList().size() );
+    }
+
+    @Test
+    public void testRepeatedExecutionJob() throws Exception {
+        TimerService timeService = newTimerService();
+        HelloWorldJobContext ctx = new HelloWorldJobContext( "hello world", timeService );
+        timeService.scheduleJob( new HelloWorldJob(), ctx, new DelayedTrigger( new long[] { 100, 100, 100 } ) );
+        Thread.sleep( 500 );
+        timeService.shutdown();
+        assertEquals( 3, ctx.getList().size() );
+    }
+
+    @Test
+    public void testRepeatedExecutionJobWithRemove() throws Exception {
+        TimerService timeService = newTimerService();
+        HelloWorldJobContext ctx = new HelloWorldJobContext( "hello world", timeService );
+        ctx.setLimit( 3 );
+        JobHandle handle = timeService.scheduleJob( new HelloWorldJob(), ctx,
+                                                    new DelayedTrigger( new long[] { 100, 100, 100, 100, 100, 100, 100, 100 } ) );
+        ctx.setJobHandle( handle );
+        Thread.sleep( 1000 );
+        timeService.shutdown();
+        assertEquals( 5, ctx.getList().size() );
+    }
+
+    @Test
+    public void testRemoveJobBeforeExecution() throws Exception {
+        TimerService timeService = newTimerService();
+        HelloWorldJobContext ctx = new HelloWorldJobContext( "hello world", timeService );
+        JobHandle handle = timeService.scheduleJob( new HelloWorldJob(), ctx, new DelayedTrigger( 200 ) );
+        assertTrue( timeService.removeJob( handle ) );
+        assertFalse( timeService.removeJob( handle ) );
+        Thread.sleep( 400 );
+        timeService.shutdown();
+        assertEquals( 0, ctx.getList().size() );
+    }
+
+    @Test
+    public void testJobsBeyondOneRevolution() throws Exception {
+        // a wheel of 4 ticks of 10ms makes a revolution every 40ms
+        TimingWheelTimerService timeService = new TimingWheelTimerService( 10, 4 );
+        HelloWorldJobContext early = new HelloWorldJobContext( "early", timeService );
+        HelloWorldJobContext late = new HelloWorldJobContext( "late", timeService );
+        timeService.scheduleJob( new HelloWorldJob(), early, new DelayedTrigger( 20 ) );
+        timeService.scheduleJob( new HelloWorldJob(), late, new DelayedTrigger( 300 ) );
+
+        Thread.sleep( 150 );
+        assertEquals( 1, early.getList().size() );
+        assertEquals( 0, late.getList().size() );
+
+        Thread.sleep( 350 );
+        timeService.shutdown();
+        assertEquals( 1, late.getList().size() );
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testScheduleAfterShutdown() {
+        TimerService timeService = newTimerService();
+        timeService.shutdown();
+        timeService.scheduleJob( new HelloWorldJob(),
+                                 new HelloWorldJobContext( "hello world", timeService ),
+                                 new DelayedTrigger( 100 ) );
+    }
+}
@@ -41,6 +41,7 @@ import java.util.List;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class RightTupleIndexHashTableTest {
 
@@ -570,6 +571,55 @@ public class RightTupleIndexHashTableTest {
         }
     }
 
+    @Test
+    public void testIntegralIndexUsesLongKeys() throws Exception {
+        final InternalReadAccessor extractor = store.getReader( Cheese.class,
+                                                                "price",
+                                                                getClass().getClassLoader() );
+
+        final Pattern pattern = new Pattern( 0,
+                                             new ClassObjectType( Cheese.class ) );
+
+        final Declaration declaration = new Declaration( "priceOfCheese",
+                                                         extractor,
+                                                         pattern );
+
+        final FieldIndex fieldIndex = new FieldIndex( extractor,
+                                                      declaration,
+                                                      MvelConstraint.INDEX_EVALUATOR );
+
+        final RightTupleIndexHashTable map = new RightTupleIndexHashTable( new FieldIndex[]{fieldIndex} );
+        assertTrue( map.getIndex() instanceof AbstractHashTable.SingleLongIndex );
+
+        final RightTuple stiltonRightTuple = new RightTuple( new DefaultFactHandle( 1,
+                                                                                    new Cheese( "stilton", 35 ) ),
+                                                             null );
+        map.add( stiltonRightTuple );
+        map.add( new RightTuple( new DefaultFactHandle( 2,
+                                                        new Cheese( "brie", -35 ) ),
+                                 null ) );
+
+        assertEquals( 2,
+                      map.size() );
+        assertEquals( 2,
+                      tablePopulationSize( map ) );
+
+        final InternalFactHandle cheddarHandle = new DefaultFactHandle( 3,
+                                                                        new Cheese( "cheddar", 35 ) );
+        final RightTupleList list = map.get( new LeftTupleImpl( cheddarHandle,
+                                                                null,
+                                                                true ), cheddarHandle );
+        assertSame( stiltonRightTuple.getFactHandle(),
+                    list.first.getFactHandle() );
+        assertNull( list.first.getNext() );
+
+        final InternalFactHandle goudaHandle = new DefaultFactHandle( 4,
+                                                                      new Cheese( "gouda", 10 ) );
+        assertNull( map.get( new LeftTupleImpl( goudaHandle,
+                                                null,
+                                                true ), goudaHandle ) );
+    }
+
     private int tablePopulationSize(final AbstractHashTable map) throws Exception {
         final Field field = AbstractHashTable.class.getDeclaredField( "table" );
         field.setAccessible( true );
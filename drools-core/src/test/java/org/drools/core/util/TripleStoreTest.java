@@ -284,6 +284,31 @@ public class TripleStoreTest {
 
 
     
+    @Test
+    public void testDirectPutAndGetValue() {
+        TripleStore store = new TripleStore();
+        Individual ind = new Individual();
+        Individual ind2 = new Individual();
+
+        assertFalse( store.put( ind, "hasName", "mark" ) );
+        assertFalse( store.put( ind2, "hasName", "davide" ) );
+        assertTrue( store.put( ind, "hasName", "mario" ) );
+        assertEquals( 2, store.size() );
+
+        assertEquals( "mario", store.getValue( ind, "hasName" ) );
+        assertEquals( "davide", store.getValue( ind2, "hasName" ) );
+        assertNull( store.getValue( ind, "hasAge" ) );
+        assertNull( store.getValue( new Individual(), "hasName" ) );
+
+        assertEquals( "mario", store.get( new TripleImpl( ind, "hasName", V ) ).getValue() );
+        assertEquals( 1, store.getAll( new TripleImpl( ind, V, V ) ).size() );
+
+        assertTrue( store.remove( new TripleImpl( ind, "hasName", "mario" ) ) );
+        assertNull( store.getValue( ind, "hasName" ) );
+        assertEquals( 1, store.size() );
+        assertEquals( 0, store.getAll( new TripleImpl( ind, V, V ) ).size() );
+    }
+
     public static class Individual {
         
     }
@@ -5,7 +5,14 @@ import java.io.InputStream;
 import java.io.Reader;
 
 import org.drools.compiler.compiler.DecisionTableProvider;
+import org.drools.compiler.compiler.DrlParser;
+import org.drools.compiler.compiler.DroolsParserException;
+import org.drools.compiler.lang.descr.PackageDescr;
+import org.drools.core.builder.conf.impl.DecisionTableConfigurationImpl;
 import org.drools.core.util.StringUtils;
+import org.drools.template.model.DRLOutput;
+import org.drools.template.model.Package;
+import org.kie.api.io.Resource;
 import org.kie.internal.builder.DecisionTableConfiguration;
 import org.kie.internal.builder.DecisionTableInputType;
 import org.kie.internal.builder.KnowledgeBuilderFactory;
@@ -17,12 +24,37 @@ public class DecisionTableProviderImpl
     public String loadFromInputStream(InputStream is,
                                       DecisionTableConfiguration configuration) {
 
-        return compileStream( is,
-                              configuration );
+        Package rulePackage = compileStream( is,
+                                             configuration );
+        if ( rulePackage == null ) {
+            return null;
+        }
+        DRLOutput out = new DRLOutput();
+        rulePackage.renderDRL( out );
+        return out.getDRL();
     }
 
-    private String compileStream(InputStream is,
-                                 DecisionTableConfiguration configuration) {
+    public PackageDescr loadPackageDescr(Resource resource,
+                                         DecisionTableConfiguration configuration,
+                                         DrlParser parser) throws DroolsParserException,
+                                                                  IOException {
+        InputStream is = resource.getInputStream();
+        Package rulePackage;
+        try {
+            rulePackage = compileStream( is,
+                                         configuration );
+        } finally {
+            is.close();
+        }
+        if ( rulePackage == null ) {
+            return null;
+        }
+        return new PackageDescrConverter( parser ).convert( resource,
+                                                            rulePackage );
+    }
+
+    private Package compileStream(InputStream is,
+                                  DecisionTableConfiguration configuration) {
         SpreadsheetCompiler compiler = new SpreadsheetCompiler();
 
         //JBRULES-3005: Sensible default when DecisionTableConfiguration is not provided
@@ -33,23 +65,29 @@ public class DecisionTableProviderImpl
 
         switch ( configuration.getInputType() ) {
             case XLS : {
+                InputType inputType = isStreaming( configuration ) ? InputType.XLSX_STREAMING : InputType.XLS;
                 if ( StringUtils.isEmpty( configuration.getWorksheetName() ) ) {
-                    return compiler.compile( is,
-                                             InputType.XLS );
+                    return compiler.compileToPackage( is,
+                                                      inputType );
                 } else {
-                    return compiler.compile( is,
-                                             configuration.getWorksheetName() );
+                    return compiler.compileToPackage( is,
+                                                      inputType,
+                                                      configuration.getWorksheetName() );
                 }
             }
             case CSV : {
-                return compiler.compile( is,
-                                         InputType.CSV );
+                return compiler.compileToPackage( is,
+                                                  InputType.CSV );
             }
         }
 
         return null;
     }
 
+    private boolean isStreaming(DecisionTableConfiguration configuration) {
+        return configuration instanceof DecisionTableConfigurationImpl && ( (DecisionTableConfigurationImpl) configuration ).isStreaming();
+    }
+
     /**
      * Adapts a <code>Reader</code> as an <code>InputStream</code>. Adapted from
      * <CODE>StringInputStream</CODE>.
@@ -17,11 +17,13 @@
 package org.drools.decisiontable;
 
 import java.util.List;
+import java.util.Map;
 
 import org.drools.decisiontable.parser.DecisionTableParser;
 import org.drools.decisiontable.parser.csv.CsvLineParser;
 import org.drools.decisiontable.parser.csv.CsvParser;
 import org.drools.decisiontable.parser.xls.ExcelParser;
+import org.drools.decisiontable.parser.xls.StreamingExcelParser;
 import org.drools.template.parser.DataListener;
 
 /**
@@ -31,6 +33,11 @@ import org.drools.template.parser.DataListener;
 public abstract class InputType {
     public static final InputType XLS = new XlsInput();
     public static final InputType CSV = new CsvInput();
+    /**
+     * Parses xlsx spreadsheets row by row, without loading the whole workbook in memory.
+     * Formulas are not evaluated, the values cached in the spreadsheet are used instead.
+     */
+    public static final InputType XLSX_STREAMING = new XlsxStreamingInput();
 
     protected InputType() {
 
@@ -43,6 +50,14 @@ public abstract class InputType {
     public abstract DecisionTableParser createParser(DataListener listener);
     public abstract DecisionTableParser createParser(List<DataListener> listeners);
 
+    /**
+     * @param sheetListeners map of worksheet name to the listeners of that sheet
+     * @return The appropriate Parser, for the input types that have named worksheets.
+     */
+    public DecisionTableParser createParser(Map<String, List<DataListener>> sheetListeners) {
+        throw new UnsupportedOperationException( "Named worksheets are not supported by " + getClass().getSimpleName() );
+    }
+
 }
 
 class XlsInput extends InputType {
@@ -53,6 +68,23 @@ class XlsInput extends InputType {
     public DecisionTableParser createParser(final List<DataListener> listeners) {
         return new ExcelParser( listeners );
     }
+    public DecisionTableParser createParser(final Map<String, List<DataListener>> sheetListeners) {
+        return new ExcelParser( sheetListeners );
+    }
+
+}
+
+class XlsxStreamingInput extends InputType {
+
+    public DecisionTableParser createParser(final DataListener listener) {
+        return new StreamingExcelParser( listener );
+    }
+    public DecisionTableParser createParser(final List<DataListener> listeners) {
+        return new StreamingExcelParser( listeners );
+    }
+    public DecisionTableParser createParser(final Map<String, List<DataListener>> sheetListeners) {
+        return new StreamingExcelParser( sheetListeners );
+    }
 
 }
 
@@ -0,0 +1,407 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.decisiontable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.drools.compiler.compiler.DrlParser;
+import org.drools.compiler.compiler.DroolsParserException;
+import org.drools.compiler.lang.api.CEDescrBuilder;
+import org.drools.compiler.lang.api.DescrFactory;
+import org.drools.compiler.lang.api.PackageDescrBuilder;
+import org.drools.compiler.lang.api.PatternDescrBuilder;
+import org.drools.compiler.lang.api.RuleDescrBuilder;
+import org.drools.compiler.lang.descr.AndDescr;
+import org.drools.compiler.lang.descr.AttributeDescr;
+import org.drools.compiler.lang.descr.PackageDescr;
+import org.drools.compiler.lang.descr.RuleDescr;
+import org.drools.core.util.StringUtils;
+import org.drools.template.model.Condition;
+import org.drools.template.model.Consequence;
+import org.drools.template.model.DRLOutput;
+import org.drools.template.model.Package;
+import org.drools.template.model.Rule;
+import org.kie.api.io.Resource;
+
+/**
+ * Converts the rule model built from a decision table into a PackageDescr, creating
+ * the descrs of its rules directly instead of rendering them as DRL and parsing it back.
+ *
+ * Each condition of a decision table usually is a single pattern, like
+ * <code>$c : Cheese( type == "stilton", price &lt; 10 )</code>, whose constraints are
+ * stored as they are written, exactly like the DRL parser does. The parts of the table
+ * that are plain DRL, like the functions, the queries and the declared types, and the
+ * rules using anything more complex than that, like <code>from</code>, <code>eval</code>,
+ * positional constraints or metadata, are still rendered as DRL and parsed together.
+ */
+public class PackageDescrConverter {
+
+    private static final String ID = "[a-zA-Z_$][\\w$]*";
+
+    private static final Pattern SIMPLE_PATTERN = Pattern.compile( "(?:(" + ID + ")\\s*(:=?)\\s*)?(" + ID + "(?:\\." + ID + ")*)\\s*\\((.*)\\)",
+                                                                   Pattern.DOTALL );
+
+    private static final Pattern NESTED_CONSTRAINT = Pattern.compile( "\\.\\s*\\(" );
+
+    private static final Pattern RHS_KEYWORD = Pattern.compile( "\\b(?:then|end)\\b" );
+
+    private static final Pattern SIMPLE_EXPRESSION = Pattern.compile( "-?\\d+|true|false" );
+
+    private static final Pattern NUMBER = Pattern.compile( "[+-]?\\d+" );
+
+    private static final Set<String> KEYWORDS = new HashSet<String>( Arrays.asList( "exists", "not", "eval", "forall", "accumulate", "acc",
+                                                                                    "collect", "from", "and", "or", "if", "do", "when", "then", "end" ) );
+
+    private final DrlParser parser;
+
+    public PackageDescrConverter(DrlParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * @return the PackageDescr of the given package, or null if the parser failed to
+     *         parse the parts of the package that are rendered as DRL
+     */
+    public PackageDescr convert(Resource resource,
+                                Package rulePackage) throws DroolsParserException {
+        PackageDescrBuilder builder = DescrFactory.newPackage( resource );
+        DRLOutput out = new DRLOutput();
+        rulePackage.renderHeaderDRL( out );
+
+        // the descrs of the rules in their original order, null for the rules rendered as DRL
+        List<RuleDescr> ruleDescrs = new ArrayList<RuleDescr>();
+        int renderedRules = 0;
+        for ( Rule rule : rulePackage.getRules() ) {
+            RuleDescr ruleDescr = convertRule( builder,
+                                               rule );
+            if ( ruleDescr == null ) {
+                rule.renderDRL( out );
+                renderedRules++;
+            }
+            ruleDescrs.add( ruleDescr );
+        }
+
+        PackageDescr pkg = parser.parse( resource,
+                                         out.getDRL() );
+        if ( pkg == null || parser.hasErrors() ) {
+            return pkg;
+        }
+
+        // the queries and the rules defined in the header come first, as in the generated DRL
+        List<RuleDescr> parsedRules = new ArrayList<RuleDescr>( pkg.getRules() );
+        int headerRules = parsedRules.size() - renderedRules;
+        pkg.getRules().clear();
+        Iterator<RuleDescr> parsed = parsedRules.iterator();
+        for ( int i = 0; i < headerRules; i++ ) {
+            pkg.addRule( parsed.next() );
+        }
+        for ( RuleDescr ruleDescr : ruleDescrs ) {
+            if ( ruleDescr == null ) {
+                pkg.addRule( parsed.next() );
+            } else {
+                pkg.addRule( ruleDescr );
+                pkg.afterRuleAdded( ruleDescr );
+            }
+        }
+        return pkg;
+    }
+
+    /**
+     * @return the descr of the given rule, or null if it has to be rendered as DRL
+     */
+    private RuleDescr convertRule(PackageDescrBuilder builder,
+                                  Rule rule) {
+        if ( !rule.getMetadata().isEmpty() || isMultiLine( rule.getDescription() ) ) {
+            return null;
+        }
+        String name = unquote( rule.getName() );
+        if ( name == null ) {
+            return null;
+        }
+
+        List<AttributeDescr> attributes = new ArrayList<AttributeDescr>();
+        for ( Map.Entry<String, String> entry : rule.getAttributes().entrySet() ) {
+            AttributeDescr attribute = convertAttribute( entry.getKey(),
+                                                         entry.getValue() );
+            if ( attribute == null ) {
+                return null;
+            }
+            attributes.add( attribute );
+        }
+
+        List<SimplePattern> patterns = new ArrayList<SimplePattern>();
+        for ( Condition condition : rule.getConditions() ) {
+            String snippet = condition.getSnippet();
+            if ( snippet == null ) {
+                return null;
+            }
+            if ( snippet.trim().length() == 0 ) {
+                continue;
+            }
+            SimplePattern pattern = SimplePattern.parse( snippet.trim() );
+            if ( pattern == null ) {
+                return null;
+            }
+            patterns.add( pattern );
+        }
+
+        String rhs = convertConsequences( rule.getConsequences() );
+        if ( rhs == null ) {
+            return null;
+        }
+
+        RuleDescrBuilder ruleBuilder = builder.newRule().name( name );
+        for ( AttributeDescr attribute : attributes ) {
+            ruleBuilder.attribute( attribute.getName(),
+                                   attribute.getValue(),
+                                   attribute.getType() );
+        }
+        CEDescrBuilder<RuleDescrBuilder, AndDescr> lhs = ruleBuilder.lhs();
+        for ( SimplePattern pattern : patterns ) {
+            PatternDescrBuilder<CEDescrBuilder<RuleDescrBuilder, AndDescr>> patternBuilder = lhs.pattern( pattern.type );
+            if ( pattern.label != null ) {
+                patternBuilder.id( pattern.label,
+                                   pattern.unification );
+            }
+            for ( String constraint : pattern.constraints ) {
+                patternBuilder.constraint( constraint,
+                                           false );
+            }
+        }
+        ruleBuilder.rhs( rhs );
+        return ruleBuilder.getDescr();
+    }
+
+    /**
+     * Converts an attribute rendered as DRL by the rule model into the same AttributeDescr
+     * created by the DRL parser, or returns null if its value needs to be parsed
+     */
+    private static AttributeDescr convertAttribute(String name,
+                                                   String value) {
+        if ( "salience".equals( name ) || "enabled".equals( name ) ) {
+            return SIMPLE_EXPRESSION.matcher( value ).matches() ?
+                   new AttributeDescr( name, value, AttributeDescr.Type.EXPRESSION ) :
+                   null;
+        }
+        if ( "no-loop".equals( name ) || "lock-on-active".equals( name ) || "auto-focus".equals( name ) ) {
+            return "true".equals( value ) || "false".equals( value ) ?
+                   new AttributeDescr( name, value, AttributeDescr.Type.BOOLEAN ) :
+                   null;
+        }
+        if ( "agenda-group".equals( name ) || "activation-group".equals( name ) || "ruleflow-group".equals( name ) ) {
+            String string = unquote( value );
+            return string != null ? new AttributeDescr( name, string, AttributeDescr.Type.STRING ) : null;
+        }
+        if ( "date-effective".equals( name ) || "date-expires".equals( name ) ) {
+            String string = unquote( value );
+            return string != null ? new AttributeDescr( name, string, AttributeDescr.Type.DATE ) : null;
+        }
+        if ( "calendars".equals( name ) ) {
+            return unquote( value ) != null ? new AttributeDescr( name, "[ " + value + " ]", AttributeDescr.Type.LIST ) : null;
+        }
+        if ( "duration".equals( name ) ) {
+            return NUMBER.matcher( value ).matches() ? new AttributeDescr( name, value, AttributeDescr.Type.NUMBER ) : null;
+        }
+        if ( "timer".equals( name ) ) {
+            if ( value.length() >= 2 && value.startsWith( "(" ) && value.endsWith( ")" ) && isBalanced( value ) ) {
+                return new AttributeDescr( name, value.substring( 1, value.length() - 1 ), AttributeDescr.Type.EXPRESSION );
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Builds the consequence as it is extracted by the DRL parser from the rendered rule,
+     * or returns null if the code of the consequence would confuse the DRL parser
+     */
+    private static String convertConsequences(List<Consequence> consequences) {
+        StringBuilder rhs = new StringBuilder();
+        for ( Consequence consequence : consequences ) {
+            rhs.append( "\t\t" ).append( consequence.getSnippet() ).append( "\n" );
+        }
+        String code = stripLiterals( rhs.toString() );
+        if ( code == null || RHS_KEYWORD.matcher( code ).find() ) {
+            return null;
+        }
+        // the DRL parser drops the white spaces between the then keyword and the code
+        int start = 0;
+        while ( start < rhs.length() && Character.isWhitespace( rhs.charAt( start ) ) ) {
+            start++;
+        }
+        return rhs.substring( start );
+    }
+
+    /**
+     * Returns the content of a string literal rendered by the rule model, unescaped like
+     * the DRL parser does, or null if the literal isn't a plain one
+     */
+    private static String unquote(String literal) {
+        if ( literal == null || literal.length() < 2 || !literal.startsWith( "\"" ) || !literal.endsWith( "\"" ) ) {
+            return null;
+        }
+        String content = literal.substring( 1, literal.length() - 1 );
+        String unescaped = content.replace( "\\\"", "" );
+        if ( unescaped.indexOf( '\\' ) >= 0 || unescaped.indexOf( '"' ) >= 0 || isMultiLine( unescaped ) ) {
+            return null;
+        }
+        return StringUtils.unescapeJava( content );
+    }
+
+    private static boolean isMultiLine(String text) {
+        return text != null && ( text.indexOf( '\n' ) >= 0 || text.indexOf( '\r' ) >= 0 );
+    }
+
+    private static boolean isBalanced(String text) {
+        String code = stripLiterals( text );
+        if ( code == null ) {
+            return false;
+        }
+        int depth = 0;
+        for ( int i = 0; i < code.length(); i++ ) {
+            char c = code.charAt( i );
+            if ( c == '(' || c == '[' || c == '{' ) {
+                depth++;
+            } else if ( ( c == ')' || c == ']' || c == '}' ) && --depth < 0 ) {
+                return false;
+            }
+        }
+        return depth == 0;
+    }
+
+    /**
+     * Blanks the content of the string and char literals of the given code, so that it can
+     * be scanned for delimiters, or returns null if a literal isn't terminated
+     */
+    private static String stripLiterals(String code) {
+        StringBuilder sb = new StringBuilder( code );
+        for ( int i = 0; i < sb.length(); i++ ) {
+            char quote = sb.charAt( i );
+            if ( quote != '"' && quote != '\'' ) {
+                continue;
+            }
+            int end = i + 1;
+            while ( end < sb.length() && sb.charAt( end ) != quote ) {
+                if ( sb.charAt( end ) == '\n' ) {
+                    return null;
+                }
+                if ( sb.charAt( end ) == '\\' ) {
+                    sb.setCharAt( end++, ' ' );
+                }
+                if ( end < sb.length() ) {
+                    sb.setCharAt( end++, ' ' );
+                }
+            }
+            if ( end >= sb.length() ) {
+                return null;
+            }
+            i = end;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * A pattern with an optional binding, made only of a type and a list of constraints
+     */
+    private static class SimplePattern {
+
+        private final String       label;
+        private final boolean      unification;
+        private final String       type;
+        private final List<String> constraints;
+
+        private SimplePattern(String label,
+                              boolean unification,
+                              String type,
+                              List<String> constraints) {
+            this.label = label;
+            this.unification = unification;
+            this.type = type;
+            this.constraints = constraints;
+        }
+
+        private static SimplePattern parse(String snippet) {
+            Matcher matcher = SIMPLE_PATTERN.matcher( snippet );
+            if ( !matcher.matches() ) {
+                return null;
+            }
+            String label = matcher.group( 1 );
+            String type = matcher.group( 3 );
+            if ( KEYWORDS.contains( type ) || ( label != null && KEYWORDS.contains( label ) ) ) {
+                return null;
+            }
+            List<String> constraints = splitConstraints( matcher.group( 4 ) );
+            if ( constraints == null ) {
+                return null;
+            }
+            return new SimplePattern( label,
+                                      ":=".equals( matcher.group( 2 ) ),
+                                      type,
+                                      constraints );
+        }
+
+        /**
+         * Splits the constraints of the pattern on the commas that aren't nested in any
+         * parenthesis, like the DRL parser does, or returns null if they cannot be split
+         * that simply, as for positional and nested constraints or comments
+         */
+        private static List<String> splitConstraints(String text) {
+            List<String> constraints = new ArrayList<String>();
+            if ( text.trim().length() == 0 ) {
+                return constraints;
+            }
+            String code = stripLiterals( text );
+            if ( code == null || code.indexOf( ';' ) >= 0 || code.contains( "//" ) || code.contains( "/*" ) ||
+                 NESTED_CONSTRAINT.matcher( code ).find() ) {
+                return null;
+            }
+            int depth = 0;
+            int start = 0;
+            for ( int i = 0; i < code.length(); i++ ) {
+                char c = code.charAt( i );
+                if ( c == '(' || c == '[' || c == '{' ) {
+                    depth++;
+                } else if ( c == ')' || c == ']' || c == '}' ) {
+                    if ( --depth < 0 ) {
+                        // the parenthesis of the pattern is closed before its end
+                        return null;
+                    }
+                } else if ( c == ',' && depth == 0 ) {
+                    constraints.add( text.substring( start, i ).trim() );
+                    start = i + 1;
+                }
+            }
+            if ( depth != 0 ) {
+                return null;
+            }
+            constraints.add( text.substring( start ).trim() );
+            for ( String constraint : constraints ) {
+                if ( constraint.length() == 0 ) {
+                    return null;
+                }
+            }
+            return constraints;
+        }
+    }
+}
@@ -25,7 +25,6 @@ import java.util.Map;
 import org.drools.decisiontable.parser.DecisionTableParser;
 import org.drools.decisiontable.parser.DefaultRuleSheetListener;
 import org.drools.decisiontable.parser.RuleSheetListener;
-import org.drools.decisiontable.parser.xls.ExcelParser;
 import org.drools.template.model.DRLOutput;
 import org.drools.template.model.Package;
 import org.drools.template.parser.DataListener;
@@ -89,14 +88,39 @@ public class SpreadsheetCompiler {
     public String compile(final InputStream xlsStream,
                           final InputType type,
                           final RuleSheetListener listener) {
-        final DecisionTableParser parser = type.createParser( listener );
-        parser.parseFile( xlsStream );
-        final Package rulePackage = listener.getRuleSet();
+        final Package rulePackage = compileToPackage( xlsStream,
+                                                      type,
+                                                      listener );
         final DRLOutput out = new DRLOutput();
         rulePackage.renderDRL( out );
         return out.getDRL();
     }
 
+    /**
+     * Builds the rule model of the spreadsheet, without rendering it as DRL.
+     *
+     * @param xlsStream
+     *            The stream to the spreadsheet. Uses the first worksheet found
+     *            for the decision tables, ignores others.
+     * @param type
+     *            The type of the file - InputType.CSV or InputType.XLS
+     * @return the package of rules described by the decision tables.
+     */
+    public Package compileToPackage(final InputStream xlsStream,
+                                    final InputType type) {
+        return compileToPackage( xlsStream,
+                                 type,
+                                 new DefaultRuleSheetListener() );
+    }
+
+    private Package compileToPackage(final InputStream xlsStream,
+                                     final InputType type,
+                                     final RuleSheetListener listener) {
+        final DecisionTableParser parser = type.createParser( listener );
+        parser.parseFile( xlsStream );
+        return listener.getRuleSet();
+    }
+
     /**
      * Convenience implementation, taking rules from the classpath. It is
      * recommended to use the stream version, as you can then change rules
@@ -131,15 +155,52 @@ public class SpreadsheetCompiler {
      */
     public String compile(final InputStream stream,
                           final String worksheetName) {
-        final RuleSheetListener listener = getRuleSheetListener( stream,
-                                                                 worksheetName );
-        final Package rulePackage = listener.getRuleSet();
+        final Package rulePackage = compileToPackage( stream,
+                                                      worksheetName );
         final DRLOutput out = new DRLOutput();
         rulePackage.renderDRL( out );
         return out.getDRL();
     }
 
+    /**
+     * Builds the rule model of the decision tables found on a named worksheet,
+     * without rendering it as DRL. Only works with XLS format spreadsheets.
+     *
+     * @param stream
+     *            The stream of the decision tables (spreadsheet) IN XLS format !!
+     * @param worksheetName
+     *            The name of the worksheet that the decision tables live on.
+     * @return the package of rules described by the decision tables.
+     */
+    public Package compileToPackage(final InputStream stream,
+                                    final String worksheetName) {
+        return compileToPackage( stream,
+                                 InputType.XLS,
+                                 worksheetName );
+    }
+
+    /**
+     * Builds the rule model of the decision tables found on a named worksheet,
+     * parsing the spreadsheet with the given input type.
+     *
+     * @param stream
+     *            The stream of the decision tables (spreadsheet).
+     * @param type
+     *            The type of the file - InputType.XLS or InputType.XLSX_STREAMING
+     * @param worksheetName
+     *            The name of the worksheet that the decision tables live on.
+     * @return the package of rules described by the decision tables.
+     */
+    public Package compileToPackage(final InputStream stream,
+                                    final InputType type,
+                                    final String worksheetName) {
+        return getRuleSheetListener( stream,
+                                     type,
+                                     worksheetName ).getRuleSet();
+    }
+
     private RuleSheetListener getRuleSheetListener(final InputStream stream,
+                                                   final InputType type,
                                                    final String worksheetName) {
         final DefaultRuleSheetListener listener = new DefaultRuleSheetListener();
         listener.setWorksheetName(worksheetName);
@@ -148,7 +209,7 @@ public class SpreadsheetCompiler {
         listeners.add(listener);
         sheetListeners.put( worksheetName,
                        listeners );
-        final ExcelParser parser = new ExcelParser( sheetListeners );
+        final DecisionTableParser parser = type.createParser( sheetListeners );
         parser.parseFile( stream );
         return listener;
     }
@@ -0,0 +1,462 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.decisiontable.parser.xls;
+
+import org.apache.poi.POIXMLDocument;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.drools.decisiontable.parser.DecisionTableParser;
+import org.drools.template.parser.DataListener;
+import org.drools.template.parser.DecisionTableParseException;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parse an xlsx spreadsheet with the event API of POI, pushing cell info into the
+ * SheetListener interface.
+ *
+ * Unlike the ExcelParser, it never loads the whole workbook in memory: the rows of
+ * each sheet are read one at a time from its XML and immediately passed to the
+ * listeners, so the memory needed to parse a sheet doesn't grow with its number of
+ * rows. Each sheet is read twice, the first time only to find its merged regions,
+ * that are stored at the end of the sheet.
+ *
+ * The listeners receive the same events they would receive from the ExcelParser,
+ * with one difference: formulas are not evaluated, and their values are the ones
+ * cached in the spreadsheet when it was last saved.
+ *
+ * Spreadsheets in the old xls format are handed over to the ExcelParser.
+ */
+public class StreamingExcelParser
+        implements
+        DecisionTableParser {
+
+    private Map<String, List<DataListener>> _listeners = new HashMap<String, List<DataListener>>();
+    private boolean _useFirstSheet;
+
+    /**
+     * Define a map of sheet name to listener handlers.
+     * @param sheetListeners map of String to SheetListener
+     */
+    public StreamingExcelParser( final Map<String, List<DataListener>> sheetListeners ) {
+        this._listeners = sheetListeners;
+    }
+
+    public StreamingExcelParser( final List<DataListener> sheetListeners ) {
+        this._listeners.put( ExcelParser.DEFAULT_RULESHEET_NAME,
+                             sheetListeners );
+        this._useFirstSheet = true;
+    }
+
+    public StreamingExcelParser( final DataListener listener ) {
+        List<DataListener> listeners = new ArrayList<DataListener>();
+        listeners.add( listener );
+        this._listeners.put( ExcelParser.DEFAULT_RULESHEET_NAME,
+                             listeners );
+        this._useFirstSheet = true;
+    }
+
+    public void parseFile( InputStream inStream ) {
+        // the package is read from a file, since opening it from a stream would unzip all its parts in memory
+        File file = null;
+        try {
+            file = copyToTempFile( inStream );
+            if ( !isOOXML( file ) ) {
+                parseWithUserModel( file );
+                return;
+            }
+            parseFile( file );
+        } catch ( IOException e ) {
+            throw new DecisionTableParseException( "Failed to open Excel stream, " + "please check that the content is xlsx format.",
+                                                   e );
+        } finally {
+            if ( file != null ) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Parses an xlsx file, without copying it first as parseFile(InputStream) does
+     */
+    public void parseFile( File file ) {
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open( file.getPath(), PackageAccess.READ );
+            XSSFReader reader = new XSSFReader( pkg );
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable( pkg );
+            StylesTable styles = reader.getStylesTable();
+
+            if ( _useFirstSheet ) {
+                processSheet( reader, null, strings, styles, _listeners.get( ExcelParser.DEFAULT_RULESHEET_NAME ) );
+            } else {
+                for ( String sheetName : _listeners.keySet() ) {
+                    processSheet( reader, sheetName, strings, styles, _listeners.get( sheetName ) );
+                }
+            }
+        } catch ( OpenXML4JException e ) {
+            throw new DecisionTableParseException( "An error occurred opening the workbook. It is possible that the encoding of the document did not match the encoding of the reader.",
+                                                   e );
+        } catch ( SAXException e ) {
+            throw new DecisionTableParseException( "Failed to read the Excel stream, " + "please check that the content is xlsx format.",
+                                                   e );
+        } catch ( IOException e ) {
+            throw new DecisionTableParseException( "Failed to open Excel stream, " + "please check that the content is xlsx format.",
+                                                   e );
+        } finally {
+            if ( pkg != null ) {
+                pkg.revert();
+            }
+        }
+    }
+
+    private void processSheet( XSSFReader reader,
+                               String sheetName,
+                               ReadOnlySharedStringsTable strings,
+                               StylesTable styles,
+                               List<? extends DataListener> listeners ) throws IOException, OpenXML4JException, SAXException {
+        // the first pass only collects the merged regions
+        MergedRegionsHandler mergedRegionsHandler = new MergedRegionsHandler();
+        InputStream sheet = openSheet( reader, sheetName );
+        try {
+            parse( sheet, mergedRegionsHandler );
+        } finally {
+            sheet.close();
+        }
+
+        SheetHandler sheetHandler = new SheetHandler( strings, styles, mergedRegionsHandler.getMergedRegions(), listeners );
+        sheet = openSheet( reader, sheetName );
+        try {
+            parse( sheet, sheetHandler );
+        } finally {
+            sheet.close();
+        }
+
+        for ( DataListener listener : listeners ) {
+            listener.finishSheet();
+        }
+    }
+
+    /**
+     * Opens the sheet with the given name, or the first one if the name is null
+     */
+    private InputStream openSheet( XSSFReader reader,
+                                   String sheetName ) throws IOException, OpenXML4JException {
+        XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+        while ( sheets.hasNext() ) {
+            InputStream sheet = sheets.next();
+            if ( sheetName == null || sheetName.equals( sheets.getSheetName() ) ) {
+                return sheet;
+            }
+            sheet.close();
+        }
+        if ( sheetName == null ) {
+            throw new DecisionTableParseException( "The workbook doesn't contain any sheet" );
+        }
+        throw new IllegalStateException( "Could not find the sheetName (" + sheetName
+                                                 + ") in the workbook sheetNames." );
+    }
+
+    private static void parse( InputStream sheet,
+                               DefaultHandler handler ) throws IOException, SAXException {
+        try {
+            SAXParserFactory factory = SAXParserFactory.newInstance();
+            factory.setNamespaceAware( true );
+            XMLReader xmlReader = factory.newSAXParser().getXMLReader();
+            xmlReader.setContentHandler( handler );
+            xmlReader.parse( new InputSource( sheet ) );
+        } catch ( ParserConfigurationException e ) {
+            throw new RuntimeException( "Unable to create a SAX parser", e );
+        }
+    }
+
+    private static File copyToTempFile( InputStream inStream ) throws IOException {
+        File file = File.createTempFile( "drools-dtable", ".xlsx" );
+        OutputStream out = new FileOutputStream( file );
+        try {
+            byte[] buffer = new byte[ 8192 ];
+            for ( int read = inStream.read( buffer ); read >= 0; read = inStream.read( buffer ) ) {
+                out.write( buffer, 0, read );
+            }
+        } catch ( IOException e ) {
+            out.close();
+            file.delete();
+            throw e;
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private static boolean isOOXML( File file ) throws IOException {
+        InputStream in = new BufferedInputStream( new FileInputStream( file ) );
+        try {
+            return POIXMLDocument.hasOOXMLHeader( in );
+        } finally {
+            in.close();
+        }
+    }
+
+    private void parseWithUserModel( File file ) throws IOException {
+        ExcelParser parser = _useFirstSheet ?
+                             new ExcelParser( _listeners.get( ExcelParser.DEFAULT_RULESHEET_NAME ) ) :
+                             new ExcelParser( _listeners );
+        InputStream in = new FileInputStream( file );
+        try {
+            parser.parseFile( in );
+        } finally {
+            in.close();
+        }
+    }
+
+    private static class MergedRegionsHandler extends DefaultHandler {
+
+        private final List<CellRangeAddress> mergedRegions = new ArrayList<CellRangeAddress>();
+
+        public void startElement( String uri,
+                                  String localName,
+                                  String qName,
+                                  Attributes attributes ) {
+            if ( "mergeCell".equals( localName ) ) {
+                String ref = attributes.getValue( "ref" );
+                if ( ref != null ) {
+                    mergedRegions.add( CellRangeAddress.valueOf( ref ) );
+                }
+            }
+        }
+
+        public CellRangeAddress[] getMergedRegions() {
+            return mergedRegions.toArray( new CellRangeAddress[ mergedRegions.size() ] );
+        }
+    }
+
+    /**
+     * Reads the rows of a sheet, keeping in memory only the cells of the current row
+     * and the values of the top left cells of the merged regions.
+     */
+    private static class SheetHandler extends DefaultHandler {
+
+        private final ReadOnlySharedStringsTable    strings;
+        private final StylesTable                   styles;
+        private final CellRangeAddress[]            mergedRegions;
+        private final List<? extends DataListener>  listeners;
+
+        private final DataFormatter                 formatter = new DataFormatter( Locale.ENGLISH );
+        private final Map<Long, String>             mergedValues = new HashMap<Long, String>();
+
+        private final List<String>                  rowValues = new ArrayList<String>();
+        private final List<Integer>                 rowColumns = new ArrayList<Integer>();
+
+        private int                                 lastRow = -1;
+        private int                                 currentRow;
+        private int                                 nextColumn;
+
+        private int                                 currentColumn;
+        private String                              cellType;
+        private String                              cellStyle;
+        private boolean                             formula;
+        private boolean                             inValue;
+        private boolean                             inPhonetic;
+        private final StringBuilder                 value = new StringBuilder();
+
+        private SheetHandler( ReadOnlySharedStringsTable strings,
+                              StylesTable styles,
+                              CellRangeAddress[] mergedRegions,
+                              List<? extends DataListener> listeners ) {
+            this.strings = strings;
+            this.styles = styles;
+            this.mergedRegions = mergedRegions;
+            this.listeners = listeners;
+        }
+
+        public void startElement( String uri,
+                                  String localName,
+                                  String qName,
+                                  Attributes attributes ) {
+            if ( "row".equals( localName ) ) {
+                String r = attributes.getValue( "r" );
+                currentRow = r != null ? Integer.parseInt( r ) - 1 : lastRow + 1;
+                nextColumn = 0;
+                rowValues.clear();
+                rowColumns.clear();
+            } else if ( "c".equals( localName ) ) {
+                String r = attributes.getValue( "r" );
+                currentColumn = r != null ? new CellReference( r ).getCol() : nextColumn;
+                nextColumn = currentColumn + 1;
+                cellType = attributes.getValue( "t" );
+                cellStyle = attributes.getValue( "s" );
+                formula = false;
+                value.setLength( 0 );
+            } else if ( "f".equals( localName ) ) {
+                formula = true;
+            } else if ( "rPh".equals( localName ) ) {
+                inPhonetic = true;
+            } else if ( "v".equals( localName ) || ( "t".equals( localName ) && !inPhonetic ) ) {
+                inValue = true;
+            }
+        }
+
+        public void characters( char[] ch,
+                                int start,
+                                int length ) {
+            if ( inValue ) {
+                value.append( ch, start, length );
+            }
+        }
+
+        public void endElement( String uri,
+                                String localName,
+                                String qName ) {
+            if ( "v".equals( localName ) || "t".equals( localName ) ) {
+                inValue = false;
+            } else if ( "rPh".equals( localName ) ) {
+                inPhonetic = false;
+            } else if ( "c".equals( localName ) ) {
+                rowColumns.add( currentColumn );
+                rowValues.add( formatValue() );
+            } else if ( "row".equals( localName ) ) {
+                endRow();
+            }
+        }
+
+        private void endRow() {
+            // the rows missing in the sheet are notified as empty, as the ExcelParser does
+            for ( int row = lastRow + 1; row < currentRow; row++ ) {
+                newRow( row, 0 );
+            }
+            lastRow = currentRow;
+
+            int lastCellNum = rowColumns.isEmpty() ? -1 : rowColumns.get( rowColumns.size() - 1 ) + 1;
+            newRow( currentRow, lastCellNum );
+
+            for ( int i = 0; i < rowColumns.size(); i++ ) {
+                int column = rowColumns.get( i );
+                String cellValue = rowValues.get( i );
+                int mergedColStart = DataListener.NON_MERGED;
+
+                CellRangeAddress merged = getRangeIfMerged( currentRow, column );
+                if ( merged != null ) {
+                    Long topLeft = key( merged.getFirstRow(), merged.getFirstColumn() );
+                    if ( merged.getFirstRow() == currentRow && merged.getFirstColumn() == column ) {
+                        mergedValues.put( topLeft, cellValue );
+                    } else {
+                        cellValue = mergedValues.get( topLeft );
+                        if ( cellValue == null ) {
+                            cellValue = "";
+                        }
+                    }
+                    if ( merged.getLastRow() == currentRow && merged.getLastColumn() == column ) {
+                        // nothing else can refer to this region
+                        mergedValues.remove( topLeft );
+                    }
+                    mergedColStart = merged.getFirstColumn();
+                }
+
+                for ( DataListener listener : listeners ) {
+                    listener.newCell( currentRow,
+                                      column,
+                                      cellValue,
+                                      mergedColStart );
+                }
+            }
+        }
+
+        private void newRow( int row,
+                             int cols ) {
+            for ( DataListener listener : listeners ) {
+                listener.newRow( row,
+                                 cols );
+            }
+        }
+
+        private CellRangeAddress getRangeIfMerged( int row,
+                                                   int column ) {
+            for ( int i = 0; i < mergedRegions.length; i++ ) {
+                CellRangeAddress r = mergedRegions[ i ];
+                if ( r.isInRange( row, column ) ) {
+                    return r;
+                }
+            }
+            return null;
+        }
+
+        private static Long key( int row,
+                                 int column ) {
+            return ( (long) row << 32 ) | column;
+        }
+
+        /**
+         * Formats the value of the current cell as the ExcelParser does
+         */
+        private String formatValue() {
+            String raw = value.toString();
+            if ( "s".equals( cellType ) ) {
+                return raw.length() == 0 ? "" : strings.getEntryAt( Integer.parseInt( raw.trim() ) );
+            } else if ( "inlineStr".equals( cellType ) || "str".equals( cellType ) || "e".equals( cellType ) ) {
+                return raw;
+            } else if ( "b".equals( cellType ) ) {
+                // formatted as the DataFormatter used by the ExcelParser does
+                return "1".equals( raw.trim() ) ? "TRUE" : "FALSE";
+            } else if ( raw.length() == 0 ) {
+                // a blank cell
+                return "";
+            }
+
+            double num = Double.parseDouble( raw );
+            if ( !formula && num - Math.round( num ) != 0 ) {
+                return String.valueOf( num );
+            }
+            int formatIndex = 0;
+            String formatString = null;
+            if ( cellStyle != null && styles != null ) {
+                XSSFCellStyle style = styles.getStyleAt( Integer.parseInt( cellStyle ) );
+                formatIndex = style.getDataFormat();
+                formatString = style.getDataFormatString();
+            }
+            if ( formatString == null ) {
+                formatString = "General";
+            }
+            return formatter.formatRawCellContents( num, formatIndex, formatString );
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.decisiontable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.compiler.compiler.DrlParser;
+import org.drools.compiler.lang.descr.AttributeDescr;
+import org.drools.compiler.lang.descr.BaseDescr;
+import org.drools.compiler.lang.descr.ExprConstraintDescr;
+import org.drools.compiler.lang.descr.PackageDescr;
+import org.drools.compiler.lang.descr.PatternDescr;
+import org.drools.compiler.lang.descr.RuleDescr;
+import org.drools.template.model.DRLOutput;
+import org.drools.template.model.Package;
+import org.junit.Test;
+import org.kie.api.io.ResourceType;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.DecisionTableConfiguration;
+import org.kie.internal.builder.DecisionTableInputType;
+import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderFactory;
+import org.kie.internal.io.ResourceFactory;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+import static org.junit.Assert.*;
+
+public class PackageDescrConverterTest {
+
+    @Test
+    public void testSameDescrsAsGeneratedDrl() throws Exception {
+        assertSameDescrsAsGeneratedDrl( "packageDescrConverter.csv", InputType.CSV );
+        assertSameDescrsAsGeneratedDrl( "/data/IntegrationExampleTest.xls", InputType.XLS );
+        assertSameDescrsAsGeneratedDrl( "/data/ComplexWorkbook.xls", InputType.XLS );
+        assertSameDescrsAsGeneratedDrl( "/data/ExamplePolicyPricing.xls", InputType.XLS );
+        assertSameDescrsAsGeneratedDrl( "Attributes.xls", InputType.XLS );
+        assertSameDescrsAsGeneratedDrl( "DeclaresWorkbook.xls", InputType.XLS );
+        assertSameDescrsAsGeneratedDrl( "calendar_timer.xls", InputType.XLS );
+    }
+
+    @Test
+    public void testBuildWithoutGeneratingDrl() {
+        DecisionTableConfiguration dtconf = KnowledgeBuilderFactory.newDecisionTableConfiguration();
+        dtconf.setInputType( DecisionTableInputType.CSV );
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        kbuilder.add( ResourceFactory.newClassPathResource( "packageDescrConverter.csv", getClass() ),
+                      ResourceType.DTABLE,
+                      dtconf );
+        assertFalse( kbuilder.getErrors().toString(), kbuilder.hasErrors() );
+
+        KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        kbase.addKnowledgePackages( kbuilder.getKnowledgePackages() );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        List<Integer> list = new ArrayList<Integer>();
+        ksession.setGlobal( "list", list );
+        ksession.insert( new Cheese( "stilton", 5 ) );
+        ksession.insert( new Cheese( "cheddar", 20 ) );
+        ksession.getAgenda().getAgendaGroup( "cheap" ).setFocus();
+        ksession.fireAllRules();
+        ksession.dispose();
+
+        assertEquals( 3, list.size() );
+        assertTrue( list.contains( 1 ) );
+        assertTrue( list.contains( 3 ) );
+        assertTrue( list.contains( 4 ) );
+    }
+
+    private void assertSameDescrsAsGeneratedDrl(String path,
+                                                InputType type) throws Exception {
+        SpreadsheetCompiler compiler = new SpreadsheetCompiler();
+        Package rulePackage = compiler.compileToPackage( getClass().getResourceAsStream( path ),
+                                                         type );
+        DRLOutput out = new DRLOutput();
+        rulePackage.renderDRL( out );
+        DrlParser drlParser = new DrlParser();
+        PackageDescr expected = drlParser.parse( null,
+                                                 out.getDRL() );
+        assertFalse( drlParser.getErrors().toString(), drlParser.hasErrors() );
+
+        DrlParser parser = new DrlParser();
+        PackageDescr actual = new PackageDescrConverter( parser ).convert( null,
+                                                                          rulePackage );
+        assertFalse( parser.getErrors().toString(), parser.hasErrors() );
+
+        assertEquals( expected.getName(), actual.getName() );
+        assertEquals( expected.getImports().size(), actual.getImports().size() );
+        assertEquals( expected.getGlobals().size(), actual.getGlobals().size() );
+        assertEquals( expected.getFunctions().size(), actual.getFunctions().size() );
+        assertEquals( expected.getTypeDeclarations().size(), actual.getTypeDeclarations().size() );
+        assertEquals( expected.getRules().size(), actual.getRules().size() );
+        for ( int i = 0; i < expected.getRules().size(); i++ ) {
+            assertSameRule( expected.getRules().get( i ),
+                            actual.getRules().get( i ) );
+        }
+    }
+
+    private void assertSameRule(RuleDescr expected,
+                                RuleDescr actual) {
+        assertEquals( expected.getName(), actual.getName() );
+        assertEquals( expected.getLoadOrder(), actual.getLoadOrder() );
+        assertEquals( expected.getName(), expected.getAttributes().keySet(), actual.getAttributes().keySet() );
+        for ( AttributeDescr attribute : expected.getAttributes().values() ) {
+            AttributeDescr other = actual.getAttributes().get( attribute.getName() );
+            assertEquals( expected.getName(), attribute.getValue(), other.getValue() );
+            assertEquals( expected.getName(), attribute.getType(), other.getType() );
+        }
+        assertSameDescrs( expected.getName(),
+                          expected.getLhs().getDescrs(),
+                          actual.getLhs().getDescrs() );
+        assertEquals( expected.getName(), expected.getConsequence(), actual.getConsequence() );
+    }
+
+    private void assertSameDescrs(String ruleName,
+                                  List<? extends BaseDescr> expected,
+                                  List<? extends BaseDescr> actual) {
+        assertEquals( ruleName, expected.size(), actual.size() );
+        for ( int i = 0; i < expected.size(); i++ ) {
+            BaseDescr expectedDescr = expected.get( i );
+            BaseDescr actualDescr = actual.get( i );
+            assertSame( ruleName, expectedDescr.getClass(), actualDescr.getClass() );
+            if ( expectedDescr instanceof PatternDescr ) {
+                PatternDescr expectedPattern = (PatternDescr) expectedDescr;
+                PatternDescr actualPattern = (PatternDescr) actualDescr;
+                assertEquals( ruleName, expectedPattern.getObjectType(), actualPattern.getObjectType() );
+                assertEquals( ruleName, expectedPattern.getIdentifier(), actualPattern.getIdentifier() );
+                assertEquals( ruleName, expectedPattern.isUnification(), actualPattern.isUnification() );
+                assertSameDescrs( ruleName,
+                                  expectedPattern.getConstraint().getDescrs(),
+                                  actualPattern.getConstraint().getDescrs() );
+            } else if ( expectedDescr instanceof ExprConstraintDescr ) {
+                ExprConstraintDescr expectedConstraint = (ExprConstraintDescr) expectedDescr;
+                ExprConstraintDescr actualConstraint = (ExprConstraintDescr) actualDescr;
+                assertEquals( ruleName, expectedConstraint.getExpression(), actualConstraint.getExpression() );
+                assertEquals( ruleName, expectedConstraint.getType(), actualConstraint.getType() );
+                assertEquals( ruleName, expectedConstraint.getPosition(), actualConstraint.getPosition() );
+            }
+        }
+    }
+}
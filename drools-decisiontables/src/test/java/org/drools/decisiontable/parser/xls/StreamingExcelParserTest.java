@@ -0,0 +1,217 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.decisiontable.parser.xls;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.drools.core.builder.conf.impl.DecisionTableConfigurationImpl;
+import org.drools.decisiontable.DecisionTableProviderImpl;
+import org.drools.decisiontable.InputType;
+import org.drools.decisiontable.SpreadsheetCompiler;
+import org.drools.template.parser.DataListener;
+import org.junit.Test;
+
+/**
+ * Checks that the StreamingExcelParser notifies the listeners exactly as the ExcelParser does.
+ */
+public class StreamingExcelParserTest {
+
+    @Test
+    public void testSameEventsAsExcelParser() throws Exception {
+        byte[] workbook = write( createWorkbook( new XSSFWorkbook() ) );
+
+        RecordingListener expected = new RecordingListener();
+        new ExcelParser( expected ).parseFile( new ByteArrayInputStream( workbook ) );
+
+        RecordingListener actual = new RecordingListener();
+        new StreamingExcelParser( actual ).parseFile( new ByteArrayInputStream( workbook ) );
+
+        assertEquals( expected.events, actual.events );
+        assertTrue( actual.events.contains( "cell 4 2 merged 1" ) );
+        assertTrue( actual.events.contains( "cell 2 2 84 -1" ) );
+        assertTrue( actual.events.contains( "cell 2 3 TRUE -1" ) );
+    }
+
+    @Test
+    public void testNamedSheets() throws Exception {
+        Workbook wb = new XSSFWorkbook();
+        wb.createSheet( "Other" ).createRow( 0 ).createCell( 0 ).setCellValue( "other" );
+        createWorkbook( wb );
+        byte[] workbook = write( wb );
+
+        RecordingListener expected = new RecordingListener();
+        new ExcelParser( sheetListeners( "Sheet", expected ) ).parseFile( new ByteArrayInputStream( workbook ) );
+
+        RecordingListener actual = new RecordingListener();
+        new StreamingExcelParser( sheetListeners( "Sheet", actual ) ).parseFile( new ByteArrayInputStream( workbook ) );
+
+        assertEquals( expected.events, actual.events );
+        assertTrue( !actual.events.contains( "cell 0 0 other -1" ) );
+    }
+
+    @Test
+    public void testXlsIsParsedWithTheUserModel() throws Exception {
+        byte[] workbook = write( createWorkbook( new HSSFWorkbook() ) );
+
+        RecordingListener expected = new RecordingListener();
+        new ExcelParser( expected ).parseFile( new ByteArrayInputStream( workbook ) );
+
+        RecordingListener actual = new RecordingListener();
+        new StreamingExcelParser( actual ).parseFile( new ByteArrayInputStream( workbook ) );
+
+        assertEquals( expected.events, actual.events );
+    }
+
+    @Test
+    public void testCompileStreaming() throws Exception {
+        Workbook wb = new XSSFWorkbook();
+        createRuleTable( wb.createSheet( "Tables" ), "org.drools.test" );
+        byte[] workbook = write( wb );
+
+        SpreadsheetCompiler compiler = new SpreadsheetCompiler();
+        String expected = compiler.compile( new ByteArrayInputStream( workbook ), InputType.XLS );
+        String actual = compiler.compile( new ByteArrayInputStream( workbook ), InputType.XLSX_STREAMING );
+
+        assertEquals( expected, actual );
+        assertTrue( actual.contains( "type == \"cheese99\"" ) );
+    }
+
+    @Test
+    public void testStreamingConfigurationWithWorksheetName() throws Exception {
+        Workbook wb = new XSSFWorkbook();
+        createRuleTable( wb.createSheet( "Other" ), "org.drools.other" );
+        createRuleTable( wb.createSheet( "Tables" ), "org.drools.test" );
+        byte[] workbook = write( wb );
+
+        Properties prop = new Properties();
+        prop.setProperty( DecisionTableConfigurationImpl.DROOLS_DT_WORKSHEET, "Tables" );
+        prop.setProperty( DecisionTableConfigurationImpl.DROOLS_DT_STREAMING, "true" );
+        DecisionTableConfigurationImpl conf = new DecisionTableConfigurationImpl();
+        conf.fromProperties( prop );
+        assertTrue( conf.isStreaming() );
+
+        DecisionTableProviderImpl provider = new DecisionTableProviderImpl();
+        String expected = new SpreadsheetCompiler().compile( new ByteArrayInputStream( workbook ), "Tables" );
+        String actual = provider.loadFromInputStream( new ByteArrayInputStream( workbook ), conf );
+
+        assertEquals( expected, actual );
+        assertTrue( actual.contains( "package org.drools.test;" ) );
+        assertFalse( actual.contains( "org.drools.other" ) );
+    }
+
+    private static void createRuleTable( Sheet sheet, String packageName ) {
+        setRow( sheet, 0, "RuleSet", packageName );
+        setRow( sheet, 1, "Import", "org.drools.decisiontable.Cheese" );
+        setRow( sheet, 3, "RuleTable Cheeses" );
+        setRow( sheet, 4, "CONDITION", "ACTION" );
+        setRow( sheet, 5, "Cheese", "" );
+        setRow( sheet, 6, "type == \"$param\"", "System.out.println(\"$param\");" );
+        setRow( sheet, 7, "type", "message" );
+        for ( int i = 0; i < 100; i++ ) {
+            setRow( sheet, 8 + i, "cheese" + i, "found " + i );
+        }
+    }
+
+    private static Workbook createWorkbook( Workbook wb ) {
+        Sheet sheet = wb.createSheet( "Sheet" );
+        setRow( sheet, 0, "RuleSet", "Test" );
+
+        Row row = sheet.createRow( 2 );
+        row.createCell( 0 ).setCellValue( 42 );
+        row.createCell( 1 ).setCellValue( 0.5 );
+        Cell formula = row.createCell( 2 );
+        formula.setCellFormula( "A3*2" );
+        wb.getCreationHelper().createFormulaEvaluator().evaluateFormulaCell( formula );
+        row.createCell( 3 ).setCellValue( true );
+        // a gap in the middle of the row
+        row.createCell( 5 ).setCellValue( "after gap" );
+
+        // a region merged on a single row, and one on two rows
+        row = sheet.createRow( 4 );
+        row.createCell( 0 ).setCellValue( "top" );
+        row.createCell( 1 ).setCellValue( "merged" );
+        row.createCell( 2 );
+        row.createCell( 3 );
+        sheet.addMergedRegion( new CellRangeAddress( 4, 4, 1, 3 ) );
+        sheet.createRow( 5 ).createCell( 0 );
+        sheet.addMergedRegion( new CellRangeAddress( 4, 5, 0, 0 ) );
+
+        // row 6 is missing, row 7 has no cells
+        sheet.createRow( 7 );
+        setRow( sheet, 8, "last", "", "row" );
+        return wb;
+    }
+
+    private static void setRow( Sheet sheet, int rowNum, String... values ) {
+        Row row = sheet.createRow( rowNum );
+        for ( int i = 0; i < values.length; i++ ) {
+            row.createCell( i ).setCellValue( values[ i ] );
+        }
+    }
+
+    private static byte[] write( Workbook wb ) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        wb.write( out );
+        return out.toByteArray();
+    }
+
+    private static Map<String, List<DataListener>> sheetListeners( String sheetName, DataListener listener ) {
+        Map<String, List<DataListener>> listeners = new HashMap<String, List<DataListener>>();
+        List<DataListener> list = new ArrayList<DataListener>();
+        list.add( listener );
+        listeners.put( sheetName, list );
+        return listeners;
+    }
+
+    private static class RecordingListener implements DataListener {
+
+        private final List<String> events = new ArrayList<String>();
+
+        public void startSheet( String name ) {
+            events.add( "start " + name );
+        }
+
+        public void finishSheet() {
+            events.add( "finish" );
+        }
+
+        public void newRow( int rowNumber, int columns ) {
+            events.add( "row " + rowNumber + " " + columns );
+        }
+
+        public void newCell( int row, int column, String value, int mergedColStart ) {
+            events.add( "cell " + row + " " + column + " " + value + " " + mergedColStart );
+        }
+    }
+}
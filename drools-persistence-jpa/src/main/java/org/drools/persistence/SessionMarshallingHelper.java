@@ -3,6 +3,8 @@ package org.drools.persistence;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 import org.kie.api.KieBase;
 import org.kie.api.marshalling.Marshaller;
@@ -60,27 +62,42 @@ public class SessionMarshallingHelper {
 
     public byte[] getSnapshot() {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeSnapshot( baos );
+        return baos.toByteArray();
+    }
+
+    /**
+     * Writes the session snapshot directly to the given stream, without
+     * materializing it in memory as a byte[]
+     */
+    public void writeSnapshot(OutputStream stream) {
         try {
-            marshaller.marshall( baos,
+            marshaller.marshall( stream,
                                  ksession );
         } catch ( IOException e ) {
             throw new RuntimeException( "Unable to get session snapshot",
                                         e );
         }
-
-        return baos.toByteArray();
     }
 
     public KieSession loadSnapshot(byte[] bytes,
                                    KieSession ksession) {
+        return loadSnapshot( new ByteArrayInputStream( bytes ),
+                             ksession );
+    }
+
+    /**
+     * Loads the session snapshot directly from the given stream
+     */
+    public KieSession loadSnapshot(InputStream stream,
+                                   KieSession ksession) {
         this.ksession = ksession;
-        ByteArrayInputStream bais = new ByteArrayInputStream( bytes );
         try {
             if ( this.ksession != null ) {
-                this.marshaller.unmarshall( bais,
+                this.marshaller.unmarshall( stream,
                                             this.ksession );
             } else {
-                this.ksession = this.marshaller.unmarshall( bais,
+                this.ksession = this.marshaller.unmarshall( stream,
                                                             this.conf,
                                                             this.env );
             }
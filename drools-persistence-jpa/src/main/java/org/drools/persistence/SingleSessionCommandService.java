@@ -26,8 +26,11 @@ import org.drools.core.command.impl.GenericCommand;
 import org.drools.core.command.impl.KnowledgeCommandContext;
 import org.drools.core.command.runtime.DisposeCommand;
 import org.drools.core.command.runtime.UnpersistableCommand;
+import org.drools.core.command.runtime.rule.FireAllRulesCommand;
+import org.drools.core.command.runtime.rule.QueryCommand;
 import org.drools.core.common.EndOperationListener;
 import org.drools.core.common.InternalKnowledgeRuntime;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
 import org.drools.core.marshalling.impl.MarshallingConfigurationImpl;
 import org.drools.core.runtime.process.InternalProcessRuntime;
 import org.drools.core.time.AcceptsTimerJobFactoryManager;
@@ -65,6 +68,7 @@ public class SingleSessionCommandService
     private Environment                env;
     private KnowledgeCommandContext    kContext;
     private CommandService             commandService;
+    private EndOperationListenerImpl   endOperationListener;
 
     private TransactionManager         txm;
     private PersistenceContextManager  jpm;
@@ -135,7 +139,8 @@ public class SingleSessionCommandService
 
         this.sessionInfo.setJPASessionMashallingHelper( this.marshallingHelper );
 
-        ((InternalKnowledgeRuntime) this.ksession).setEndOperationListener( new EndOperationListenerImpl(this.txm, this.sessionInfo ) );
+        this.endOperationListener = new EndOperationListenerImpl( this.txm, this.sessionInfo );
+        ((InternalKnowledgeRuntime) this.ksession).setEndOperationListener( this.endOperationListener );
         
         this.kContext = new FixedKnowledgeCommandContext( new ContextImpl( "ksession", null),
                                                           null,
@@ -245,7 +250,8 @@ public class SingleSessionCommandService
         // update the session id to be the same as the session info id
         ((InternalKnowledgeRuntime) ksession).setId( this.sessionInfo.getId() );
 
-        ((InternalKnowledgeRuntime) this.ksession).setEndOperationListener( new EndOperationListenerImpl( this.txm, this.sessionInfo ) );
+        this.endOperationListener = new EndOperationListenerImpl( this.txm, this.sessionInfo );
+        ((InternalKnowledgeRuntime) this.ksession).setEndOperationListener( this.endOperationListener );
 
         if ( this.kContext == null ) {
             // this should only happen when this class is first constructed
@@ -339,13 +345,48 @@ public class SingleSessionCommandService
         private TransactionManager txm;
         private SessionInfo info;
 
+        private boolean deferred;
+        private Date pendingModificationDate;
+
         public EndOperationListenerImpl(TransactionManager txm, SessionInfo info) {
             this.info = info;
             this.txm = txm;
         }
 
         public void endOperation(InternalKnowledgeRuntime kruntime) {
-            this.info.setLastModificationDate( new Date( kruntime.getLastIdleTimestamp() ) );
+            Date modificationDate = new Date( kruntime.getLastIdleTimestamp() );
+            if ( this.deferred ) {
+                // the command being executed may leave the session unchanged, see endDeferredUpdates()
+                this.pendingModificationDate = modificationDate;
+            } else {
+                markModified( modificationDate );
+            }
+        }
+
+        /**
+         * Holds back the updates of the SessionInfo caused by the following operations, until
+         * {@link #endDeferredUpdates(boolean)} tells whether they changed the session
+         */
+        public void deferUpdates() {
+            this.deferred = true;
+            this.pendingModificationDate = null;
+        }
+
+        /**
+         * Stops deferring the updates of the SessionInfo. If the session has been modified the SessionInfo
+         * is scheduled for update with the date of the last deferred operation, otherwise it is left as is:
+         * the session isn't marshalled again and neither its modification date nor its version change.
+         */
+        public void endDeferredUpdates(boolean modified) {
+            if ( modified && this.pendingModificationDate != null ) {
+                markModified( this.pendingModificationDate );
+            }
+            this.deferred = false;
+            this.pendingModificationDate = null;
+        }
+
+        private void markModified(Date modificationDate) {
+            this.info.setLastModificationDate( modificationDate );
             TransactionManagerHelper.addToUpdatableSet(txm, info);
         }
     }
@@ -491,6 +532,29 @@ public class SingleSessionCommandService
         }
     }
 
+    /**
+     * Queries and fireAllRules() are wrapped in session operations, but they don't always change
+     * the session: in that case there is no need to marshall it again and update its SessionInfo.
+     * As a consequence the last modification date of the SessionInfo is not moved forward by
+     * a query or by a fireAllRules() that fired nothing and propagated nothing: it is the date of
+     * the last operation that actually changed the session, not of the last operation executed.
+     */
+    private boolean isPossiblyReadOnly(Command<?> command) {
+        return ( command instanceof QueryCommand || command instanceof FireAllRulesCommand ) &&
+               ksession instanceof StatefulKnowledgeSessionImpl;
+    }
+
+    private boolean isModified(Command<?> command,
+                               Object result,
+                               long propagationId) {
+        if ( command instanceof QueryCommand ) {
+            return false;
+        }
+        // a fireAllRules() that fired nothing may still have propagated queued actions, like event expirations
+        return ((Integer) result) > 0 ||
+               ((StatefulKnowledgeSessionImpl) ksession).getPropagationIdCounter() != propagationId;
+    }
+
     private class TransactionInterceptor extends AbstractInterceptor {
 
         public TransactionInterceptor(Context context) {
@@ -543,6 +607,18 @@ public class SingleSessionCommandService
                     //  StatefulSessionKnowledgeImpl.execute(Context,Command);
                     result = ksession.execute(command);
                 }
+                else if ( isPossiblyReadOnly( command ) ) {
+                    logger.trace("Executing " + command.getClass().getSimpleName());
+                    long propagationId = ((StatefulKnowledgeSessionImpl) ksession).getPropagationIdCounter();
+                    boolean modified = true;
+                    endOperationListener.deferUpdates();
+                    try {
+                        result = executeNext((GenericCommand<T>) command);
+                        modified = isModified( command, result, propagationId );
+                    } finally {
+                        endOperationListener.endDeferredUpdates( modified );
+                    }
+                }
                 else {
                     logger.trace("Executing " + command.getClass().getSimpleName());
                     result = executeNext((GenericCommand<T>) command);
@@ -22,6 +22,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -35,6 +36,8 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.naming.InitialContext;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.transaction.UserTransaction;
 
 import org.drools.compiler.Address;
@@ -45,7 +48,10 @@ import org.drools.core.command.impl.CommandBasedStatefulKnowledgeSession;
 import org.drools.core.command.impl.FireAllRulesInterceptor;
 import org.drools.core.command.impl.LoggingInterceptor;
 import org.drools.persistence.SingleSessionCommandService;
+import org.drools.persistence.info.SessionInfo;
 import org.drools.persistence.util.PersistenceUtil;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -570,4 +576,64 @@ public class JpaPersistentStatefulSessionTest {
         // Should not fail here
         ksession = JPAKnowledgeService.loadStatefulKnowledgeSession(sessionId, kbase, null, env);
     }
+
+    @Test
+    public void testSessionInfoNotUpdatedWhenSessionUnchanged() {
+        String str = "";
+        str += "package org.kie.test\n";
+        str += "query strings\n";
+        str += " String()\n";
+        str += "end\n";
+        str += "rule rule1\n";
+        str += "when\n";
+        str += " String()\n";
+        str += "then\n";
+        str += "end\n";
+
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        kbuilder.add( ResourceFactory.newByteArrayResource( str.getBytes() ),
+                      ResourceType.DRL );
+        KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+
+        if ( kbuilder.hasErrors() ) {
+            fail( kbuilder.getErrors().toString() );
+        }
+
+        kbase.addKnowledgePackages( kbuilder.getKnowledgePackages() );
+
+        StatefulKnowledgeSession ksession = JPAKnowledgeService.newStatefulKnowledgeSession( kbase, null, env );
+        ksession.insert( "test" );
+        assertEquals( 1, ksession.fireAllRules() );
+
+        EntityManager em = ((EntityManagerFactory) context.get( ENTITY_MANAGER_FACTORY )).createEntityManager();
+        Statistics statistics = ((Session) em.getDelegate()).getSessionFactory().getStatistics();
+        em.close();
+        statistics.setStatisticsEnabled( true );
+        statistics.clear();
+        Date lastModificationDate = getLastModificationDate( ksession.getIdentifier() );
+
+        // nothing to fire and a query don't change the session, so neither its last modification date
+        assertEquals( 0, ksession.fireAllRules() );
+        assertEquals( 1, ksession.getQueryResults( "strings" ).size() );
+        assertEquals( 0, statistics.getEntityStatistics( SessionInfo.class.getName() ).getUpdateCount() );
+        assertEquals( lastModificationDate, getLastModificationDate( ksession.getIdentifier() ) );
+
+        ksession.insert( "test2" );
+        assertEquals( 1, statistics.getEntityStatistics( SessionInfo.class.getName() ).getUpdateCount() );
+
+        assertEquals( 1, ksession.fireAllRules() );
+        assertEquals( 2, statistics.getEntityStatistics( SessionInfo.class.getName() ).getUpdateCount() );
+
+        statistics.setStatisticsEnabled( false );
+        ksession.dispose();
+    }
+
+    private Date getLastModificationDate(long sessionId) {
+        EntityManager em = ((EntityManagerFactory) context.get( ENTITY_MANAGER_FACTORY )).createEntityManager();
+        try {
+            return em.find( SessionInfo.class, sessionId ).getLastModificationDate();
+        } finally {
+            em.close();
+        }
+    }
 }
@@ -16,6 +16,7 @@
 
 package org.drools.template.model;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -125,5 +126,12 @@ public abstract class AttributedDRLElement extends DRLElement {
         return this._attr2value.get("salience");
     }
 
+    /**
+     * Returns the attributes of this element, each one with its value rendered as DRL
+     */
+    public Map<String, String> getAttributes() {
+        return Collections.unmodifiableMap(this._attr2value);
+    }
+
 
 }
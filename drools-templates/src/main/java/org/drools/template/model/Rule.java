@@ -132,6 +132,10 @@ public class Rule extends AttributedDRLElement
         this._description = value;
     }
 
+    public String getDescription() {
+        return this._description;
+    }
+
     public void appendDescription(final String value) {
         this._description += value;
     }